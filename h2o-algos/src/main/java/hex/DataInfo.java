@@ -531,6 +531,73 @@ public class DataInfo extends Keyed {
   public Row newDenseRow(){
     return new Row(false,_nums,_cats,_responses,0);
   }
+
+  /** Rows per block for {@link #extractDenseRows} */
+  public static final int ROW_BLOCK = 1024;
+
+  public Row[] newDenseRows(int n){
+    Row[] rows = new Row[n];
+    for(int i = 0; i < n; ++i)
+      rows[i] = newDenseRow();
+    return rows;
+  }
+
+  /**
+   * Extract dense rows [from,to) into rows[0..to-from), same as calling
+   * extractDenseRow for each row, but decoding a column at a time with the
+   * bulk Chunk readers.  Use blocks of about ROW_BLOCK rows so the scratch
+   * space stays small on wide frames.
+   */
+  public final Row[] extractDenseRows(Chunk[] chunks, int from, int to, Row[] rows) {
+    final int n = to - from;
+    assert rows.length >= n;
+    double[] vals = MemoryManager.malloc8d(n);
+    for (int r = 0; r < n; ++r) {
+      rows[r].bad = false;
+      rows[r].nBins = 0;
+    }
+    if (_skipMissing)
+      for (Chunk c : chunks) {
+        c.getDoubles(vals, from, to);
+        for (int r = 0; r < n; ++r)
+          if (Double.isNaN(vals[r])) rows[r].bad = true;
+      }
+    for (int i = 0; i < _cats; ++i) {
+      chunks[i].getDoubles(vals, from, to);
+      for (int r = 0; r < n; ++r) {
+        Row row = rows[r];
+        if (Double.isNaN(vals[r])) {
+          row.binIds[row.nBins++] = _catOffsets[i + 1] - 1; // missing value turns into extra (last) factor
+        } else {
+          int c = getCategoricalId(i, (int) vals[r]);
+          if (c >= 0)
+            row.binIds[row.nBins++] = c;
+        }
+      }
+    }
+    for (int i = 0; i < _nums; ++i) {
+      chunks[_cats + i].getDoubles(vals, from, to); // can be NA if skipMissing() == false
+      if (_normMul != null) {
+        final double sub = _normSub[i], mul = _normMul[i];
+        for (int r = 0; r < n; ++r)
+          rows[r].numVals[i] = (vals[r] - sub) * mul;
+      } else
+        for (int r = 0; r < n; ++r)
+          rows[r].numVals[i] = vals[r];
+    }
+    for (int i = 0; i < _responses; ++i) {
+      chunks[chunks.length - _responses + i].getDoubles(vals, from, to);
+      for (int r = 0; r < n; ++r) {
+        double d = vals[r];
+        if (_normRespMul != null)
+          d = (d - _normRespSub[i]) * _normRespMul[i];
+        rows[r].response[i] = d;
+        if (Double.isNaN(d))
+          rows[r].bad = true;
+      }
+    }
+    return rows;
+  }
   /**
    * Extract (sparse) rows from given chunks.
    * Essentially turns the dataset 90 degrees.
@@ -547,18 +614,21 @@ public class DataInfo extends Keyed {
         etaOffset -= beta[i] * _normSub[i] * _normMul[i];
     for (int i = 0; i < rows.length; ++i)
       rows[i] = new Row(true, Math.min(_nums - _bins,16), Math.min(_bins, 16) + _cats, _responses, etaOffset);
+    double [] vals = MemoryManager.malloc8d(rows.length);
+    int    [] ids  = MemoryManager.malloc4(rows.length);
     // categoricals
     for (int i = 0; i < _cats; ++i) {
-      for (int r = 0; r < chunks[0]._len; ++r) {
+      chunks[i].getDoubles(vals, 0, rows.length);
+      for (int r = 0; r < rows.length; ++r) {
         Row row = rows[r];
-        if (chunks[i].isNA(r)) {
+        if (Double.isNaN(vals[r])) {
           if (_skipMissing) {
             row.bad = true;
             continue;
           } else
             row.binIds[row.nBins++] = _catOffsets[i + 1] - 1; // missing value turns into extra (last) factor
         } else {
-          int c = getCategoricalId(i,(int)chunks[i].at8(r));
+          int c = getCategoricalId(i,(int)vals[r]);
           if(c >=0)
             row.binIds[row.nBins++] = c;
         }
@@ -567,26 +637,23 @@ public class DataInfo extends Keyed {
     int numStart = numStart();
     // binary cols
     for (int cid = 0; cid < _bins; ++cid) {
-      Chunk c = chunks[cid + _cats];
-      for (int r = c.nextNZ(-1); r < c._len; r = c.nextNZ(r)) {
-        Row row = rows[r];
-        if (c.isNA(r))
+      final int nnz = chunks[cid + _cats].getSparseDoubles(vals, ids);
+      for (int k = 0; k < nnz; ++k) {
+        Row row = rows[ids[k]];
+        if (Double.isNaN(vals[k]))
           row.bad = _skipMissing;
-        if (row.bad) continue;
+        if (row.bad || vals[k] == 0) continue; // dense chunks report their zeros too
         row.addBinId(cid + numStart);
       }
     }
     // generic numbers
     for (int cid = 0; cid < _nums; ++cid) {
-      Chunk c = chunks[_cats + cid];
-      int oldRow = -1;
-      for (int r = c.nextNZ(-1); r < c._len; r = c.nextNZ(r)) {
-        assert r > oldRow;
-        oldRow = r;
-        Row row = rows[r];
-        if (c.isNA(r)) row.bad = _skipMissing;
-        if (row.bad) continue;
-        double d = c.atd(r);
+      final int nnz = chunks[_cats + cid].getSparseDoubles(vals, ids);
+      for (int k = 0; k < nnz; ++k) {
+        Row row = rows[ids[k]];
+        double d = vals[k];
+        if (Double.isNaN(d)) row.bad = _skipMissing;
+        if (row.bad || d == 0) continue;
         if(_normMul != null)
           d *= _normMul[cid]; // no centering here, we already have etaOffset
         row.addNum(cid + numStart + _bins, d);
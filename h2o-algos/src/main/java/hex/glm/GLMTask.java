@@ -38,10 +38,12 @@ public abstract class GLMTask  {
 
    @Override public void map(Chunk [] chunks) {
      boolean [] skip = MemoryManager.mallocZ(chunks[0]._len);
+     double [] vals = MemoryManager.malloc8d(chunks[0]._len);
+     int    [] ids  = MemoryManager.malloc4(chunks[0]._len);
      for(int i = 0; i < chunks.length-1; ++i) {
-       for(int r = chunks[i].nextNZ(-1); r < chunks[i]._len; r = chunks[i].nextNZ(r)) {
-         skip[r] |= chunks[i].isNA(r);
-       }
+       final int nnz = chunks[i].getSparseDoubles(vals, ids);
+       for(int k = 0; k < nnz; ++k)
+         skip[ids[k]] |= Double.isNaN(vals[k]);
      }
      Chunk response = chunks[chunks.length-1];
      for(int r = 0; r < response._len; ++r) {
@@ -214,14 +216,18 @@ public abstract class GLMTask  {
         }
       }
       // non-zero numbers
+      double [] vals = MemoryManager.malloc8d(chks[0]._len);
+      int    [] ids  = MemoryManager.malloc4(chks[0]._len);
       for (int i = 0; i < _dinfo._nums; ++i) {
         Chunk c = chks[i + _dinfo._cats];
-        for (int r = c.nextNZ(-1); r < c._len; r = c.nextNZ(r)) {
-          if(skip[r] || c.isNA(r)) {
+        final int nnz = c.getSparseDoubles(vals, ids);
+        for (int k = 0; k < nnz; ++k) {
+          final int r = ids[k];
+          double d = vals[k];
+          if(skip[r] || Double.isNaN(d)) {
             skip[r] = true;
             continue;
           }
-          double d = c.atd(r);
           if (_dinfo._normMul != null)
             d *= _dinfo._normMul[i];
           double b = beta[numStart+i];
@@ -318,11 +324,14 @@ public abstract class GLMTask  {
 //      }
 //    }
     protected void goByRows(Chunk [] chks){
-      Row row = _dinfo.newDenseRow();
+      final int len = chks[0]._len;
+      Row [] rows = _dinfo.newDenseRows(Math.min(len, DataInfo.ROW_BLOCK));
       double [] g = _gradient;
       double [] b = _beta;
-      for(int rid = 0; rid < chks[0]._len; ++rid) {
-        row = _dinfo.extractDenseRow(chks, rid, row);
+      for(int rid = 0; rid < len; ++rid) {
+        if(rid % rows.length == 0)
+          _dinfo.extractDenseRows(chks, rid, Math.min(len, rid + rows.length), rows);
+        Row row = rows[rid % rows.length];
         if(row.bad) continue;
         double eta = row.innerProduct(b);
         double mu = _params.linkInv(eta);
@@ -385,14 +394,18 @@ public abstract class GLMTask  {
           eta[r] += off;
       }
       // now numerics
+      double [] vals = MemoryManager.malloc8d(chks[0]._len);
+      int    [] ids  = MemoryManager.malloc4(chks[0]._len);
       for (int i = 0; i < _dinfo._nums; ++i) {
         Chunk c = chks[i + _dinfo._cats];
-        for (int r = c.nextNZ(-1); r < c._len; r = c.nextNZ(r)) {
-          if(skip[r] || c.isNA(r)) {
+        final int nnz = c.getSparseDoubles(vals, ids);
+        for (int k = 0; k < nnz; ++k) {
+          final int r = ids[k];
+          double d = vals[k];
+          if(skip[r] || Double.isNaN(d)) {
             skip[r] = true;
             continue;
           }
-          double d = c.atd(r);
           if (_dinfo._normMul != null)
             d *= _dinfo._normMul[i];
           eta[r] += b[numStart + i] * d;
@@ -449,12 +462,16 @@ public abstract class GLMTask  {
         }
       }
       // numerics
+      double [] vals = MemoryManager.malloc8d(chks[0]._len);
+      int    [] ids  = MemoryManager.malloc4(chks[0]._len);
       for (int i = 0; i < _dinfo._nums; ++i) {
         Chunk c = chks[i + _dinfo._cats];
-        for (int r = c.nextNZ(-1); r < c._len; r = c.nextNZ(r)) {
-          if(skp[r] || c.isNA(r))
+        final int nnz = c.getSparseDoubles(vals, ids);
+        for (int k = 0; k < nnz; ++k) {
+          final int r = ids[k];
+          double d = vals[k];
+          if(skp[r] || Double.isNaN(d))
             continue;
-          double d = c.atd(r);
           if (_dinfo._normMul != null)
             d = d*_dinfo._normMul[i];
           g[numStart + i] += eta[r] * d;
@@ -519,11 +536,14 @@ public abstract class GLMTask  {
 
     @Override   protected void goByRows(Chunk [] chks){
       Log.info("go by rows for start row = " + chks[0].start());
-      Row row = _dinfo.newDenseRow();
+      final int len = chks[0]._len;
+      Row [] rows = _dinfo.newDenseRows(Math.min(len, DataInfo.ROW_BLOCK));
       double [] g = _gradient;
       double [] b = _beta;
-      for(int rid = 0; rid < chks[0]._len; ++rid) {
-        row = _dinfo.extractDenseRow(chks, rid, row);
+      for(int rid = 0; rid < len; ++rid) {
+        if(rid % rows.length == 0)
+          _dinfo.extractDenseRows(chks, rid, Math.min(len, rid + rows.length), rows);
+        Row row = rows[rid % rows.length];
         double y = -1 + 2*row.response(0);
         if(row.bad) continue;
         double eta = row.innerProduct(b);
@@ -600,12 +620,16 @@ public abstract class GLMTask  {
         }
       }
       // numerics
+      double [] vals = MemoryManager.malloc8d(chks[0]._len);
+      int    [] ids  = MemoryManager.malloc4(chks[0]._len);
       for (int i = 0; i < _dinfo._nums; ++i) {
         Chunk c = chks[i + _dinfo._cats];
-        for (int r = c.nextNZ(-1); r < c._len; r = c.nextNZ(r)) {
-          if(skp[r] || c.isNA(r))
+        final int nnz = c.getSparseDoubles(vals, ids);
+        for (int k = 0; k < nnz; ++k) {
+          final int r = ids[k];
+          double d = vals[k];
+          if(skp[r] || Double.isNaN(d))
             continue;
-          double d = c.atd(r);
           if (_dinfo._normMul != null)
             d = d*_dinfo._normMul[i];
           g[numStart + i] += eta[r] * d;
@@ -717,9 +741,14 @@ public abstract class GLMTask  {
         // need to adjust gradient by centered zeros
         int numStart = _dinfo.numStart();
       } else {
-        Row row = _dinfo.newDenseRow();
-        for(int r = 0 ; r < chks[0]._len; ++r)
-          processRow(_dinfo.extractDenseRow(chks,r, row));
+        final int len = chks[0]._len;
+        Row [] rows = _dinfo.newDenseRows(Math.min(len, DataInfo.ROW_BLOCK));
+        for(int r0 = 0; r0 < len; r0 += rows.length) {
+          int r1 = Math.min(len, r0 + rows.length);
+          _dinfo.extractDenseRows(chks, r0, r1, rows);
+          for(int r = 0; r < r1 - r0; ++r)
+            processRow(rows[r]);
+        }
       }
       if(_validate && _glm._family == Family.binomial) {
         assert _val != null;
@@ -327,8 +327,9 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     @Override public void map(Chunk[] cs) {
       double[] values = new double[cs.length];
       ClusterDist cd = new ClusterDist();
+      ChunkRows rows = new ChunkRows(cs, _means, _mults);
       for( int row = 0; row < cs[0]._len; row++ ) {
-        data(values, cs, row, _means, _mults);
+        rows.data(values, row);
         _sqr += minSqr(_centers, values, _isCats, cd);
       }
       _means = _mults = null;
@@ -368,9 +369,10 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       ArrayList<double[]> list = new ArrayList<>();
       Random rand = RandomUtils.getRNG(_seed + cs[0].start());
       ClusterDist cd = new ClusterDist();
+      ChunkRows rows = new ChunkRows(cs, _means, _mults);
 
       for( int row = 0; row < cs[0]._len; row++ ) {
-        data(values, cs, row, _means, _mults);
+        rows.data(values, row);
         double sqr = minSqr(_centers, values, _isCats, cd);
         if( _probability * sqr > rand.nextDouble() * _sqr )
           list.add(values.clone());
@@ -433,8 +435,9 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
       // Find closest cluster center for each row
       double[] values = new double[N]; // Temp data to hold row as doubles
       ClusterDist cd = new ClusterDist();
+      ChunkRows rows = new ChunkRows(cs, _means, _mults);
       for( int row = 0; row < cs[0]._len; row++ ) {
-        data(values, cs, row, _means, _mults); // Load row as doubles
+        rows.data(values, row); // Load row as doubles
         closest(_centers, values, _isCats, cd); // Find closest cluster center
         int clu = cd._cluster;
         assert clu != -1;       // No broken rows
@@ -584,10 +587,43 @@ public class KMeans extends ClusteringModelBuilder<KMeansModel,KMeansModel.KMean
     }
   }
 
-  private static void data(double[] values, Chunk[] chks, int row, double[] means, double[] mults) {
-    for( int i = 0; i < values.length; i++ ) {
-      double d = chks[i].atd(row);
-      values[i] = data(d, i, means, mults, chks[i].vec().cardinality());
+  /**
+   * Row reader over a set of Chunks.  Decodes a block of rows at a time,
+   * column by column with the bulk Chunk readers, and hands them out a row at
+   * a time with the NA fill and standardization applied.
+   */
+  private static final class ChunkRows {
+    static final int ROW_BLOCK = 1024;
+    final Chunk[] _chks;
+    final double[] _means, _mults;
+    final int[] _cards;
+    final double[][] _block;
+    int _row0, _row1;           // Rows currently decoded in _block
+
+    ChunkRows(Chunk[] chks, double[] means, double[] mults) {
+      _chks = chks;
+      _means = means;
+      _mults = mults;
+      _cards = new int[chks.length];
+      for( int i = 0; i < chks.length; i++ ) _cards[i] = chks[i].vec().cardinality();
+      _block = new double[chks.length][Math.min(ROW_BLOCK, chks[0]._len)];
+    }
+
+    void data(double[] values, int row) {
+      if( row < _row0 || row >= _row1 ) fill(row);
+      final int r = row - _row0;
+      for( int i = 0; i < values.length; i++ )
+        values[i] = _block[i][r];
+    }
+
+    private void fill(int row) {
+      _row0 = row;
+      _row1 = Math.min(_chks[0]._len, row + _block[0].length);
+      for( int i = 0; i < _chks.length; i++ ) {
+        double[] col = _chks[i].getDoubles(_block[i], _row0, _row1);
+        for( int r = 0; r < _row1 - _row0; r++ )
+          col[r] = KMeans.data(col[r], i, _means, _mults, _cards[i]);
+      }
     }
   }
 
@@ -212,30 +212,48 @@ public class NaiveBayes extends SupervisedModelBuilder<NaiveBayesModel,NaiveBaye
         }
       }
 
+      // Walk a column at a time; numeric columns only visit their non-zeros
+      final int len = chks[0]._len;
+      double[] vals = MemoryManager.malloc8d(len);
+      int[] ids = MemoryManager.malloc4(len);
+
+      // Skip row if any entries in it are NA
+      boolean[] skip = MemoryManager.mallocZ(len);
+      for(int col = 0; col < chks.length; col++) {
+        int nnz = chks[col].getSparseDoubles(vals, ids);
+        for(int k = 0; k < nnz; k++)
+          if(Double.isNaN(vals[k])) skip[ids[k]] = true;
+      }
+
       Chunk res = chks[_npreds];    // Response at the end
-      OUTER:
-      for(int row = 0; row < chks[0]._len; row++) {
-        // Skip row if any entries in it are NA
-        for(int col = 0; col < chks.length; col++) {
-          if(Double.isNaN(chks[col].atd(row))) continue OUTER;
-        }
+      int[] rlevels = MemoryManager.malloc4(len);
+      res.getDoubles(vals, 0, len);
+      for(int row = 0; row < len; row++) {
+        if(skip[row]) continue;
+        rlevels[row] = (int)vals[row];
+        _rescnt[rlevels[row]]++;
+        _nobs++;
+      }
 
-        // Record joint counts of categorical predictors and response
-        int rlevel = (int)res.atd(row);
-        for(int col = 0; col < _dinfo._cats; col++) {
-          int plevel = (int)chks[col].atd(row);
-          _jntcnt[col][rlevel][plevel]++;
+      // Record joint counts of categorical predictors and response
+      for(int col = 0; col < _dinfo._cats; col++) {
+        chks[col].getDoubles(vals, 0, len);
+        for(int row = 0; row < len; row++) {
+          if(skip[row]) continue;
+          _jntcnt[col][rlevels[row]][(int)vals[row]]++;
         }
+      }
 
-        // Record sum for each pair of numerical predictors and response
-        for(int col = 0; col < _dinfo._nums; col++) {
-          int cidx = _dinfo._cats + col;
-          double x = chks[cidx].atd(row);
-          _jntsum[col][rlevel][0] += x;
-          _jntsum[col][rlevel][1] += x*x;
+      // Record sum for each pair of numerical predictors and response
+      for(int col = 0; col < _dinfo._nums; col++) {
+        int nnz = chks[_dinfo._cats + col].getSparseDoubles(vals, ids);
+        for(int k = 0; k < nnz; k++) {
+          int row = ids[k];
+          if(skip[row]) continue;
+          double x = vals[k];
+          _jntsum[col][rlevels[row]][0] += x;
+          _jntsum[col][rlevels[row]][1] += x*x;
         }
-        _rescnt[rlevel]++;
-        _nobs++;
       }
     }
 
@@ -40,6 +40,11 @@ public class DBinomHistogram extends DHistogram<DBinomHistogram> {
   @Override void incr0( int b, double y ) {
     water.util.AtomicUtils.IntArray.incr(_sums,b);
   }
+  // Same, for a whole bin's worth of rows; responses are 0 or 1 so the sum
+  // is a count
+  @Override void incr0( int b, double y, double yy ) {
+    water.util.AtomicUtils.IntArray.add(_sums,b,(int)y);
+  }
 
   // Merge two equal histograms together.  Done in a F/J reduce, so no
   // synchronization needed.
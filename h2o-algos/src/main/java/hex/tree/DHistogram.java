@@ -148,6 +148,19 @@ public abstract class DHistogram<TDH extends DHistogram> extends Iced {
     if( y != 0 ) incr0(b,y);
   }
 
+  // Merge one chunk's worth of privately gathered bins into this shared
+  // histogram: one atomic update per non-empty bin, instead of one per row.
+  // The private arrays are zeroed for reuse by the next histogram.
+  abstract void incr0( int b, double sum, double ssq );
+  final void incr( int bins[], double sums[], double ssqs[], float min, float max ) {
+    setMin(min);                // Track actual lower/upper bound
+    setMax(max);
+    for( int b=0; b<_bins.length; b++ ) { // Bump counts in bins
+      if( bins[b] != 0 ) { water.util.AtomicUtils.IntArray.add(_bins,b,bins[b]); bins[b]=0; }
+      if( ssqs[b] != 0 ) { incr0(b,sums[b],ssqs[b]); sums[b]=ssqs[b]=0; }
+    }
+  }
+
   // Merge two equal histograms together.  Done in a F/J reduce, so no
   // synchronization needed.
   abstract void add0( TDH dsh );
@@ -42,10 +42,10 @@ public class DRealHistogram extends DHistogram<DRealHistogram> {
     AtomicUtils.DoubleArray.add(_sums,b,y);
     AtomicUtils.DoubleArray.add(_ssqs,b,y*y);
   }
-  // Same, except square done by caller
-  void incr1( int b, double y, double yy ) {
-    AtomicUtils.DoubleArray.add(_sums,b,y);
-    AtomicUtils.DoubleArray.add(_ssqs,b,yy);
+  // Same, for a whole bin's worth of rows; square done by caller
+  @Override void incr0( int b, double y, double yy ) {
+    AtomicUtils.DoubleArray.add(_sums,b,(float)y);
+    AtomicUtils.DoubleArray.add(_ssqs,b,(float)yy);
   }
 
   // Merge two equal histograms together.
@@ -3,7 +3,6 @@ package hex.tree;
 import water.MRTask;
 import water.H2O.H2OCountedCompleter;
 import water.fvec.Chunk;
-import water.util.AtomicUtils;
 
 /**  Score and Build Histogram
  * 
@@ -37,7 +36,7 @@ public class ScoreBuildHistogram extends MRTask<ScoreBuildHistogram> {
   final int   _leaf; // Number of active leaves (per tree)
   // Histograms for every tree, split & active column
   final DHistogram _hcs[/*tree-relative node-id*/][/*column*/];
-  final boolean _subset;      // True if working a subset of cols
+  final boolean _subset;      // True if working a subset of cols; the unused cols' histograms are never init'd
 
   public ScoreBuildHistogram(H2OCountedCompleter cc, int k, int ncols, int nbins, DTree tree, int leaf, DHistogram hcs[][], boolean subset) {
     super(cc);
@@ -99,8 +98,7 @@ public class ScoreBuildHistogram extends MRTask<ScoreBuildHistogram> {
         if( isDecidedRow((int)nids.atd(row)) ) nnids[row] = -1;
 
     // Pass 2: accumulate all rows, cols into histograms
-    if( _subset ) accum_subset(chks,wrks,nnids);
-    else          accum_all   (chks,wrks,nnids);
+    accum_all(chks,wrks,nnids);
   }
 
   @Override public void reduce( ScoreBuildHistogram sbh ) {
@@ -155,28 +153,15 @@ public class ScoreBuildHistogram extends MRTask<ScoreBuildHistogram> {
     }
   }
 
-  // All rows, some cols, accumulate histograms
-  private void accum_subset(Chunk chks[], Chunk wrks, int nnids[]) {
-    for( int row=0; row<nnids.length; row++ ) { // Over all rows
-      int nid = nnids[row];                     // Get Node to decide from
-      if( nid >= 0 ) {        // row already predicts perfectly or OOB
-        assert !Double.isNaN(wrks.atd(row)); // Already marked as sampled-away
-        DHistogram nhs[] = _hcs[nid];
-        int sCols[] = _tree.undecided(nid+_leaf)._scoreCols; // Columns to score (null, or a list of selected cols)
-        for( int col : sCols ) // For tracked cols
-        //FIXME/TODO: sum into local variables, do atomic increment once at the end, similar to accum_all
-          nhs[col].incr((float)chks[col].atd(row),(float)wrks.atd(row)); // Histogram row/col
-      }
-    }
-  }
-
   // All rows, all cols, accumulate histograms.  This is the hot hot inner
-  // loop of GBM, so we do some non-standard optimizations.  The rows in this
-  // chunk are spread out amongst a modest set of NodeIDs/splits.  Normally
-  // we would visit the rows in row-order, but this visits the NIDs in random
-  // order.  The hot-part of this code updates the histograms racily (via
-  // atomic updates) - once-per-row.  This optimized version updates the
-  // histograms once-per-NID, but requires pre-sorting the rows by NID.
+  // loop of GBM and DRF, so we do some non-standard optimizations.  The rows
+  // in this chunk are spread out amongst a modest set of NodeIDs/splits.
+  // Normally we would visit the rows in row-order, but this visits the NIDs in
+  // random order.  The histograms are shared by all the F/J threads on this
+  // node, and updating them racily (via atomic updates) once-per-row makes
+  // every thread contend on the same cache lines.  Instead this version
+  // gathers each (NID,column) privately and updates the shared histogram
+  // once-per-chunk, but requires pre-sorting the rows by NID.
   private void accum_all(Chunk chks[], Chunk wrks, int nnids[]) {
     final DHistogram hcs[][] = _hcs;
     // Sort the rows by NID, so we visit all the same NIDs in a row
@@ -195,20 +180,28 @@ public class ScoreBuildHistogram extends MRTask<ScoreBuildHistogram> {
     accum_all2(chks,wrks,nh,rows);
   }
 
-  // For all columns, for all NIDs, for all ROWS...
+  // For all columns, for all NIDs, for all ROWS...  Columns not selected for a
+  // NID (when working a subset of columns) have no bins and are skipped.
   private void accum_all2(Chunk chks[], Chunk wrks, int nh[], int[] rows) {
     final DHistogram hcs[][] = _hcs;
     // Local temp arrays, no atomic updates.
     int    bins[] = new int   [_nbins];
     double sums[] = new double[_nbins];
     double ssqs[] = new double[_nbins];
+    // Decode the response and each column once, instead of a virtual atd()
+    // call per row per NID.
+    final double resps[] = wrks.getDoubles(new double[wrks._len],0,wrks._len);
+    final double cols [] = new double[wrks._len];
     // For All Columns
     for( int c=0; c<_ncols; c++) { // for all columns
-      Chunk chk = chks[c];
+      boolean tracked = false;
+      for( int n=0; n<hcs.length && !tracked; n++ ) tracked = hcs[n][c] != null && hcs[n][c]._bins != null;
+      if( !tracked ) continue;
+      chks[c].getDoubles(cols,0,chks[c]._len);
       // For All NIDs
       for( int n=0; n<hcs.length; n++ ) {
-        final DRealHistogram rh = ((DRealHistogram)hcs[n][c]);
-        if( rh==null ) continue; // Ignore untracked columns in this split
+        final DHistogram rh = hcs[n][c];
+        if( rh==null || rh._bins==null ) continue; // Ignore untracked columns in this split
         final int lo = n==0 ? 0 : nh[n-1];
         final int hi = nh[n];
         float min = rh._min2;
@@ -227,23 +220,18 @@ public class ScoreBuildHistogram extends MRTask<ScoreBuildHistogram> {
         // Gather min/max, sums and sum-squares.
         for( int xrow=lo; xrow<hi; xrow++ ) {
           int row = rows[xrow];
-          float col_data = (float)chk.atd(row);
+          float col_data = (float)cols[row];
           if( col_data < min ) min = col_data;
           if( col_data > max ) max = col_data;
           int b = rh.bin(col_data); // Compute bin# via linear interpolation
           bins[b]++;                // Bump count in bin
-          double resp = wrks.atd(row);
+          double resp = resps[row];
           sums[b] += resp;
           ssqs[b] += resp*resp;
         }
 
         // Add all the data into the Histogram (atomically add)
-        rh.setMin(min);       // Track actual lower/upper bound per-bin
-        rh.setMax(max);
-        for( int b=0; b<rh._bins.length; b++ ) { // Bump counts in bins
-          if( bins[b] != 0 ) { AtomicUtils.IntArray.add(rh._bins,b,bins[b]); bins[b]=0; }
-          if( ssqs[b] != 0 ) { rh.incr1(b,(float)sums[b],(float)ssqs[b]); sums[b]=ssqs[b]=0; }
-        }
+        rh.incr(bins,sums,ssqs,min,max);
       }
     }
   }
@@ -0,0 +1,110 @@
+package hex.tree;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Contention on the node-shared {@link DHistogram}s of GBM/DRF.
+ *
+ *  <p>Every JMH thread plays an F/J worker mapping over chunks: each call
+ *  adds one chunk of rows, for every column of a 100-column frame, into the
+ *  same shared histograms.  {@code row} does one atomic update per row (the
+ *  old DRF path); {@code chunk} gathers the chunk into private bins and
+ *  updates the shared histogram once per bin (what {@link
+ *  ScoreBuildHistogram} does now).  Scaling is measured by re-running with
+ *  more threads, e.g. {@code -t 1}, {@code -t 8}, {@code -t 64}; with
+ *  perfect scaling the score per chunk stays flat. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HistogramAccumBench {
+  @Param({"row","chunk"})
+  public String mode;
+
+  /** Real (regression, GBM) or binomial (DRF classification) histograms */
+  @Param({"false","true"})
+  public boolean binom;
+
+  @Param({"100"})
+  public int ncols;
+
+  @Param({"20"})
+  public int nbins;
+
+  /** Rows per chunk */
+  @Param({"1000"})
+  public int len;
+
+  private DHistogram[] _hs;
+
+  // Fresh histograms per iteration, so counts do not wrap on long runs
+  @Setup(Level.Iteration) public void setup() {
+    _hs = new DHistogram[ncols];
+    for( int c=0; c<ncols; c++ ) {
+      _hs[c] = DHistogram.make("C"+(c+1), nbins, (byte)0, 0f, 1f, Long.MAX_VALUE, binom);
+      _hs[c].init();
+    }
+  }
+
+  /** One F/J worker's chunk of data and its private bins */
+  @State(Scope.Thread)
+  public static class Worker {
+    float  _cols[][];
+    double _resps[];
+    int    _bins[];
+    double _sums[], _ssqs[];
+
+    @Setup public void setup( HistogramAccumBench b ) {
+      Random r = new Random(Thread.currentThread().getId());
+      _cols = new float[b.ncols][b.len];
+      _resps = new double[b.len];
+      for( int c=0; c<b.ncols; c++ )
+        for( int row=0; row<b.len; row++ )
+          _cols[c][row] = r.nextFloat();
+      for( int row=0; row<b.len; row++ )
+        _resps[row] = b.binom ? r.nextInt(2) : r.nextGaussian();
+      _bins = new int   [b.nbins];
+      _sums = new double[b.nbins];
+      _ssqs = new double[b.nbins];
+    }
+  }
+
+  @Benchmark public void accumulate( Worker w ) {
+    if( mode.equals("row") ) perRow(w);
+    else                     perChunk(w);
+  }
+
+  private void perRow( Worker w ) {
+    for( int c=0; c<_hs.length; c++ ) {
+      final DHistogram h = _hs[c];
+      final float[] col = w._cols[c];
+      for( int row=0; row<col.length; row++ )
+        h.incr(col[row], w._resps[row]);
+    }
+  }
+
+  private void perChunk( Worker w ) {
+    final int bins[] = w._bins;
+    final double sums[] = w._sums, ssqs[] = w._ssqs;
+    for( int c=0; c<_hs.length; c++ ) {
+      final DHistogram h = _hs[c];
+      final float[] col = w._cols[c];
+      float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+      for( int row=0; row<col.length; row++ ) {
+        float d = col[row];
+        if( d < min ) min = d;
+        if( d > max ) max = d;
+        int b = h.bin(d);
+        bins[b]++;
+        double resp = w._resps[row];
+        sums[b] += resp;
+        ssqs[b] += resp*resp;
+      }
+      h.incr(bins,sums,ssqs,min,max);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package water;
+
+import java.lang.management.ManagementFactory;
+
+/** Support for the JMH benchmarks; the benchmark analog of {@code TestUtil}.
+ *
+ *  <p>Every JMH fork is a fresh JVM, so each benchmark {@code @Setup} must
+ *  boot a (single-node) H2O before touching the K/V store.  The cloud name is
+ *  made unique so a benchmark run never joins a real cluster on the same
+ *  network and skews the numbers. */
+public abstract class BenchUtil {
+  private static boolean _booted = false;
+
+  /** Boot H2O in this JVM (once), and stall until the cloud is at least
+   *  {@code x} nodes large. */
+  public static synchronized void stall_till_cloudsize(int x) {
+    if( !_booted ) {
+      // RuntimeMXBean name is "pid@host"; good enough to be unique per fork
+      String cloud = "h2o-bench-"+ManagementFactory.getRuntimeMXBean().getName().replace('@','-');
+      H2O.main(new String[]{"-name", cloud, "-quiet"});
+      _booted = true;
+    }
+    H2O.waitForCloudSize(x, 30000);
+  }
+}
@@ -0,0 +1,49 @@
+package water;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.annotations.Scope; // not water.Scope
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+import java.util.concurrent.TimeUnit;
+
+/** Fixed overhead of a single-node {@link MRTask#doAll} round trip: the
+ *  fan-out over the chunk range, one {@code map} call per chunk and the
+ *  reduce tree back up.  Chunks are small and constant so the score is
+ *  dominated by the framework, not by decoding data. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MRTaskBench {
+  /** Chunks in the Vec; rows are {@code nchunks << LOG_ROWS} */
+  @Param({"1","10","100","1000"})
+  public int nchunks;
+
+  static final int LOG_ROWS = 10;
+
+  private Vec _vec;
+
+  @Setup public void setup() {
+    BenchUtil.stall_till_cloudsize(1);
+    _vec = Vec.makeCon(1, ((long)nchunks)<<LOG_ROWS, LOG_ROWS);
+    if( _vec.nChunks() != nchunks ) throw new IllegalStateException("Expected "+nchunks+" chunks but got "+_vec.nChunks());
+  }
+
+  @TearDown public void teardown() { _vec.remove(); }
+
+  @Benchmark public double doAll() { return new Sum().doAll(_vec)._sum; }
+
+  private static class Sum extends MRTask<Sum> {
+    double _sum;
+    @Override public void map( Chunk c ) {
+      double sum = 0;
+      for( int row=0; row < c._len; row++ )
+        sum += c.atd(row);
+      _sum = sum;
+    }
+    @Override public void reduce( Sum s ) { _sum += s._sum; }
+  }
+}
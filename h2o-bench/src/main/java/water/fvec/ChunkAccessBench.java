@@ -0,0 +1,114 @@
+package water.fvec;
+
+import org.openjdk.jmh.annotations.*;
+import water.util.UnsafeUtils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Per-row decode cost of the numeric {@link Chunk} compression schemes.
+ *
+ *  <p>Each benchmark walks a whole chunk with the standard chunk-local
+ *  {@code for} loop, the same pattern as the {@code map()} calls of nearly all
+ *  algorithms.  The chunk is built by handing data of a suitable shape to
+ *  {@link NewChunk#compress}, so the benchmark also guards against changes in
+ *  the compression heuristics: setup fails if the requested compression is
+ *  not the one picked.  Scores are per chunk; divide by {@code len} for the
+ *  per-row cost. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChunkAccessBench {
+  /** Chunk subclass, minus the trailing "Chunk" */
+  @Param({"C0L","C0D","C1N","C1","C1S","C2","C2S","C4","C4S","C4F","C8","C8D","CBS","CX0","CXI","CXD","CRLE","CFOR","CBP"})
+  public String type;
+
+  /** Rows per chunk */
+  @Param({"65536"})
+  public int len;
+
+  private Chunk _chk;
+  private double[] _ds;
+
+  @Setup public void setup() {
+    _chk = makeChunk(type, len, 0xDECAF);
+    _ds = new double[len];
+    String name = _chk.getClass().getSimpleName();
+    if( !name.equals(type+"Chunk") )
+      throw new IllegalStateException("Expected "+type+"Chunk but compress() picked "+name);
+  }
+
+  @Benchmark public double atd() {
+    final Chunk c = _chk;
+    double sum = 0;
+    for( int row=0; row < c._len; row++ )
+      sum += c.atd(row);
+    return sum;
+  }
+
+  /** Same sum as {@link #atd}, via one bulk decode of the whole chunk */
+  @Benchmark public double getDoubles() {
+    final double[] ds = _chk.getDoubles(_ds, 0, _chk._len);
+    double sum = 0;
+    for( int row=0; row < ds.length; row++ )
+      sum += ds[row];
+    return sum;
+  }
+
+  @Benchmark public long at8() {
+    final Chunk c = _chk;
+    long sum = 0;
+    for( int row=0; row < c._len; row++ )
+      if( !c.isNA(row) ) sum += c.at8(row);
+    return sum;
+  }
+
+  @Benchmark public int isNA() {
+    final Chunk c = _chk;
+    int nas = 0;
+    for( int row=0; row < c._len; row++ )
+      if( c.isNA(row) ) nas++;
+    return nas;
+  }
+
+  /** Build a chunk of {@code len} rows of the given compression type, with
+   *  roughly 1 in 16 missing values wherever that scheme supports NAs. */
+  static Chunk makeChunk( String type, int len, long seed ) {
+    Random rng = new Random(seed);
+    NewChunk nc = new NewChunk(null, 0);
+    switch( type ) {
+    case "C0L": for( int i=0; i<len; i++ ) nc.addNum(7,0); break;
+    case "C0D": for( int i=0; i<len; i++ ) nc.addNum(3.25); break;
+    case "C1N": for( int i=0; i<len; i++ ) nc.addNum(rng.nextInt(256),0); break;
+    case "C1":  for( int i=0; i<len; i++ ) if( (i&15)==0 ) nc.addNA(); else nc.addNum(rng.nextInt(255),0); break;
+    case "C1S": for( int i=0; i<len; i++ ) if( (i&15)==0 ) nc.addNA(); else nc.addNum(rng.nextInt(250)-100,-1); break;
+    case "C2":  for( int i=0; i<len; i++ ) if( (i&15)==0 ) nc.addNA(); else nc.addNum(rng.nextInt(60000)-30000,0); break;
+    case "C2S": for( int i=0; i<len; i++ ) if( (i&15)==0 ) nc.addNA(); else nc.addNum(rng.nextInt(60000),-2); break;
+    case "C4":  for( int i=0; i<len; i++ ) if( (i&15)==0 ) nc.addNA(); else nc.addNum(rng.nextInt(Integer.MAX_VALUE)-(1<<30),0); break;
+    case "C4S": for( int i=0; i<len; i++ ) if( (i&15)==0 ) nc.addNA(); else nc.addNum(rng.nextInt(1<<24),-3); break;
+    case "C8":  for( int i=0; i<len; i++ ) if( (i&15)==0 ) nc.addNA(); else nc.addNum(rng.nextLong()>>1,0); break;
+    case "C8D": for( int i=0; i<len; i++ ) nc.addNum((i&15)==0 ? Double.NaN : rng.nextDouble()); break;
+    case "CBS": for( int i=0; i<len; i++ ) if( (i&15)==0 ) nc.addNA(); else nc.addNum(rng.nextInt(2),0); break;
+    // Sparse: 1 in 64 rows is non-zero
+    case "CX0": for( int i=0; i<len; i++ ) nc.addNum((i&63)==0 ? 1 : 0,0); break;
+    case "CXI": for( int i=0; i<len; i++ ) nc.addNum((i&63)==0 ? rng.nextInt(1000)+2 : 0,0); break;
+    case "CXD": for( int i=0; i<len; i++ ) nc.addNum((i&63)==0 ? rng.nextDouble() : 0); break;
+    // Runs of 256 equal values
+    case "CRLE":for( int i=0; i<len; i++ ) if( (i>>8)%16==3 ) nc.addNA(); else nc.addNum((i>>8)%50*1000,0); break;
+    // Millisecond timestamps a few seconds apart
+    case "CFOR":for( long t=1420070400000L, i=0; i<len; i++ ) if( (i&15)==0 ) nc.addNA(); else nc.addNum(t += rng.nextInt(5000),0); break;
+    // 7 bits a row
+    case "CBP": for( int i=0; i<len; i++ ) if( (i&15)==0 ) nc.addNA(); else nc.addNum(rng.nextInt(101),0); break;
+    case "C4F": {               // Never picked by compress(); built directly
+      byte[] bs = new byte[len<<2];
+      for( int i=0; i<len; i++ ) UnsafeUtils.set4f(bs, i<<2, (i&15)==0 ? Float.NaN : rng.nextFloat());
+      return new C4FChunk(bs);
+    }
+    default: throw new IllegalArgumentException("Unknown chunk type "+type);
+    }
+    return nc.compress();
+  }
+}
@@ -0,0 +1,93 @@
+package water.fvec;
+
+import org.openjdk.jmh.annotations.*;
+import water.parser.ValueString;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Per-row access cost of the non-numeric chunks: {@link C16Chunk} (UUIDs),
+ *  {@link CStrChunk} and {@link CStrDictChunk} (Strings).  These throw on {@code atd}/{@code at8},
+ *  so they get their own accessors here.  Scores are per chunk. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChunkNonNumericAccessBench {
+  static final int LEN = 65536;
+
+  @State(Scope.Thread)
+  public static class UUIDChunk {
+    Chunk _chk;
+    @Setup public void setup() {
+      Random rng = new Random(0xDECAF);
+      NewChunk nc = new NewChunk(null, 0);
+      for( int i=0; i<LEN; i++ )
+        if( (i&15)==0 ) nc.addNA();
+        else nc.addUUID(rng.nextLong(), rng.nextLong());
+      _chk = nc.compress();
+      if( !(_chk instanceof C16Chunk) ) throw new IllegalStateException("Expected C16Chunk but got "+_chk);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class StrChunk {
+    Chunk _chk;
+    final ValueString _vstr = new ValueString();
+    @Setup public void setup() {
+      Random rng = new Random(0xDECAF);
+      NewChunk nc = new NewChunk(null, 0);
+      for( int i=0; i<LEN; i++ )
+        if( (i&15)==0 ) nc.addNA();
+        else nc.addStr(new ValueString("str"+rng.nextInt(1000000)));
+      _chk = nc.compress();
+      if( !(_chk instanceof CStrChunk) ) throw new IllegalStateException("Expected CStrChunk but got "+_chk);
+    }
+  }
+
+  /** 1000 distinct strings, dictionary encoded */
+  @State(Scope.Thread)
+  public static class StrDictChunk extends StrChunk {
+    @Setup public void setup() {
+      Random rng = new Random(0xDECAF);
+      NewChunk nc = new NewChunk(null, 0);
+      for( int i=0; i<LEN; i++ )
+        if( (i&15)==0 ) nc.addNA();
+        else nc.addStr(new ValueString("str"+rng.nextInt(1000)));
+      _chk = nc.compress();
+      if( !(_chk instanceof CStrDictChunk) ) throw new IllegalStateException("Expected CStrDictChunk but got "+_chk);
+    }
+  }
+
+  @Benchmark public long at16(UUIDChunk s) {
+    final Chunk c = s._chk;
+    long x = 0;
+    for( int row=0; row < c._len; row++ )
+      if( !c.isNA(row) ) x ^= c.at16l(row) ^ c.at16h(row);
+    return x;
+  }
+
+  @Benchmark public int isNA_UUID(UUIDChunk s) { return countNAs(s._chk); }
+
+  @Benchmark public int atStr(StrChunk s) {
+    final Chunk c = s._chk;
+    int bytes = 0;
+    for( int row=0; row < c._len; row++ ) {
+      ValueString vs = c.atStr(s._vstr, row);
+      if( vs != null ) bytes += vs.get_length();
+    }
+    return bytes;
+  }
+
+  @Benchmark public int isNA_Str(StrChunk s) { return countNAs(s._chk); }
+
+  @Benchmark public int atStrDict(StrDictChunk s) { return atStr(s); }
+
+  private static int countNAs( Chunk c ) {
+    int nas = 0;
+    for( int row=0; row < c._len; row++ )
+      if( c.isNA(row) ) nas++;
+    return nas;
+  }
+}
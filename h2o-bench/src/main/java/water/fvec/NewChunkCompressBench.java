@@ -0,0 +1,74 @@
+package water.fvec;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Cost of {@link NewChunk#compress} on data shaped like what the parser
+ *  hands it: dense mantissa/exponent pairs (or doubles), one chunk's worth.
+ *  The compressed size in bytes is reported once per fork, so a change in the
+ *  compression heuristics shows up next to the timing change.
+ *
+ *  <p>{@code compress()} consumes its NewChunk, so a fresh one is rebuilt
+ *  (outside the timed region) before every invocation. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class NewChunkCompressBench {
+  @Param({"counts","enums","booleans","sparse","prices","ids","timestamps","doubles"})
+  public String dist;
+
+  /** Rows per chunk */
+  @Param({"65536"})
+  public int len;
+
+  private long  [] _ls;
+  private int   [] _xs;
+  private double[] _ds;
+  private NewChunk _nc;
+
+  @Setup(Level.Trial) public void data() {
+    Random rng = new Random(0xDECAF);
+    if( dist.equals("doubles") ) {
+      _ds = new double[len];
+      for( int i=0; i<len; i++ ) _ds[i] = (i&255)==0 ? Double.NaN : rng.nextGaussian()*1000;
+    } else {
+      _ls = new long[len];
+      _xs = new int [len];
+      long t = 1420070400000L;  // 2015-01-01, in msec
+      for( int i=0; i<len; i++ ) {
+        switch( dist ) {
+        case "counts":     _ls[i] = poisson(rng,4); break;
+        case "enums":      _ls[i] = rng.nextInt(40); _xs[i] = Integer.MIN_VALUE+1; break;
+        case "booleans":   _ls[i] = rng.nextInt(2); break;
+        case "sparse":     _ls[i] = (i&63)==0 ? rng.nextInt(1000)+1 : 0; break;
+        case "prices":     _ls[i] = 100+rng.nextInt(99900); _xs[i] = -2; break;
+        case "ids":        _ls[i] = 1000000000L+i; break;
+        case "timestamps": _ls[i] = (t += rng.nextInt(5000)); break;
+        default: throw new IllegalArgumentException("Unknown distribution "+dist);
+        }
+      }
+      for( int i=255; i<len; i+=256 ) { _ls[i] = Long.MAX_VALUE; _xs[i] = Integer.MIN_VALUE; } // Sprinkle NAs
+    }
+    rebuild();
+    Chunk c = _nc.compress();
+    System.out.println("\n"+dist+": "+c.getClass().getSimpleName()+", "+c.byteSize()+" bytes for "+c._len+" rows");
+  }
+
+  @Setup(Level.Invocation) public void rebuild() {
+    _nc = new NewChunk(null, 0, _ls==null ? null : _ls.clone(), _xs==null ? null : _xs.clone(), null, _ds==null ? null : _ds.clone());
+  }
+
+  @Benchmark public Chunk compress() { return _nc.compress(); }
+
+  private static long poisson( Random rng, double lambda ) {
+    double l = Math.exp(-lambda), p = 1;
+    long k = 0;
+    do { k++; p *= rng.nextDouble(); } while( p > l );
+    return k-1;
+  }
+}
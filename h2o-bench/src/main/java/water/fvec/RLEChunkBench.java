@@ -0,0 +1,85 @@
+package water.fvec;
+
+import org.openjdk.jmh.annotations.*;
+import water.util.UnsafeUtils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** {@link CRLEChunk} against the fixed-width {@link C1Chunk} and {@link
+ *  C2Chunk} holding the same rows: runs of {@code runlen} equal values, with
+ *  1 run in 16 missing.  Both chunks are built directly, so short runs (which
+ *  {@link NewChunk#compress} would not run-length encode) can be compared
+ *  too.  The size in bytes of each is reported once per fork. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RLEChunkBench {
+  /** Rows per run */
+  @Param({"4","64","1024"})
+  public int runlen;
+
+  /** Bytes per value in the fixed-width encoding: 1 for C1, 2 for C2 */
+  @Param({"1","2"})
+  public int width;
+
+  /** "CRLE" or "fixed" */
+  @Param({"CRLE","fixed"})
+  public String enc;
+
+  /** Rows per chunk */
+  @Param({"65536"})
+  public int len;
+
+  private Chunk _chk;
+  private double[] _ds;
+
+  @Setup public void setup() {
+    Random rng = new Random(0xDECAF);
+    long[] ls = new long[len];
+    boolean[] nas = new boolean[len];
+    long v = 0;
+    boolean na = false;
+    for( int i=0; i<len; i++ ) {
+      if( i%runlen == 0 ) {
+        na = rng.nextInt(16) == 0;
+        v = width == 1 ? rng.nextInt(100) : rng.nextInt(60000)-30000;
+      }
+      ls[i] = v;  nas[i] = na;
+    }
+    if( enc.equals("CRLE") ) {
+      _chk = new CRLEChunk(CRLEChunk.encode(ls, nas, len, width, 0));
+    } else if( width == 1 ) {
+      byte[] bs = new byte[len];
+      for( int i=0; i<len; i++ ) bs[i] = (byte)(nas[i] ? C1Chunk._NA : ls[i]);
+      _chk = new C1Chunk(bs);
+    } else {
+      byte[] bs = new byte[len<<1];
+      for( int i=0; i<len; i++ ) UnsafeUtils.set2(bs, i<<1, (short)(nas[i] ? C2Chunk._NA : ls[i]));
+      _chk = new C2Chunk(bs);
+    }
+    _ds = new double[len];
+    System.out.println("\n"+_chk.getClass().getSimpleName()+", runs of "+runlen+": "+_chk.byteSize()+" bytes for "+_chk._len+" rows");
+  }
+
+  /** Random access: a binary search per row for CRLE */
+  @Benchmark public double atd() {
+    final Chunk c = _chk;
+    double sum = 0;
+    for( int row=0; row < c._len; row++ )
+      sum += c.atd(row);
+    return sum;
+  }
+
+  /** Sequential scan: CRLE fills whole runs at once */
+  @Benchmark public double getDoubles() {
+    final double[] ds = _chk.getDoubles(_ds, 0, _chk._len);
+    double sum = 0;
+    for( int row=0; row < ds.length; row++ )
+      sum += ds[row];
+    return sum;
+  }
+}
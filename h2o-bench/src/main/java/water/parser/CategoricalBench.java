@@ -0,0 +1,90 @@
+package water.parser;
+
+import org.openjdk.jmh.annotations.*;
+import water.nbhm.NonBlockingHashMap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Parse-time enum interning: {@link Categorical#addKey} over its {@link
+ *  ValueStringMap}, against the {@code NonBlockingHashMap<ValueString,Integer>}
+ *  it used before.
+ *
+ *  <p>Every JMH thread plays a parse thread of one node: each call interns
+ *  one column of a chunk, cells being views into a shared line buffer as in
+ *  the tokenizer, into the column's node-shared map.  The map is fresh each
+ *  iteration, so the first calls also pay for adding the levels.  Scaling is
+ *  measured by re-running with more threads, e.g. {@code -t 1}, {@code -t 8}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CategoricalBench {
+  /** "interner" for Categorical, "nbhm" for the old map */
+  @Param({"interner","nbhm"})
+  public String impl;
+
+  /** Distinct levels in the column */
+  @Param({"100","50000"})
+  public int nlevels;
+
+  /** Cells per call */
+  @Param({"10000"})
+  public int len;
+
+  private Categorical _cat;
+  private NonBlockingHashMap<ValueString,Integer> _map;
+  private AtomicInteger _id;
+
+  @Setup(Level.Iteration) public void setup() {
+    _cat = new Categorical();
+    _map = new NonBlockingHashMap<>();
+    _id = new AtomicInteger();
+  }
+
+  /** One parse thread's chunk of cells */
+  @State(Scope.Thread)
+  public static class Worker {
+    byte[] _buf;
+    int[] _offs, _lens;
+    final ValueString _vs = new ValueString();
+
+    @Setup public void setup( CategoricalBench b ) {
+      Random rng = new Random(Thread.currentThread().getId());
+      StringBuilder sb = new StringBuilder();
+      _offs = new int[b.len];
+      _lens = new int[b.len];
+      for( int i=0; i<b.len; i++ ) {
+        String s = "user-agent/"+rng.nextInt(b.nlevels);
+        _offs[i] = sb.length();
+        _lens[i] = s.length();
+        sb.append(s).append(',');
+      }
+      _buf = sb.toString().getBytes();
+    }
+  }
+
+  @Benchmark public int addKey( Worker w ) {
+    int sum = 0;
+    if( impl.equals("interner") ) {
+      for( int i=0; i<len; i++ )
+        sum += _cat.addKey(w._vs.set(w._buf,w._offs[i],w._lens[i]));
+    } else {
+      for( int i=0; i<len; i++ )
+        sum += nbhmAddKey(w._vs.set(w._buf,w._offs[i],w._lens[i]));
+    }
+    return sum;
+  }
+
+  // Categorical.addKey as it was over the NonBlockingHashMap
+  private int nbhmAddKey( ValueString str ) {
+    Integer res = _map.get(str);
+    if( res != null ) return res;
+    int newVal = _id.incrementAndGet();
+    res = _map.putIfAbsent(new ValueString(str), newVal);
+    return res != null ? res : newVal;
+  }
+}
@@ -0,0 +1,83 @@
+package water.parser;
+
+import org.openjdk.jmh.annotations.*;
+import water.Iced;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Tokenizing throughput of {@link CsvParser#parseChunk} on synthetic CSV.
+ *
+ *  <p>{@code narrow}: 6 mixed columns (ids, prices, small ints, short enum
+ *  levels, quoted names, timestamps-as-longs).  {@code wide}: 200 columns
+ *  of decimals, as in a dense numeric export.  Each call parses one 4MB
+ *  chunk into a sink which only folds the values, so the score is the
+ *  tokenizer alone.  MB/s per core is the score (ops/s) times the size
+ *  printed once per fork; run with {@code -t 1}.  The data is generated
+ *  from a fixed seed, so runs of different builds are comparable. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CsvParseBench {
+  @Param({"narrow","wide"})
+  public String shape;
+
+  /** Chunk size in bytes */
+  @Param({"4194304"})
+  public int len;
+
+  private byte[] _bits;
+  private CsvParser _p;
+
+  @Setup public void setup() {
+    Random rng = new Random(0xC5F);
+    StringBuilder sb = new StringBuilder(len+1024);
+    int ncols = shape.equals("wide") ? 200 : 6;
+    while( sb.length() < len ) {
+      if( ncols == 6 ) {
+        sb.append(rng.nextInt(10000000)).append(',')
+          .append(rng.nextInt(100000)/100.0).append(',')
+          .append(rng.nextInt(100)).append(',')
+          .append("level").append(rng.nextInt(20)).append(',')
+          .append('"').append("Name ").append(rng.nextInt(1000)).append('"').append(',')
+          .append(1400000000000L+rng.nextInt(1000000000)).append('\n');
+      } else {
+        for( int c=0; c<ncols; c++ )
+          sb.append(c==0 ? "" : ",").append(rng.nextInt(2000000)/1000.0-1000);
+        sb.append('\n');
+      }
+    }
+    _bits = sb.toString().getBytes();
+    _p = new CsvParser(new ParseSetup(true,0,null,ParserType.CSV,(byte)',',false,ParseSetup.NO_HEADER,ncols,null));
+    System.out.println("\n"+shape+": "+_bits.length/(1024*1024.0)+" MB per op");
+  }
+
+  @Benchmark public long parse() {
+    final byte[] bits = _bits;
+    Parser.DataIn din = new Parser.DataIn() {
+      @Override public byte[] getChunkData( int cidx ) { return cidx == 0 ? bits : null; }
+      @Override public int  getChunkDataStart( int cidx ) { return -1; }
+      @Override public void setChunkDataStart( int cidx, int offset ) { }
+    };
+    Sink sink = new Sink();
+    _p.parseChunk(0, din, sink);
+    return sink._sum+sink._rows;
+  }
+
+  /** Folds every value into a checksum, so none is dead code */
+  private static class Sink extends Iced implements Parser.DataOut {
+    long _sum, _rows;
+    @Override public void setColumnNames( String[] names ) { }
+    @Override public void newLine() { _rows++; }
+    @Override public boolean isString( int colIdx ) { return false; }
+    @Override public void addNumCol( int colIdx, long number, int exp ) { _sum += number+exp; }
+    @Override public void addNumCol( int colIdx, double d ) { _sum += (long)d; }
+    @Override public void addInvalidCol( int colIdx ) { _sum++; }
+    @Override public void addStrCol( int colIdx, ValueString str ) { _sum += str.get_length(); }
+    @Override public void rollbackLine() { }
+    @Override public void invalidLine( String err ) { }
+  }
+}
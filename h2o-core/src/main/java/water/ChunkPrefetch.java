@@ -0,0 +1,53 @@
+package water;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import water.H2O.H2OCountedCompleter;
+import water.nbhm.NonBlockingHashMap;
+
+/** Background load of a chunk Value which is only on disk, so the I/O
+ *  overlaps the {@link MRTask#map} of the chunk before it.  The bytes being
+ *  loaded are bounded by a slice of the heap, and nothing is started while
+ *  the {@link MemoryManager} is refusing allocations.  Remote chunks (for
+ *  tasks running locally over remote data) use the non-blocking {@link
+ *  DKV#prefetch} instead. */
+class ChunkPrefetch extends H2OCountedCompleter {
+  // Bytes being loaded at most; beyond that the map() loads them itself
+  static final long MAX_INFLIGHT = MemoryManager.MEM_MAX>>6;
+  private static final AtomicLong INFLIGHT = new AtomicLong();
+  private static final NonBlockingHashMap<Key,ChunkPrefetch> LOADING = new NonBlockingHashMap<>();
+  /** Count of loads started; for tests and profiling */
+  static final AtomicLong STARTED = new AtomicLong();
+
+  private final Value _val;
+  private ChunkPrefetch( Value val ) { _val = val; }
+
+  /** Start loading the chunk at key k if it is only on disk; or fetching it
+   *  if remote and remoteOk. */
+  static void start( Key k, boolean remoteOk ) {
+    Value val = H2O.get(k);
+    if( val == null ) {
+      if( remoteOk && !k.home() ) DKV.prefetch(k);
+      return;
+    }
+    if( !val.onDiskOnly() || !MemoryManager.canAlloc() ) return;
+    final int sz = val._max;
+    if( INFLIGHT.addAndGet(sz) > MAX_INFLIGHT ) { INFLIGHT.addAndGet(-sz); return; }
+    ChunkPrefetch cp = new ChunkPrefetch(val);
+    if( LOADING.putIfAbsent(k,cp) != null ) { INFLIGHT.addAndGet(-sz); return; }
+    STARTED.incrementAndGet();
+    H2O.submitTask(cp);
+  }
+
+  @Override protected void compute2() {
+    try {
+      _val.memOrLoad();
+    } catch( Throwable ignore ) {
+      // The map() loads it again, and reports any failure
+    } finally {
+      LOADING.remove(_val._key);
+      INFLIGHT.addAndGet(-_val._max);
+    }
+    tryComplete();
+  }
+}
@@ -101,6 +101,10 @@ class Cleaner extends Thread {
       else                           System.err.println(s);
       long cleaned = 0;
       long freed = 0;
+      long offheap = 0;
+      // Age off-heap Values out to disk once the tier is nearly full, and
+      // only until there is room again, not the whole tier at once
+      boolean spilling = MemoryManager.offHeapFull();
 
       // For faster K/V store walking get the NBHM raw backing array,
       // and walk it directly.
@@ -116,7 +120,10 @@ class Cleaner extends Thread {
         Value val = (Value)ov;
         byte[] m = val.rawMem();
         Object p = val.rawPOJO();
-        if( m == null && p == null ) continue; // Nothing to throw out
+        boolean offHeap = val.isOffHeap();
+        if( spilling ) spilling = MemoryManager.offHeapAboveLow();
+        // Nothing to throw out, unless aging an off-heap copy out to disk
+        if( m == null && p == null && !(offHeap && spilling) ) continue;
 
         if( val.isLockable() ) continue; // we do not want to throw out Lockables.
         boolean isChunk = p instanceof Chunk;
@@ -135,9 +142,20 @@ class Cleaner extends Thread {
           continue;             // Too young
         }
 
+        // Under pressure, first try moving it off-heap: much cheaper to
+        // bring back than a disk copy.
+        boolean moved = false;
+        if( force && !offHeap && !val.isPersisted() && val.storeOffHeap() ) {
+          offHeap = moved = true;
+          offheap += val._max;
+        }
+        // When the off-heap tier fills up, age its Values out to disk; but
+        // not one just moved there, paying for both the copy and the write.
+        boolean spill = offHeap && !moved && spilling;
+
         // Should I write this value out to disk?
         // Should I further force it from memory?
-        if( !val.isPersisted() && !diskFull && (force || (lazyPersist() && lazy_clean(key)))) {
+        if( !val.isPersisted() && !diskFull && (spill || (!offHeap && (force || (lazyPersist() && lazy_clean(key)))))) {
           try {
             val.storePersist(); // Write to disk
             if( m == null ) m = val.rawMem();
@@ -152,8 +170,13 @@ class Cleaner extends Thread {
             diskFull = true;
           }
         }
+        if( spill && val.isPersisted() ) {
+          val.freeOffHeap();
+          m = val.rawMem();     // Writing may have reloaded the byte[] form
+          if( m != null && p == null ) { val.freeMem(); freed += val._max; m = null; }
+        }
         // And, under pressure, free all
-        if( force && val.isPersisted() ) {
+        if( force && (val.isPersisted() || val.isOffHeap()) ) {
           val.freeMem ();  if( m != null ) freed += val._max;  m = null;
           val.freePOJO();  if( p != null ) freed += val._max;  p = null;
           if( isChunk ) freed -= val._max; // Double-counted freed mem for Chunks since val._pojo._mem & val._mem are the same.
@@ -169,7 +192,7 @@ class Cleaner extends Thread {
       h = _myHisto.histo(true); // Force a new histogram
       MemoryManager.set_goals("postclean",false);
       // No logging if under memory pressure: can deadlock the cleaner thread
-      String s2 = h+" cleaned="+(cleaned>>20)+"M, freed="+(freed>>20)+"M, DESIRED="+(DESIRED>>20)+"M";
+      String s2 = h+" cleaned="+(cleaned>>20)+"M, freed="+(freed>>20)+"M, offheap="+(offheap>>20)+"M, DESIRED="+(DESIRED>>20)+"M";
       if( MemoryManager.canAlloc() ) Log.debug(s2);
       else                           System.err.println(s2);
     }
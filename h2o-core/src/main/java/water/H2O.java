@@ -94,6 +94,13 @@ final public class H2O {
             "          Maximum number of threads in the low priority batch-work queue.\n" +
             "          (The default is 99.)\n" +
             "\n" +
+            "    -off_heap_mem <bytes>[k|m|g]\n" +
+            "          Memory outside the Java heap for holding cold data before\n" +
+            "          spilling it to disk.  (The default is 0, disabled.)\n" +
+            "\n" +
+            "    -no_mmap\n" +
+            "          Load local files with plain reads instead of memory-mapping them.\n" +
+            "\n" +
             "    -md5skip\n" +
             "          Skip comparing MD5 of jar path while joining cloud.\n" +
             "\n" +
@@ -177,6 +184,12 @@ final public class H2O {
     /** -flow_dir=/path/to/dir; directory to save flows in */
     public String flow_dir;
 
+    /** -no_mmap, -no_mmap=true; read NFS file chunks with plain file reads instead of memory-mapping the file */
+    public boolean no_mmap = false;
+
+    /** -off_heap_mem=bytes; budget for keeping cold Values in off-heap memory before spilling them to disk; 0 disables */
+    public long off_heap_mem = 0;
+
     //-----------------------------------------------------------------------------------
     // HDFS & AWS
     //-----------------------------------------------------------------------------------
@@ -273,6 +286,27 @@ final public class H2O {
       return result;
     }
 
+    public long parseBytes(String a) {
+      long result = 0;
+
+      try {
+        String n = a.toLowerCase();
+        int shift = 0;
+        switch( n.charAt(n.length()-1) ) {
+        case 'k': shift = 10; break;
+        case 'm': shift = 20; break;
+        case 'g': shift = 30; break;
+        }
+        if( shift > 0 ) n = n.substring(0, n.length()-1);
+        result = Long.parseLong(n) << shift;
+      }
+      catch (Exception e) {
+        parseFailed("Argument " + _lastMatchedFor + " must be a byte count, optionally suffixed with k, m or g (was given '" + a + "')" );
+      }
+
+      return result;
+    }
+
     public String toString() { return _s; }
   }
 
@@ -361,6 +395,13 @@ final public class H2O {
       else if (s.matches("random_udp_drop")) {
         ARGS.random_udp_drop = true;
       }
+      else if (s.matches("off_heap_mem")) {
+        i = s.incrementAndCheck(i, args);
+        ARGS.off_heap_mem = s.parseBytes(args[i]);
+      }
+      else if (s.matches("no_mmap")) {
+        ARGS.no_mmap = true;
+      }
       else if (s.matches("md5skip")) {
         ARGS.md5skip = true;
       }
@@ -1026,6 +1067,7 @@ final public class H2O {
     // If the K/V mapping is changing, let the store cleaner just overwrite.
     // If the K/V mapping is new, let the store cleaner just create
     if( old != null && val == null ) old.removePersist(); // Remove the old guy
+    if( old != null ) old.releaseOffHeap(); // Old guy's off-heap copy no longer counts against the budget
     if( val != null ) {
       Cleaner.dirty_store(); // Start storing the new guy
       if( old==null ) Scope.track(key); // New Key - start tracking
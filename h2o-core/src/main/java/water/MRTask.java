@@ -126,6 +126,12 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
   transient protected boolean _topLocal; // Top-level local call, returning results over the wire
   /** Internal field to track a range of local Chunks to work on */
   transient protected int _lo, _hi;   // Range of Chunks to work on - locally
+  /** Internal field: chunks below _lo down to _plo are likely mapped next by
+   *  this thread, which runs the right half of each split and then pops the
+   *  forked left halves in descending order, unless they are stolen */
+  transient protected int _plo;
+  /** Chunks to prefetch below the one being mapped */
+  static final int PREFETCH_CHUNKS = 2;
   /** Internal field to track the left &amp; right sub-range of chunks to work on */
   transient protected T _left, _rite; // In-progress execution tree
 
@@ -368,6 +374,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
       _left._profile = new MRProfile(this);
       _rite._profile = new MRProfile(this);
       _left._hi = mid;          // Reset mid-point
+      _left._plo = _lo;         // If stolen, prefetch only within its own range
       _rite._lo = mid;          // Also set self mid-point
       addToPendingCount(1);     // One fork awaiting completion
       _left.fork();             // Runs in another thread/FJ instance
@@ -407,6 +414,7 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
             appendableChunks[i] = _appendables[i].chunkForChunkIdx(_lo);
           }
         }
+        prefetch();             // Overlap loading the next chunks with this map
         // Call all the various map() calls that apply
         _profile._userstart = System.currentTimeMillis();
         if( _fr.vecs().length == 1 ) map(bvs[0]);
@@ -439,6 +447,14 @@ public abstract class MRTask<T extends MRTask<T>> extends DTask<T> implements Fo
     tryComplete();
   }
 
+  // Start background loads of the next chunks this thread will map, if they
+  // are swapped out to disk or, when running locally, remote
+  private void prefetch() {
+    for( int cidx=_lo-1; cidx>=Math.max(_plo,_lo-PREFETCH_CHUNKS); cidx-- )
+      for( Vec v : _fr.vecs() )
+        if( v != null ) ChunkPrefetch.start(v.chunkKey(cidx),_run_local);
+  }
+
   /** OnCompletion - reduce the left &amp; right into self.  Called internal by
    *  F/J.  Not expected to be user-called. */
   @Override public final void onCompletion( CountedCompleter caller ) {
@@ -1,6 +1,7 @@
 package water;
 
 import java.lang.management.*;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.management.Notification;
@@ -281,6 +282,39 @@ abstract public class MemoryManager {
   public static long   [] arrayCopyOf( long  [] orig, int sz) { return arrayCopyOfRange(orig,0,sz); }
   public static double [] arrayCopyOf( double[] orig, int sz) { return arrayCopyOfRange(orig,0,sz); }
 
+  // ---
+  // Off-heap tier.  Under memory pressure the Cleaner moves cold Values into
+  // direct memory, up to -off_heap_mem bytes, before spilling them to disk.
+  // Bytes currently charged against that budget:
+  static final AtomicLong OFF_HEAP_USED = new AtomicLong();
+  static long offHeapMax() { return H2O.ARGS.off_heap_mem; }
+  // Most of the budget is used; the Cleaner ages off-heap Values to disk...
+  static boolean offHeapFull() { long max = offHeapMax(); return OFF_HEAP_USED.get() > max-(max>>3); }
+  // ...until the tier is back down to its low-water mark
+  static boolean offHeapAboveLow() { long max = offHeapMax(); return OFF_HEAP_USED.get() > max-(max>>2); }
+
+  /** Copy mem into a new direct buffer charged to the off-heap budget, or
+   *  return null if the tier is disabled or has no room. */
+  static ByteBuffer copyOffHeap(byte[] mem) {
+    final long max = offHeapMax();
+    if( max <= 0 ) return null;
+    if( OFF_HEAP_USED.addAndGet(mem.length) > max ) {
+      OFF_HEAP_USED.addAndGet(-mem.length);
+      return null;
+    }
+    try {
+      ByteBuffer bb = ByteBuffer.allocateDirect(mem.length);
+      bb.put(mem).flip();
+      return bb;
+    } catch( OutOfMemoryError e ) { // Hit -XX:MaxDirectMemorySize; do not log, just skip the tier
+      OFF_HEAP_USED.addAndGet(-mem.length);
+      return null;
+    }
+  }
+  /** Return bytes to the off-heap budget.  The direct buffer itself is freed
+   *  when it is collected. */
+  static void releaseOffHeap(int bytes) { OFF_HEAP_USED.addAndGet(-bytes); }
+
   // Memory available for tasks (we assume 3/4 of the heap is available for tasks)
   static final AtomicLong _taskMem = new AtomicLong(MEM_MAX-(MEM_MAX>>2));
 
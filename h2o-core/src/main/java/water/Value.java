@@ -7,7 +7,9 @@ import water.fvec.Vec;
 import water.util.Log;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /** The core Value stored in the distributed K/V store, used to cache Plain Old
@@ -95,16 +97,61 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
   private volatile Freezable _pojo;
   Freezable rawPOJO() { return _pojo; }
 
+  // ---
+  // A copy of the _mem array in direct (off-heap) memory, or null.  Made by
+  // the Cleaner for cold Values when an off-heap budget is set.  Like a disk
+  // copy, it lets _mem and the POJO be dropped; unlike disk, reloading is a
+  // memory copy.  Dropped again once the Value is spilled to disk.
+  private transient volatile ByteBuffer _offHeap;
+  // Bytes of _offHeap charged to the MemoryManager budget, 0 once released
+  private transient volatile int _offHeapBytes;
+  private static final AtomicIntegerFieldUpdater<Value> OFF_HEAP_BYTES_UPDATER =
+    AtomicIntegerFieldUpdater.newUpdater(Value.class, "_offHeapBytes");
+  final boolean isOffHeap() { return _offHeap != null; }
+  /** Only on disk (ice, or the backing file): the next read waits on I/O */
+  final boolean onDiskOnly() { return _mem == null && _pojo == null && _offHeap == null && isPersisted(); }
+
+  /** Copy the serialized bytes off-heap.  Only the Cleaner calls this.
+   *  @return false if there was nothing in memory to copy, or no room */
+  final boolean storeOffHeap() {
+    if( _offHeap != null ) return true;
+    byte[] mem = _mem;          // Read once!
+    if( mem == null ) {
+      Freezable pojo = _pojo;   // Read once!
+      if( !(pojo instanceof Chunk) ) return false;
+      mem = ((Chunk)pojo).getBytes();
+    }
+    if( mem == null || mem.length != _max ) return false;
+    ByteBuffer bb = MemoryManager.copyOffHeap(mem);
+    if( bb == null ) return false;
+    _offHeapBytes = mem.length;
+    _offHeap = bb;
+    return true;
+  }
+  /** Return the off-heap copy's bytes to the budget.  The copy itself stays
+   *  readable by anyone still holding this Value until it is collected. */
+  final void releaseOffHeap() {
+    int n = _offHeapBytes;
+    if( n > 0 && OFF_HEAP_BYTES_UPDATER.compareAndSet(this, n, 0) )
+      MemoryManager.releaseOffHeap(n);
+  }
+  /** Drop the off-heap copy; only once the Value is persisted elsewhere. */
+  final void freeOffHeap() {
+    assert isPersisted();
+    releaseOffHeap();
+    _offHeap = null;
+  }
+
   /** Invalidate byte[] cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freeMem() {
-    assert isPersisted() || _pojo != null || _key.isChunkKey();
+    assert isPersisted() || isOffHeap() || _pojo != null || _key.isChunkKey();
     _mem = null;
   }
   /** Invalidate POJO cache.  Only used to eagerly free memory, for data
    *  which is expected to be read-once. */
   public final void freePOJO() {
-    assert isPersisted() || _mem != null;
+    assert isPersisted() || isOffHeap() || _mem != null;
     _pojo = null;
   }
 
@@ -120,11 +167,17 @@ public final class Value extends Iced implements ForkJoinPool.ManagedBlocker {
       if( pojo instanceof Chunk ) return (_mem = ((Chunk)pojo).getBytes());
       else return (_mem = pojo.write(new AutoBuffer()).buf());
     if( _max == 0 ) return (_mem = new byte[0]);
+    ByteBuffer off = _offHeap;  // Read once!
+    if( off != null ) {         // Copy back from the off-heap tier
+      byte[] b = MemoryManager.malloc1(_max);
+      off.duplicate().get(b);
+      return (_mem = b);
+    }
     return (_mem = loadPersist());
   }
   // Just an empty shell of a Value, no local data but the Value is "real".
   // Any attempt to look at the Value will require a remote fetch.
-  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && !isPersisted(); }
+  final boolean isEmpty() { return _max > 0 && _mem==null && _pojo == null && _offHeap == null && !isPersisted(); }
 
   /** The FAST path get-POJO as an {@link Iced} subclass - final method for
    *  speed.  Will (re)build the POJO from the _mem array.  Never returns NULL.
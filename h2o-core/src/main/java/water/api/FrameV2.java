@@ -80,6 +80,9 @@ public class FrameV2 extends Schema<Frame, FrameV2> {
     @API(help="positive infinities", direction=API.Direction.OUTPUT)
     public long positive_infinity_count;
 
+    @API(help="estimated distinct values, or -1 if not yet computed", direction=API.Direction.OUTPUT)
+    public long distinct_count;
+
     @API(help="negative infinities", direction=API.Direction.OUTPUT)
     public long negative_infinity_count;
 
@@ -160,10 +163,12 @@ public class FrameV2 extends Schema<Frame, FrameV2> {
 
       // Histogram data is only computed on-demand.  By default here we do NOT
       // compute it, but will return any prior computed & cached histogram.
+      // Percentiles and distinct counts come with the histogram.
       histogram_bins = vec.lazy_bins();
       histogram_base = histogram_bins ==null ? 0 : vec.base();
       histogram_stride = histogram_bins ==null ? 0 : vec.stride();
       percentiles = histogram_bins ==null ? null : vec.pctiles();
+      distinct_count = histogram_bins ==null ? -1 : vec.distinctCnt();
     }
 
     public void clearBinsField() {
@@ -266,6 +271,7 @@ public class FrameV2 extends Schema<Frame, FrameV2> {
     formatRow(ab,"","max"  ,new ColOp() { String op(ColV2 c) { return rollUpStr(c, c.missing_count ==nrows ? Double.NaN : c.maxs[0]); } } );
     formatRow(ab,"","mean" ,new ColOp() { String op(ColV2 c) { return rollUpStr(c, c.missing_count ==nrows ? Double.NaN : c.mean   ); } } );
     formatRow(ab,"","sigma",new ColOp() { String op(ColV2 c) { return rollUpStr(c, c.missing_count ==nrows ? Double.NaN : c.sigma  ); } } );
+    formatRow(ab,"","distinct",new ColOp() { String op(ColV2 c) { return c.distinct_count < 0 ? "" : "~"+c.distinct_count; } } );
 
     // Optional rows: missing elements, zeros, positive & negative infinities, levels
     for( ColV2 c : columns ) if( c.missing_count > 0 )
@@ -27,6 +27,12 @@ class FramesBase<I extends Frames, S extends FramesBase<I, S>> extends Schema<I,
   @API(help="Overwrite existing fil",json=false)
   public boolean force;
 
+  @API(help="Export in parallel, one part file per chunk, into the directory at path",json=false)
+  public boolean parallel;
+
+  @API(help="Gzip each part file of a parallel export",json=false)
+  public boolean compress;
+
   // Output fields
   @API(help="Frames", direction=API.Direction.OUTPUT)
   FrameV2[] frames; // TODO: create interface or superclass (e.g., FrameBase) for FrameV2
@@ -37,6 +43,9 @@ class FramesBase<I extends Frames, S extends FramesBase<I, S>> extends Schema<I,
   @API(help="Domains", direction=API.Direction.OUTPUT)
   String[][] domain;
 
+  @API(help="Parallel export job", direction=API.Direction.OUTPUT)
+  JobV2 job;
+
   // Non-version-specific filling into the impl
   @Override public I fillImpl(I f) {
     super.fillImpl(f);
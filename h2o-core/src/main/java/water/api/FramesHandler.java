@@ -4,6 +4,7 @@ import hex.Model;
 import water.*;
 import water.api.ModelsHandler.Models;
 import water.exceptions.*;
+import water.fvec.ExportDataset;
 import water.fvec.Frame;
 import water.fvec.Vec;
 import water.persist.PersistManager;
@@ -223,10 +224,15 @@ class FramesHandler<I extends FramesHandler.Frames, S extends FramesBase<I, S>>
     return s;
   }
 
-  /** Export a single frame to the specified path. */
+  /** Export a single frame to the specified path.  A parallel export writes
+   *  a directory of part files in the background, and returns its Job. */
   public FramesV3 export(int version, FramesV3 s) {
     Frame fr = getFromDKV("key", s.key.key());
 
+    if( s.parallel ) {
+      s.job = (JobV2)Schema.schema(version, Job.class).fillFromImpl(ExportDataset.forkExport(fr, s.path, s.force, s.compress));
+      return s;
+    }
     Log.info("ExportFiles processing (" + s.path + ")");
     InputStream csv = (fr).toCSV(true,false);
     export(csv,s.path, s.key.key().toString(),s.force);
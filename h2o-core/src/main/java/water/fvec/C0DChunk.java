@@ -3,6 +3,8 @@ package water.fvec;
 import water.AutoBuffer;
 import water.util.UnsafeUtils;
 
+import java.util.Arrays;
+
 /**
  * The constant 'double' column.
  */
@@ -30,6 +32,14 @@ public class C0DChunk extends Chunk {
   @Override boolean setNA_impl(int i) { return Double.isNaN(_con); }
   @Override double min() { return _con; }
   @Override double max() { return _con; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    Arrays.fill(vals,0,to-from,Double.isNaN(_con) ? NA : _con);
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    Arrays.fill(vals,0,to-from,Double.isNaN(_con) ? NA : (long)_con);
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     nc.set_sparseLen(nc.set_len(0));
     if(_con == 0) {
@@ -26,6 +26,8 @@ public class C0LChunk extends Chunk {
   @Override boolean setNA_impl(int i) { return false; }
   @Override double min() { return _con; }
   @Override double max() { return _con; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) { Arrays.fill(vals,0,to-from,_con); return vals; }
+  @Override long  [] getLongs_impl  (long  [] vals, int from, int to, long   NA) { Arrays.fill(vals,0,to-from,_con); return vals; }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     if(_con != 0) {
       nc.alloc_mantissa(_len);
@@ -54,4 +56,5 @@ public class C0LChunk extends Chunk {
     return _con == 0?_len:rid+1;
   }
   @Override public boolean isSparse(){return _con == 0;}
+  @Override public int nonzeros(int [] res) { return _con == 0 ? 0 : super.nonzeros(res); }
 }
@@ -28,6 +28,20 @@ public class C1Chunk extends Chunk {
   @Override boolean set_impl(int i, double d) { return false; }
   @Override boolean set_impl(int i, float f ) { return false; }
   @Override boolean setNA_impl(int idx) { _mem[idx+_OFF] = (byte)_NA; return true; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    for( int i=from; i<to; i++ ) {
+      int res = 0xFF&_mem[i+_OFF];
+      vals[i-from] = res == _NA ? NA : res;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    for( int i=from; i<to; i++ ) {
+      int res = 0xFF&_mem[i+_OFF];
+      vals[i-from] = res == _NA ? NA : res;
+    }
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     nc.set_sparseLen(0);
     nc.set_len(0);
@@ -16,6 +16,14 @@ public class C1NChunk extends Chunk {
   @Override boolean set_impl(int i, double d) { return false; }
   @Override boolean set_impl(int i, float f ) { return false; }
   @Override boolean setNA_impl(int idx) { return false; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    for( int i=from; i<to; i++ ) vals[i-from] = 0xFF&_mem[i+_OFF];
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    for( int i=from; i<to; i++ ) vals[i-from] = 0xFF&_mem[i+_OFF];
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     nc.alloc_exponent(_len);
     nc.alloc_mantissa(_len);
@@ -38,6 +38,22 @@ public class C1SChunk extends Chunk {
   @Override boolean set_impl(int i, double d) { return false; }
   @Override boolean set_impl(int i, float f ) { return false; }
   @Override boolean setNA_impl(int idx) { _mem[idx+_OFF] = (byte)C1Chunk._NA; return true; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    final long bias = _bias;  final double scale = _scale;
+    for( int i=from; i<to; i++ ) {
+      int res = 0xFF&_mem[i+_OFF];
+      vals[i-from] = res == C1Chunk._NA ? NA : (res+bias)*scale;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    final long bias = _bias;  final double scale = _scale;
+    for( int i=from; i<to; i++ ) {
+      int res = 0xFF&_mem[i+_OFF];
+      vals[i-from] = res == C1Chunk._NA ? NA : (long)((res+bias)*scale);
+    }
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     double dx = Math.log10(_scale);
     assert water.util.PrettyPrint.fitsIntoInt(dx);
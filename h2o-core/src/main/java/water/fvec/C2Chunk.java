@@ -32,6 +32,20 @@ public class C2Chunk extends Chunk {
   }
   @Override boolean set_impl(int i, float f ) { return set_impl(i,(double)f); }
   @Override boolean setNA_impl(int idx) { UnsafeUtils.set2(_mem,(idx<<1)+_OFF,(short)_NA); return true; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    for( int i=from; i<to; i++ ) {
+      int res = UnsafeUtils.get2(_mem,(i<<1)+_OFF);
+      vals[i-from] = res == _NA ? NA : res;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    for( int i=from; i<to; i++ ) {
+      int res = UnsafeUtils.get2(_mem,(i<<1)+_OFF);
+      vals[i-from] = res == _NA ? NA : res;
+    }
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     nc.set_sparseLen(0);
     nc.set_len(0);
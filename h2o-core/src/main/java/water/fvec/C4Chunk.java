@@ -27,6 +27,20 @@ public class C4Chunk extends Chunk {
   @Override boolean set_impl(int i, double d) { return false; }
   @Override boolean set_impl(int i, float f ) { return false; }
   @Override boolean setNA_impl(int idx) { UnsafeUtils.set4(_mem,(idx<<2),(int)_NA); return true; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    for( int i=from; i<to; i++ ) {
+      int res = UnsafeUtils.get4(_mem,i<<2);
+      vals[i-from] = res == _NA ? NA : res;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    for( int i=from; i<to; i++ ) {
+      int res = UnsafeUtils.get4(_mem,i<<2);
+      vals[i-from] = res == _NA ? NA : res;
+    }
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     nc.set_sparseLen(0);
     nc.set_len(0);
@@ -25,6 +25,20 @@ public class C4FChunk extends Chunk {
     return true;
   }
   @Override boolean setNA_impl(int idx) { UnsafeUtils.set4f(_mem,(idx<<2),Float.NaN); return true; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    for( int i=from; i<to; i++ ) {
+      float res = UnsafeUtils.get4f(_mem,i<<2);
+      vals[i-from] = Float.isNaN(res) ? NA : res;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    for( int i=from; i<to; i++ ) {
+      float res = UnsafeUtils.get4f(_mem,i<<2);
+      vals[i-from] = Float.isNaN(res) ? NA : (long)res;
+    }
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     nc.set_sparseLen(0);
     nc.set_len(0);
@@ -39,6 +39,22 @@ public class C4SChunk extends Chunk {
   @Override boolean set_impl(int i, double d) { return false; }
   @Override boolean set_impl(int i, float f ) { return false; }
   @Override boolean setNA_impl(int idx) { UnsafeUtils.set4(_mem,(idx<<2)+_OFF,(int)_NA); return true; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    final long bias = _bias;  final double scale = _scale;
+    for( int i=from; i<to; i++ ) {
+      int res = UnsafeUtils.get4(_mem,(i<<2)+_OFF);
+      vals[i-from] = res == _NA ? NA : (res+bias)*scale;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    final long bias = _bias;  final double scale = _scale;
+    for( int i=from; i<to; i++ ) {
+      int res = UnsafeUtils.get4(_mem,(i<<2)+_OFF);
+      vals[i-from] = res == _NA ? NA : (long)((res+bias)*scale);
+    }
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     double dx = Math.log10(_scale);
     assert water.util.PrettyPrint.fitsIntoInt(dx);
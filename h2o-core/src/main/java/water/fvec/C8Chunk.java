@@ -23,6 +23,20 @@ public class C8Chunk extends Chunk {
   @Override boolean set_impl(int i, double d) { return false; }
   @Override boolean set_impl(int i, float f ) { return false; }
   @Override boolean setNA_impl(int idx) { UnsafeUtils.set8(_mem,(idx<<3),_NA); return true; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    for( int i=from; i<to; i++ ) {
+      long res = UnsafeUtils.get8(_mem,i<<3);
+      vals[i-from] = res == _NA ? NA : res;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    for( int i=from; i<to; i++ ) {
+      long res = UnsafeUtils.get8(_mem,i<<3);
+      vals[i-from] = res == _NA ? NA : res;
+    }
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     for( int i=0; i< _len; i++ )
       if(isNA(i))nc.addNA();
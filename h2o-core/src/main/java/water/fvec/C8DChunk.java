@@ -25,6 +25,20 @@ public class C8DChunk extends Chunk {
     return true;
   }
   @Override boolean setNA_impl(int idx) { UnsafeUtils.set8d(_mem,(idx<<3),Double.NaN); return true; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    for( int i=from; i<to; i++ ) {
+      double res = UnsafeUtils.get8d(_mem,i<<3);
+      vals[i-from] = Double.isNaN(res) ? NA : res;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    for( int i=from; i<to; i++ ) {
+      double res = UnsafeUtils.get8d(_mem,i<<3);
+      vals[i-from] = Double.isNaN(res) ? NA : (long)res;
+    }
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     //nothing to inflate - just copy
     nc.alloc_doubles(_len);
@@ -0,0 +1,121 @@
+package water.fvec;
+
+import water.AutoBuffer;
+import water.MemoryManager;
+import water.util.UnsafeUtils;
+
+/**
+ * Bit-packed biased integers, in as many bits (3 to 31) as the chunk's range
+ * needs, where {@link C1Chunk}, {@link C2Chunk} and {@link C4Chunk} round up
+ * to whole bytes: values 0..100 take 7 bits a row instead of 8.  The
+ * all-ones value is NA if the chunk has NAs.
+ *
+ * <p>Layout: the row count, the bias, the bit width (the high bit is set if
+ * the chunk has NAs), then the packed rows and 8 bytes of padding so any row
+ * can be read with one unaligned long load.
+ */
+public class CBPChunk extends Chunk {
+  static final int MIN_BITS = 3, MAX_BITS = 31;
+  static final int MIN_LEN = 1024; // Fewer rows save too little for the slower decode
+  static final int _OFF = 4+8+1;
+  private transient long _bias;
+  private transient int _bits;
+  private transient long _mask;
+  private transient boolean _hasNA;
+
+  CBPChunk( byte[] bs ) { _mem = bs; _start = -1; init(); }
+
+  private void init() {
+    set_len(UnsafeUtils.get4(_mem,0));
+    _bias  = UnsafeUtils.get8(_mem,4);
+    _bits  = _mem[12]&0x7F;
+    _hasNA = (_mem[12]&0x80) != 0;
+    _mask  = (1L<<_bits)-1;
+  }
+
+  /** Bits a row for values in [lemin,lemax], with room for NA if needed */
+  static int bits( long lemin, long lemax, boolean hasNA ) {
+    long range = lemax-lemin + (hasNA ? 1 : 0);
+    return range < 0 ? 64 : 64-Long.numberOfLeadingZeros(range);
+  }
+
+  /** Encode rows [0,len), given as a value and an NA flag per row. */
+  static byte[] encode( long[] ls, boolean[] nas, int len, long bias, int bits, boolean hasNA ) {
+    assert MIN_BITS <= bits && bits <= MAX_BITS;
+    byte[] bs = MemoryManager.malloc1(_OFF+(int)(((long)len*bits+7)>>3)+8);
+    UnsafeUtils.set4(bs,0,len);
+    UnsafeUtils.set8(bs,4,bias);
+    bs[12] = (byte)(hasNA ? bits|0x80 : bits);
+    final long mask = (1L<<bits)-1;
+    long bit = 0;
+    for( int i=0; i<len; i++, bit+=bits ) {
+      int off = _OFF+(int)(bit>>>3);
+      long x = nas[i] ? mask : ls[i]-bias;
+      assert 0 <= x && x <= mask && (x < mask || nas[i] || !hasNA);
+      UnsafeUtils.set8(bs,off,UnsafeUtils.get8(bs,off) | x<<(bit&7));
+    }
+    return bs;
+  }
+
+  private long raw( int i ) {
+    long bit = (long)i*_bits;
+    return (UnsafeUtils.get8(_mem,_OFF+(int)(bit>>>3))>>>(bit&7)) & _mask;
+  }
+
+  @Override protected final long at8_impl( int i ) {
+    long x = raw(i);
+    if( _hasNA && x == _mask ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return x+_bias;
+  }
+  @Override protected final double atd_impl( int i ) {
+    long x = raw(i);
+    return _hasNA && x == _mask ? Double.NaN : x+_bias;
+  }
+  @Override protected final boolean isNA_impl( int i ) { return _hasNA && raw(i) == _mask; }
+  @Override boolean set_impl(int idx, long l)   { return false; }
+  @Override boolean set_impl(int idx, double d) { return false; }
+  @Override boolean set_impl(int idx, float f ) { return false; }
+  @Override boolean setNA_impl(int idx) { return false; }
+
+  // Bulk unpack: walk the bits with a running cursor
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    final byte[] mem = _mem;
+    final int bits = _bits;
+    final long mask = _mask, bias = _bias, na = _hasNA ? mask : -1;
+    long bit = (long)from*bits;
+    for( int i=from; i<to; i++, bit+=bits ) {
+      long x = (UnsafeUtils.get8(mem,_OFF+(int)(bit>>>3))>>>(bit&7)) & mask;
+      vals[i-from] = x == na ? NA : x+bias;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    final byte[] mem = _mem;
+    final int bits = _bits;
+    final long mask = _mask, bias = _bias, na = _hasNA ? mask : -1;
+    long bit = (long)from*bits;
+    for( int i=from; i<to; i++, bit+=bits ) {
+      long x = (UnsafeUtils.get8(mem,_OFF+(int)(bit>>>3))>>>(bit&7)) & mask;
+      vals[i-from] = x == na ? NA : x+bias;
+    }
+    return vals;
+  }
+  @Override public NewChunk inflate_impl(NewChunk nc) {
+    nc.set_sparseLen(0);
+    nc.set_len(0);
+    for( int i=0; i<_len; i++ ) {
+      long x = raw(i);
+      if( _hasNA && x == _mask ) nc.addNA();
+      else                       nc.addNum(x+_bias,0);
+    }
+    return nc;
+  }
+  @Override public AutoBuffer write_impl(AutoBuffer bb) { return bb.putA1(_mem,_mem.length); }
+  @Override public CBPChunk read_impl(AutoBuffer bb) {
+    _mem = bb.bufClose();
+    _start = -1;  _cidx = -1;
+    init();
+    return this;
+  }
+  @Override public boolean hasFloat() { return false; }
+}
@@ -44,6 +44,30 @@ public class CBSChunk extends Chunk {
   @Override boolean set_impl(int idx, double d) { return false; }
   @Override boolean set_impl(int idx, float f ) { return false; }
   @Override boolean setNA_impl(int idx) {  return false; }
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    if( _bpv == 1 ) {             // No NAs: 8 values per byte
+      for( int i=from; i<to; i++ )
+        vals[i-from] = read1b(_mem[_OFF+(i>>3)], i&7);
+    } else {                      // 4 values per byte
+      for( int i=from; i<to; i++ ) {
+        byte b = read2b(_mem[_OFF+(i>>2)], (i&3)<<1);
+        vals[i-from] = b == _NA ? NA : b;
+      }
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    if( _bpv == 1 ) {
+      for( int i=from; i<to; i++ )
+        vals[i-from] = read1b(_mem[_OFF+(i>>3)], i&7);
+    } else {
+      for( int i=from; i<to; i++ ) {
+        byte b = read2b(_mem[_OFF+(i>>2)], (i&3)<<1);
+        vals[i-from] = b == _NA ? NA : b;
+      }
+    }
+    return vals;
+  }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     nc.set_sparseLen(nc.set_len(0));
     for (int i=0; i< _len; i++) {
@@ -0,0 +1,168 @@
+package water.fvec;
+
+import water.AutoBuffer;
+import water.MemoryManager;
+import water.util.UnsafeUtils;
+
+/**
+ * Frame-of-reference integers: rows are split in blocks of 128, and each
+ * block stores its smallest value once and every row as a bit-packed offset
+ * from it, in as few bits as the block's own range needs.  Picked by {@link
+ * NewChunk#compress} for timestamps, ids and other integers whose overall
+ * range needs 4 or 8 bytes a row but whose neighbouring values are close.
+ *
+ * <p>Layout: the row count, then per block its base (8 bytes), its bit width
+ * (1 byte; the high bit is set if the block has NAs) and the byte offset of
+ * its packed rows (4 bytes), then the packed rows, then 8 bytes of padding
+ * so any row can be read with one unaligned long load.  In a block with NAs
+ * the all-ones offset is NA.  Random access is O(1).
+ */
+public class CFORChunk extends Chunk {
+  static final int LOG_BLOCK = 7, BLOCK = 1<<LOG_BLOCK;
+  static final int MAX_BITS = 56;  // One unaligned long load reads any row
+  static final int _OFF = 4;
+  private static final int HDR = 8+1+4;
+  private transient int _doff;     // Start of the packed rows
+
+  CFORChunk( byte[] bs ) { _mem = bs; _start = -1; init(); }
+
+  private void init() {
+    set_len(UnsafeUtils.get4(_mem,0));
+    _doff = _OFF+nblocks(_len)*HDR;
+  }
+  private static int nblocks( int len ) { return (len+BLOCK-1)>>LOG_BLOCK; }
+
+  /** Size in bytes of rows [0,len), given as a value and an NA flag per row,
+   *  or -1 if some block needs more than {@link #MAX_BITS} bits a row. */
+  static long size( long[] ls, boolean[] nas, int len ) {
+    long bytes = _OFF+(long)nblocks(len)*HDR+8;
+    for( int b=0; b<len; b+=BLOCK ) {
+      int w = width(ls,nas,b,Math.min(b+BLOCK,len));
+      if( w < 0 ) return -1;
+      bytes += ((long)(Math.min(b+BLOCK,len)-b)*(w&0x7F)+7)>>3;
+    }
+    return bytes;
+  }
+
+  /** Encode rows [0,len), given as a value and an NA flag per row. */
+  static byte[] encode( long[] ls, boolean[] nas, int len ) {
+    long sz = size(ls,nas,len);
+    assert sz > 0 && sz < Integer.MAX_VALUE;
+    byte[] bs = MemoryManager.malloc1((int)sz);
+    UnsafeUtils.set4(bs,0,len);
+    final int doff = _OFF+nblocks(len)*HDR;
+    int pos = 0;                // Byte offset of this block's rows, from doff
+    for( int b=0, h=_OFF; b<len; b+=BLOCK, h+=HDR ) {
+      final int end = Math.min(b+BLOCK,len);
+      final int w = width(ls,nas,b,end), bits = w&0x7F;
+      final long base = base(ls,nas,b,end), mask = (1L<<bits)-1;
+      UnsafeUtils.set8(bs,h,base);
+      bs[h+8] = (byte)w;
+      UnsafeUtils.set4(bs,h+9,pos);
+      if( bits > 0 ) {
+        for( int i=b; i<end; i++ ) {
+          long bit = (long)(i-b)*bits;
+          int off = doff+pos+(int)(bit>>>3);
+          long x = nas[i] ? mask : ls[i]-base;
+          UnsafeUtils.set8(bs,off,UnsafeUtils.get8(bs,off) | x<<(bit&7));
+        }
+      }
+      pos += ((end-b)*bits+7)>>3;
+    }
+    return bs;
+  }
+
+  // Smallest non-NA value in rows [from,to), or 0 if all are NA
+  private static long base( long[] ls, boolean[] nas, int from, int to ) {
+    long min = Long.MAX_VALUE;
+    for( int i=from; i<to; i++ )
+      if( !nas[i] && ls[i] < min ) min = ls[i];
+    return min == Long.MAX_VALUE ? 0 : min;
+  }
+  // Bits per row for rows [from,to), with 0x80 set if any is NA; -1 if too wide
+  private static int width( long[] ls, boolean[] nas, int from, int to ) {
+    long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+    boolean na = false;
+    for( int i=from; i<to; i++ ) {
+      if( nas[i] ) { na = true; continue; }
+      if( ls[i] < min ) min = ls[i];
+      if( ls[i] > max ) max = ls[i];
+    }
+    long range = min > max ? 0 : max-min;
+    if( range < 0 || range >= (1L<<MAX_BITS)-1 ) return -1; // Overflowed, or too wide
+    if( na ) range++;                                         // Room for the NA code
+    int bits = 64-Long.numberOfLeadingZeros(range);
+    return na ? bits|0x80 : bits;
+  }
+
+  // Raw offset of row i from its block base; the all-ones offset for NA
+  private long raw( int h, int bits, int i ) {
+    if( bits == 0 ) return 0;
+    long bit = (long)(i&(BLOCK-1))*bits;
+    int off = _doff+UnsafeUtils.get4(_mem,h+9)+(int)(bit>>>3);
+    return (UnsafeUtils.get8(_mem,off)>>>(bit&7)) & ((1L<<bits)-1);
+  }
+  private static boolean isNA( int w, long x ) { return (w&0x80) != 0 && x == (1L<<(w&0x7F))-1; }
+
+  @Override protected final long at8_impl( int i ) {
+    int h = _OFF+(i>>LOG_BLOCK)*HDR, w = _mem[h+8]&0xFF;
+    long x = raw(h,w&0x7F,i);
+    if( isNA(w,x) ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return UnsafeUtils.get8(_mem,h)+x;
+  }
+  @Override protected final double atd_impl( int i ) {
+    int h = _OFF+(i>>LOG_BLOCK)*HDR, w = _mem[h+8]&0xFF;
+    long x = raw(h,w&0x7F,i);
+    return isNA(w,x) ? Double.NaN : UnsafeUtils.get8(_mem,h)+x;
+  }
+  @Override protected final boolean isNA_impl( int i ) {
+    int h = _OFF+(i>>LOG_BLOCK)*HDR, w = _mem[h+8]&0xFF;
+    return (w&0x80) != 0 && isNA(w,raw(h,w&0x7F,i));
+  }
+  @Override boolean set_impl(int idx, long l)   { return false; }
+  @Override boolean set_impl(int idx, double d) { return false; }
+  @Override boolean set_impl(int idx, float f ) { return false; }
+  @Override boolean setNA_impl(int idx) { return false; }
+
+  // Bulk reads decode a block header once for all its rows
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    for( int i=from; i<to; ) {
+      int h = _OFF+(i>>LOG_BLOCK)*HDR, w = _mem[h+8]&0xFF, bits = w&0x7F;
+      long base = UnsafeUtils.get8(_mem,h);
+      int end = Math.min((i|(BLOCK-1))+1,to);
+      for( ; i<end; i++ ) {
+        long x = raw(h,bits,i);
+        vals[i-from] = isNA(w,x) ? NA : base+x;
+      }
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    for( int i=from; i<to; ) {
+      int h = _OFF+(i>>LOG_BLOCK)*HDR, w = _mem[h+8]&0xFF, bits = w&0x7F;
+      long base = UnsafeUtils.get8(_mem,h);
+      int end = Math.min((i|(BLOCK-1))+1,to);
+      for( ; i<end; i++ ) {
+        long x = raw(h,bits,i);
+        vals[i-from] = isNA(w,x) ? NA : base+x;
+      }
+    }
+    return vals;
+  }
+  @Override public NewChunk inflate_impl(NewChunk nc) {
+    nc.set_sparseLen(0);
+    nc.set_len(0);
+    for( int i=0; i<_len; i++ )
+      if( isNA_impl(i) ) nc.addNA();
+      else               nc.addNum(at8_impl(i),0);
+    return nc;
+  }
+  @Override public AutoBuffer write_impl(AutoBuffer bb) { return bb.putA1(_mem,_mem.length); }
+  @Override public CFORChunk read_impl(AutoBuffer bb) {
+    _mem = bb.bufClose();
+    _start = -1;  _cidx = -1;
+    init();
+    return this;
+  }
+  @Override public boolean hasFloat() { return false; }
+}
@@ -0,0 +1,160 @@
+package water.fvec;
+
+import water.AutoBuffer;
+import water.MemoryManager;
+import water.util.UnsafeUtils;
+
+import java.util.Arrays;
+
+/**
+ * Run-length encoded integers: each run of equal values (or of NAs) is
+ * stored once, with the row where it ends.  Picked by {@link
+ * NewChunk#compress} for sorted keys, dates and categoricals with long runs.
+ *
+ * <p>Layout: the count of runs, the bytes per run end (2 or 4) and per value
+ * (1, 2, 4 or 8), and the value bias; then the exclusive end row of each run,
+ * then the biased value of each run.  NA is the smallest value of the width,
+ * as in {@link C2Chunk} and friends.  Random access is a binary search over
+ * the run ends; bulk reads walk the runs in order.
+ */
+public class CRLEChunk extends Chunk {
+  static final int _OFF = 4+1+1+8;
+  private transient int _nruns;
+  private transient int _ridsz, _valsz;
+  private transient long _bias;
+
+  CRLEChunk( byte[] bs ) { _mem = bs; _start = -1; init(); }
+
+  private void init() {
+    _nruns = UnsafeUtils.get4(_mem,0);
+    _ridsz = _mem[4];
+    _valsz = _mem[5];
+    _bias  = UnsafeUtils.get8(_mem,6);
+    set_len(_nruns == 0 ? 0 : runEnd(_nruns-1));
+  }
+
+  /** Encode rows [0,len) given as a value and an NA flag per row, as runs of
+   *  values biased to fit in valsz bytes. */
+  static byte[] encode( long[] ls, boolean[] nas, int len, int valsz, long bias ) {
+    int nruns=0;
+    for( int i=0; i<len; i++ )
+      if( endsRun(ls,nas,len,i) ) nruns++;
+    final int ridsz = len < 65536 ? 2 : 4;
+    byte[] bs = MemoryManager.malloc1(_OFF+nruns*(ridsz+valsz));
+    UnsafeUtils.set4(bs,0,nruns);
+    bs[4] = (byte)ridsz;
+    bs[5] = (byte)valsz;
+    UnsafeUtils.set8(bs,6,bias);
+    final int eoff = _OFF, voff = _OFF+nruns*ridsz;
+    int r=0;
+    for( int i=0; i<len; i++ ) {
+      if( !endsRun(ls,nas,len,i) ) continue;
+      if( ridsz == 2 ) UnsafeUtils.set2(bs,eoff+(r<<1),(short)(i+1));
+      else             UnsafeUtils.set4(bs,eoff+(r<<2),i+1);
+      long v = nas[i] ? NAS[Integer.numberOfTrailingZeros(valsz)] : ls[i]-bias;
+      int off = voff+r*valsz;
+      switch( valsz ) {
+      case 1: bs[off] = (byte)v; break;
+      case 2: UnsafeUtils.set2(bs,off,(short)v); break;
+      case 4: UnsafeUtils.set4(bs,off,(int)v); break;
+      case 8: UnsafeUtils.set8(bs,off,v); break;
+      }
+      r++;
+    }
+    assert r == nruns;
+    return bs;
+  }
+  private static boolean endsRun( long[] ls, boolean[] nas, int len, int i ) {
+    return i+1 == len || nas[i] != nas[i+1] || (!nas[i] && ls[i] != ls[i+1]);
+  }
+  // NA per value width: 1, 2, 4, 8 bytes
+  private static final long[] NAS = {Byte.MIN_VALUE, Short.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE};
+
+  private int runEnd( int r ) {
+    return _ridsz == 2
+      ? UnsafeUtils.get2(_mem,_OFF+(r<<1))&0xFFFF
+      : UnsafeUtils.get4(_mem,_OFF+(r<<2));
+  }
+  // Raw biased value of run r; the width's min value for NA
+  private long runVal( int r ) {
+    int off = _OFF+_nruns*_ridsz+r*_valsz;
+    switch( _valsz ) {
+    case 1: return _mem[off];
+    case 2: return UnsafeUtils.get2(_mem,off);
+    case 4: return UnsafeUtils.get4(_mem,off);
+    default:return UnsafeUtils.get8(_mem,off);
+    }
+  }
+  private boolean isNAVal( long v ) { return v == NAS[Integer.numberOfTrailingZeros(_valsz)]; }
+  // Run holding row i: the first run ending after i
+  private int run( int i ) {
+    int lo=0, hi=_nruns-1;
+    while( lo < hi ) {
+      int mid = (lo+hi)>>>1;
+      if( runEnd(mid) <= i ) lo = mid+1;
+      else hi = mid;
+    }
+    return lo;
+  }
+
+  /** @return the count of runs */
+  public int nruns() { return _nruns; }
+
+  @Override protected final long at8_impl( int i ) {
+    long v = runVal(run(i));
+    if( isNAVal(v) ) throw new IllegalArgumentException("at8_abs but value is missing");
+    return v+_bias;
+  }
+  @Override protected final double atd_impl( int i ) {
+    long v = runVal(run(i));
+    return isNAVal(v) ? Double.NaN : v+_bias;
+  }
+  @Override protected final boolean isNA_impl( int i ) { return isNAVal(runVal(run(i))); }
+  @Override boolean set_impl(int idx, long l)   { return false; }
+  @Override boolean set_impl(int idx, double d) { return false; }
+  @Override boolean set_impl(int idx, float f ) { return false; }
+  @Override boolean setNA_impl(int idx) { return false; }
+
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    if( from >= to ) return vals;
+    for( int r=run(from), i=from; i<to; r++ ) {
+      long v = runVal(r);
+      double d = isNAVal(v) ? NA : v+_bias;
+      int end = Math.min(runEnd(r),to);
+      Arrays.fill(vals,i-from,end-from,d);
+      i = end;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    if( from >= to ) return vals;
+    for( int r=run(from), i=from; i<to; r++ ) {
+      long v = runVal(r);
+      long l = isNAVal(v) ? NA : v+_bias;
+      int end = Math.min(runEnd(r),to);
+      Arrays.fill(vals,i-from,end-from,l);
+      i = end;
+    }
+    return vals;
+  }
+  @Override public NewChunk inflate_impl(NewChunk nc) {
+    nc.set_sparseLen(0);
+    nc.set_len(0);
+    for( int r=0, i=0; r<_nruns; r++ ) {
+      long v = runVal(r);
+      boolean na = isNAVal(v);
+      for( int end = runEnd(r); i<end; i++ )
+        if( na ) nc.addNA();
+        else     nc.addNum(v+_bias,0);
+    }
+    return nc;
+  }
+  @Override public AutoBuffer write_impl(AutoBuffer bb) { return bb.putA1(_mem,_mem.length); }
+  @Override public CRLEChunk read_impl(AutoBuffer bb) {
+    _mem = bb.bufClose();
+    _start = -1;  _cidx = -1;
+    init();
+    return this;
+  }
+  @Override public boolean hasFloat() { return false; }
+}
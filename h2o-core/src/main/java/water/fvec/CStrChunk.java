@@ -9,6 +9,7 @@ public class CStrChunk extends Chunk {
   static protected final int _OFF=4;
   private int _valstart;
 
+  CStrChunk() { }               // For CStrDictChunk
   public CStrChunk(int sslen, byte[] ss, int sparseLen, int idxLen, int[] strIdx) {
     _start = -1;
     _valstart = _OFF + (idxLen<<2);
@@ -53,9 +54,13 @@ public class CStrChunk extends Chunk {
   @Override public CStrChunk read_impl(AutoBuffer bb) {
     _mem = bb.bufClose();
     _start = -1;  _cidx = -1;
+    init();
+    return this;
+  }
+  // Decode the header of _mem; CStrDictChunk reuses the serializers above
+  void init() {
     _valstart = UnsafeUtils.get4(_mem,0);
     set_len((_valstart-_OFF)>>2);
-    return this;
   }
   @Override public NewChunk inflate_impl(NewChunk nc) {
     nc.set_len(_len);
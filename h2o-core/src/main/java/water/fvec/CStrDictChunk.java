@@ -0,0 +1,90 @@
+package water.fvec;
+
+import water.MemoryManager;
+import water.parser.ValueString;
+import water.util.UnsafeUtils;
+
+/**
+ * Dictionary-encoded strings: each distinct string of the chunk is stored
+ * once, and every row holds a 1, 2 or 4 byte index into the dictionary.
+ * Picked by {@link NewChunk#compress} for string chunks with many repeats,
+ * like URLs or user agents.  A {@link CStrChunk}, so code special-casing
+ * string chunks handles both; {@link #atStr_impl} still returns a view into
+ * the chunk bytes.
+ *
+ * <p>Layout: the row count, the dictionary size and the bytes per index,
+ * then the start of each dictionary string (plus the end of the last), then
+ * the row indices, then the dictionary strings.  The all-ones index is NA.
+ */
+public class CStrDictChunk extends CStrChunk {
+  static final int _OFF = 4+4+1;
+  private transient int _ndict, _idxsz, _ioff;
+
+  CStrDictChunk( byte[] bs ) { _mem = bs; _start = -1; init(); }
+
+  @Override void init() {
+    set_len(UnsafeUtils.get4(_mem,0));
+    _ndict = UnsafeUtils.get4(_mem,4);
+    _idxsz = _mem[8];
+    _ioff  = _OFF+((_ndict+1)<<2);
+  }
+
+  /** Bytes per index for a dictionary of ndict strings, keeping room for NA */
+  static int idxsz( int ndict ) { return ndict < 255 ? 1 : ndict < 65535 ? 2 : 4; }
+
+  /** Encode len rows of dictionary ids (-1 for NA), with the dictionary
+   *  strings at dstart/dlen in ss. */
+  static byte[] encode( int[] ids, int len, byte[] ss, int[] dstart, int[] dlen, int ndict, int dbytes ) {
+    final int idxsz = idxsz(ndict);
+    final int ioff = _OFF+((ndict+1)<<2), soff = ioff+len*idxsz;
+    byte[] bs = MemoryManager.malloc1(soff+dbytes);
+    UnsafeUtils.set4(bs,0,len);
+    UnsafeUtils.set4(bs,4,ndict);
+    bs[8] = (byte)idxsz;
+    int off = soff;
+    for( int d=0; d<ndict; d++ ) {
+      UnsafeUtils.set4(bs,_OFF+(d<<2),off);
+      System.arraycopy(ss,dstart[d],bs,off,dlen[d]);
+      off += dlen[d];
+    }
+    UnsafeUtils.set4(bs,_OFF+(ndict<<2),off);
+    for( int i=0; i<len; i++ ) {
+      int id = ids[i];          // -1 is all-ones in any width
+      switch( idxsz ) {
+      case 1: bs[ioff+i] = (byte)id; break;
+      case 2: UnsafeUtils.set2(bs,ioff+(i<<1),(short)id); break;
+      default:UnsafeUtils.set4(bs,ioff+(i<<2),id); break;
+      }
+    }
+    return bs;
+  }
+
+  // Dictionary index of row i, or -1 for NA
+  private int id( int i ) {
+    switch( _idxsz ) {
+    case 1: { int x = _mem[_ioff+i]&0xFF;                           return x == 0xFF   ? -1 : x; }
+    case 2: { int x = UnsafeUtils.get2(_mem,_ioff+(i<<1))&0xFFFF;   return x == 0xFFFF ? -1 : x; }
+    default:  return UnsafeUtils.get4(_mem,_ioff+(i<<2));
+    }
+  }
+
+  /** @return the count of distinct strings */
+  public int ndict() { return _ndict; }
+
+  @Override public boolean isNA_impl( int idx ) { return id(idx) == -1; }
+  @Override public ValueString atStr_impl( ValueString vstr, int idx ) {
+    int d = id(idx);
+    if( d == -1 ) return null;
+    int off = UnsafeUtils.get4(_mem,_OFF+(d<<2));
+    return vstr.set(_mem,off,UnsafeUtils.get4(_mem,_OFF+((d+1)<<2))-off);
+  }
+
+  @Override public NewChunk inflate_impl(NewChunk nc) {
+    nc.set_len(0);
+    nc.set_sparseLen(0);
+    ValueString vstr = new ValueString();
+    for( int i=0; i<_len; i++ )
+      nc.addStr(atStr_impl(vstr,i));
+    return nc;
+  }
+}
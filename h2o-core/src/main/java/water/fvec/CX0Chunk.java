@@ -14,6 +14,33 @@ public final class CX0Chunk extends CXIChunk {
   @Override double min() { return 0; }
   @Override double max() { return 1; }
 
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    Arrays.fill(vals,0,to-from,0);
+    final int elmsz = ridsz();
+    for( int off = firstOffset(from); off < _mem.length; off += elmsz ) {
+      int id = getId(off);
+      if( id >= to ) break;
+      vals[id-from] = 1;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    Arrays.fill(vals,0,to-from,0);
+    final int elmsz = ridsz();
+    for( int off = firstOffset(from); off < _mem.length; off += elmsz ) {
+      int id = getId(off);
+      if( id >= to ) break;
+      vals[id-from] = 1;
+    }
+    return vals;
+  }
+
+  @Override int getSparseDoubles_impl(double[] vals, int[] ids, double NA) {
+    final int n = nonzeros(ids);
+    Arrays.fill(vals,0,n,1);
+    return n;
+  }
+
   @Override public NewChunk inflate_impl(NewChunk nc) {
     final int slen = sparseLen();
     nc.set_len(_len);
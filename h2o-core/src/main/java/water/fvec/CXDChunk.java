@@ -3,6 +3,7 @@ package water.fvec;
 import water.H2O;
 import water.util.UnsafeUtils;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 public class CXDChunk extends CXIChunk {
@@ -33,6 +34,40 @@ public class CXDChunk extends CXIChunk {
     return Double.isNaN(getFValue(off));
   }
 
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    Arrays.fill(vals,0,to-from,0);
+    final int elmsz = ridsz() + valsz();
+    for( int off = firstOffset(from); off < _mem.length; off += elmsz ) {
+      int id = getId(off);
+      if( id >= to ) break;
+      double d = getFValue(off);
+      vals[id-from] = Double.isNaN(d) ? NA : d;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    Arrays.fill(vals,0,to-from,0);
+    final int elmsz = ridsz() + valsz();
+    for( int off = firstOffset(from); off < _mem.length; off += elmsz ) {
+      int id = getId(off);
+      if( id >= to ) break;
+      double d = getFValue(off);
+      vals[id-from] = Double.isNaN(d) ? NA : (long)d;
+    }
+    return vals;
+  }
+
+  @Override int getSparseDoubles_impl(double[] vals, int[] ids, double NA) {
+    final int slen = sparseLen();
+    final int elmsz = ridsz() + valsz();
+    for( int k = 0, off = _OFF; k < slen; k++, off += elmsz ) {
+      ids[k] = getId(off);
+      double d = getFValue(off);
+      vals[k] = Double.isNaN(d) ? NA : d;
+    }
+    return slen;
+  }
+
   @Override public NewChunk inflate_impl(NewChunk nc) {
     final int slen = sparseLen();
     nc.set_len(_len);
@@ -4,6 +4,7 @@ import water.AutoBuffer;
 import water.H2O;
 import water.util.UnsafeUtils;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 // Sparse chunk.
@@ -44,8 +45,8 @@ public class CXIChunk extends Chunk {
   @Override public final int nonzeros(int [] arr){
     int len = sparseLen();
     int off = _OFF;
-    final int inc = _valsz + 2;
-    for(int i = 0; i < len; ++i, off += inc) arr[i] = UnsafeUtils.get2(_mem, off)&0xFFFF;
+    final int inc = _valsz + _ridsz;
+    for(int i = 0; i < len; ++i, off += inc) arr[i] = getId(off);
     return len;
   }
 
@@ -75,6 +76,44 @@ public class CXIChunk extends Chunk {
     return getIValue(off) == NAS[_valsz_log];
   }
 
+  // Bulk readers: zero-fill, then scatter the stored values in range
+  @Override double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    Arrays.fill(vals,0,to-from,0);
+    final int elmsz = _ridsz + _valsz;
+    final long na = NAS[_valsz_log];
+    for( int off = firstOffset(from); off < _mem.length; off += elmsz ) {
+      int id = getId(off);
+      if( id >= to ) break;
+      long v = getIValue(off);
+      vals[id-from] = v == na ? NA : v;
+    }
+    return vals;
+  }
+  @Override long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    Arrays.fill(vals,0,to-from,0);
+    final int elmsz = _ridsz + _valsz;
+    final long na = NAS[_valsz_log];
+    for( int off = firstOffset(from); off < _mem.length; off += elmsz ) {
+      int id = getId(off);
+      if( id >= to ) break;
+      long v = getIValue(off);
+      vals[id-from] = v == na ? NA : v;
+    }
+    return vals;
+  }
+
+  @Override int getSparseDoubles_impl(double[] vals, int[] ids, double NA) {
+    final int slen = sparseLen();
+    final int elmsz = _ridsz + _valsz;
+    final long na = NAS[_valsz_log];
+    for( int k = 0, off = _OFF; k < slen; k++, off += elmsz ) {
+      ids[k] = getId(off);
+      long v = getIValue(off);
+      vals[k] = v == na ? NA : v;
+    }
+    return slen;
+  }
+
   @Override public NewChunk inflate_impl(NewChunk nc) {
     final int slen = sparseLen();
     nc.set_len(_len);
@@ -151,6 +190,13 @@ public class CXIChunk extends Chunk {
     return y;
   }
 
+  // offset of the first stored element with row id >= idx, or _mem.length if none
+  protected final int firstOffset(int idx) {
+    if( sparseLen() == 0 || idx >= _len ) return _mem.length;
+    int off = findOffset(idx);
+    return getId(off) < idx ? off + _ridsz + _valsz : off;
+  }
+
   @Override public final int nextNZ(int rid){
     final int off = rid == -1?_OFF:findOffset(rid);
     int x = getId(off);
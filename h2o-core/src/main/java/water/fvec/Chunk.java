@@ -141,6 +141,13 @@ public abstract class Chunk extends Iced implements Cloneable {
   /** Exposed for internal testing only.  Not a publically visible API. */
   public Chunk chk2() { return _chk2; }
 
+  /** This chunk's own rollups, serialized; cached by {@link RollupStats} so
+   *  only written chunks are rescanned when a Vec's rollups are rebuilt.
+   *  Only the fixed-size fields, a couple hundred bytes; dropped with the
+   *  chunk when the Cleaner frees it.  Writes go to a clone or a new chunk,
+   *  without the cache. */
+  transient byte[] _rollups;
+
   /** Owning Vec; a read-only field */
   transient Vec _vec;
   /** Owning Vec */
@@ -277,6 +284,42 @@ public abstract class Chunk extends Iced implements Cloneable {
    *  @return String value or null if missing. */
   public final ValueString atStr(ValueString vstr, int i) { return _chk2 == null ? atStr_impl(vstr,i) : _chk2.atStr_impl(vstr,i); }
 
+  /** Bulk load {@code double} values for the chunk-relative rows {@code
+   *  [from,to)} into {@code vals[0..to-from)}; missing values load as NaN.
+   *
+   *  <p>One call replaces {@code to-from} virtual {@link #atd} calls: the
+   *  compression scheme is dispatched once, and each Chunk subclass decodes
+   *  with a tight loop over its raw bytes that the JIT can unroll.  Hot loops
+   *  that touch every row of a Chunk should decode the rows they need with
+   *  this call (possibly in blocks, to bound the temp array), then loop over
+   *  the plain {@code double[]}:
+   *  <pre>
+   *  double[] ds = chk.getDoubles(new double[chk._len],0,chk._len);
+   *  for( int row=0; row &lt; ds.length; row++ )
+   *    ...ds[row]...
+   *  </pre>
+   *  @return vals, for flow-coding */
+  public final double[] getDoubles(double[] vals, int from, int to) { return getDoubles(vals,from,to,Double.NaN); }
+
+  /** Bulk load {@code double} values for the chunk-relative rows {@code
+   *  [from,to)} into {@code vals[0..to-from)}, replacing missing values with
+   *  {@code NA}.
+   *  @return vals, for flow-coding */
+  public final double[] getDoubles(double[] vals, int from, int to, double NA) {
+    assert 0 <= from && from <= to && to <= _len && to-from <= vals.length;
+    return _chk2 == null ? getDoubles_impl(vals,from,to,NA) : _chk2.getDoubles_impl(vals,from,to,NA);
+  }
+
+  /** Bulk load {@code long} values for the chunk-relative rows {@code
+   *  [from,to)} into {@code vals[0..to-from)}, replacing missing values with
+   *  {@code NA}.  Floating point values are silently rounded, as in {@link
+   *  #at8}.  Unlike {@code at8}, missing values do not throw.
+   *  @return vals, for flow-coding */
+  public final long[] getLongs(long[] vals, int from, int to, long NA) {
+    assert 0 <= from && from <= to && to <= _len && to-from <= vals.length;
+    return _chk2 == null ? getLongs_impl(vals,from,to,NA) : _chk2.getLongs_impl(vals,from,to,NA);
+  }
+
 
   /** Write a {@code long} using absolute row numbers.  There is no way to
    *  write a missing value with this call.  Under rare circumstances this can
@@ -366,6 +409,7 @@ public abstract class Chunk extends Iced implements Cloneable {
     _vec.preWriting();          // One-shot writing-init
     _chk2 = (Chunk)clone();     // Flag this chunk as having been written into
     assert _chk2._chk2 == null; // Clone has NOT been written into
+    _chk2._rollups = null;      // Nor has its rollups
   }
 
   /** Write a {@code long} with check-relative indexing.  There is no way to
@@ -489,7 +533,32 @@ public abstract class Chunk extends Iced implements Cloneable {
   long at16l_impl(int idx) { throw new IllegalArgumentException("Not a UUID"); }
   long at16h_impl(int idx) { throw new IllegalArgumentException("Not a UUID"); }
   ValueString atStr_impl(ValueString vstr, int idx) { throw new IllegalArgumentException("Not a String"); }
-  
+
+  /** Chunk-specific bulk readers.  The defaults go row-at-a-time through the
+   *  single-row readers; compressed subclasses override with a direct decode
+   *  loop.  Not a public API */
+  double[] getDoubles_impl(double[] vals, int from, int to, double NA) {
+    for( int i=from; i<to; i++ )
+      vals[i-from] = isNA_impl(i) ? NA : atd_impl(i);
+    return vals;
+  }
+  long[] getLongs_impl(long[] vals, int from, int to, long NA) {
+    for( int i=from; i<to; i++ )
+      vals[i-from] = isNA_impl(i) ? NA : at8_impl(i);
+    return vals;
+  }
+  int getSparseDoubles_impl(double[] vals, int[] ids, double NA) {
+    if( !isSparse() ) {
+      getDoubles_impl(vals,0,_len,NA);
+      for( int i=0; i<_len; i++ ) ids[i] = i;
+      return _len;
+    }
+    final int n = nonzeros(ids);
+    for( int k=0; k<n; k++ )
+      vals[k] = isNA_impl(ids[k]) ? NA : atd_impl(ids[k]);
+    return n;
+  }
+
   /** Chunk-specific writer.  Returns false if the value does not fit in the
    *  current compression scheme.  */
   abstract boolean set_impl  (int idx, long l );
@@ -519,6 +588,28 @@ public abstract class Chunk extends Iced implements Cloneable {
     return _len;
   }
 
+  /** Sparse cursor: fill {@code vals} and {@code ids} with the values and
+   *  chunk-relative row numbers of the stored rows (non-zeros for sparse
+   *  Chunks, all rows for dense ones), in row order, with NAs as NaN.  Rows
+   *  not reported are zero.  This is the one-pass equivalent of walking
+   *  {@link #nextNZ} and calling {@link #atd} on each row; work done on a
+   *  sparse Chunk scales with the non-zeros and not with {@link #_len}.
+   *  <pre>{@code
+   *  int n = c.getSparseDoubles(vals,ids);
+   *  for( int k=0; k<n; k++ ) sum += vals[k];
+   *  for( int k=0; k<n; k++ ) rowsum[ids[k]] += vals[k];
+   *  }</pre>
+   *  Both arrays must hold at least {@link #sparseLen} entries; after a write
+   *  to this Chunk (and before {@link #close}) they must hold {@link #_len}.
+   *  @return the count of rows reported */
+  public final int getSparseDoubles(double[] vals, int[] ids) { return getSparseDoubles(vals, ids, Double.NaN); }
+  /** Sparse cursor, as {@link #getSparseDoubles(double[],int[])}, with NAs
+   *  reported as the given value.
+   *  @return the count of rows reported */
+  public final int getSparseDoubles(double[] vals, int[] ids, double NA) {
+    return _chk2 == null ? getSparseDoubles_impl(vals,ids,NA) : _chk2.getSparseDoubles_impl(vals,ids,NA);
+  }
+
   /** Report the Chunk min-value (excluding NAs), or NaN if unknown.  Actual
    *  min can be higher than reported.  Used to short-cut RollupStats for
    *  constant and boolean chunks. */
@@ -0,0 +1,145 @@
+package water.fvec;
+
+import jsr166y.CountedCompleter;
+import water.*;
+import water.H2O.H2OCountedCompleter;
+import water.parser.ValueString;
+import water.persist.PersistManager;
+import water.util.Log;
+import water.util.PrettyPrint;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/** Export a Frame as CSV, in parallel.
+ *
+ *  <p>Every chunk of the Frame is written to its own part file, {@code
+ *  part-00000.csv} and so on, in the directory given.  Each node formats and
+ *  writes its own chunks, so the export scales with the cluster instead of
+ *  streaming every row through one node like {@link Frame#toCSV}.  Local paths
+ *  are on each node's own disk; HDFS and S3 paths go through the {@link
+ *  PersistManager}.  Only the first part has the header, so concatenating the
+ *  parts in order gives the whole CSV.  Parts can be gzipped. */
+public final class ExportDataset extends Job<Frame> {
+
+  /** Export, returning when done. */
+  public static void export(Frame fr, String path, boolean force, boolean compress) {
+    forkExport(fr,path,force,compress).get();
+  }
+
+  /** Start exporting fr into directory path as a backgroundable Job, which
+   *  progresses by rows written.
+   *  @param force overwrite existing part files
+   *  @param compress gzip each part file */
+  public static ExportDataset forkExport(Frame fr, String path, boolean force, boolean compress) {
+    if( fr._key == null )
+      throw new IllegalArgumentException("Only Frames in the K/V store can be exported");
+    ExportDataset job = new ExportDataset(fr._key);
+    fr.read_lock(job._key);     // Read-Lock BEFORE returning
+    job.start(new ExportFJTask(job,fr,path,force,compress), fr.numRows());
+    return job;
+  }
+
+  private ExportDataset(Key<Frame> dest) { super(dest,"Export"); }
+
+  /** Name of the part file for one chunk. */
+  public static String partName( int cidx, boolean compress ) {
+    return String.format("part-%05d.csv",cidx) + (compress ? ".gz" : "");
+  }
+
+  private static class ExportFJTask extends H2OCountedCompleter {
+    final ExportDataset _job;
+    final Frame _fr;
+    final String _path;
+    final boolean _force, _compress;
+    ExportFJTask( ExportDataset job, Frame fr, String path, boolean force, boolean compress ) {
+      _job = job; _fr = fr; _path = path; _force = force; _compress = compress;
+    }
+    @Override public void compute2() {
+      Log.info("Exporting "+_fr._key+" into "+_path);
+      new ExportTask(_job._key,_fr._names,_path,_force,_compress).doAll(_fr);
+      tryComplete();
+    }
+    @Override public void onCompletion(CountedCompleter caller) {
+      _fr.unlock(_job._key);
+      Log.info("Key '"+_fr._key+"' was written to "+_path+".");
+      _job.done();
+    }
+    @Override public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
+      _fr.unlock(_job._key);
+      _job.failed(ex);
+      return true;
+    }
+  }
+
+  /** Format and write each chunk into its own part file. */
+  private static class ExportTask extends MRTask<ExportTask> {
+    final Key _jobKey;
+    final String _names[];
+    final String _path;
+    final boolean _force, _compress;
+    ExportTask( Key jobKey, String names[], String path, boolean force, boolean compress ) {
+      _jobKey = jobKey; _names = names; _path = path; _force = force; _compress = compress;
+    }
+
+    // The directory, on every node's local disk
+    @Override protected void setupLocal() { H2O.getPM().mkdirs(_path); }
+
+    @Override public void map( Chunk cs[] ) {
+      final int cidx = cs[0].cidx();
+      final int len = cs[0]._len;
+      OutputStream os = H2O.getPM().create(_path+"/"+partName(cidx,_compress),_force);
+      try {
+        if( _compress ) os = new GZIPOutputStream(os,1<<16);
+        os = new BufferedOutputStream(os,1<<20);
+        StringBuilder sb = new StringBuilder();
+        if( cidx == 0 ) {
+          for( int i = 0; i < _names.length; i++ )
+            sb.append(i==0 ? "" : ",").append('"').append(_names[i]).append('"');
+          sb.append('\n');
+        }
+        // Column kinds once per chunk, not per cell: isInt() reads rollups
+        byte kinds[] = new byte[cs.length];
+        String doms[][] = new String[cs.length][];
+        for( int i = 0; i < cs.length; i++ ) {
+          Vec v = cs[i].vec();
+          doms[i] = v.domain();
+          kinds[i] = v.isEnum() ? ENUM : v.isUUID() ? UUID : v.isInt() ? INT : v.isString() ? STR : REAL;
+        }
+        ValueString vstr = new ValueString();
+        for( int row = 0; row < len; row++ ) {
+          for( int i = 0; i < cs.length; i++ ) {
+            if( i > 0 ) sb.append(',');
+            appendCell(sb,cs[i],kinds[i],doms[i],row,vstr);
+          }
+          sb.append('\n');
+          if( sb.length() >= 1<<16 ) { os.write(sb.toString().getBytes()); sb.setLength(0); }
+        }
+        os.write(sb.toString().getBytes());
+        os.close();
+        os = null;
+      } catch( IOException e ) {
+        throw new RuntimeException(e);
+      } finally {
+        if( os != null ) try { os.close(); } catch( IOException ignore ) { }
+      }
+      Job.update(len,_jobKey);  // Record rows written
+    }
+
+    private static final byte ENUM=0, UUID=1, INT=2, STR=3, REAL=4;
+
+    // One value of a column of the given kind, formatted as Frame.toCSV does
+    private static void appendCell( StringBuilder sb, Chunk c, byte kind, String dom[], int row, ValueString vstr ) {
+      if( c.isNA(row) ) return;
+      switch( kind ) {
+      case ENUM: sb.append('"').append(dom[(int)c.at8(row)]).append('"'); break;
+      case UUID: sb.append(PrettyPrint.UUID(c.at16l(row), c.at16h(row))); break;
+      case INT:  sb.append(c.at8(row)); break;
+      case STR:  sb.append(c.atStr(vstr,row)); break;
+      default:   sb.append(Double.toString(c.atd(row))); break;
+      }
+    }
+  }
+}
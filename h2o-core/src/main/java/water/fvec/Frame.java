@@ -258,7 +258,7 @@ public class Frame extends Lockable<Frame> {
    *  remotely, or that the _vecs array was shared and now needs to be a
    *  defensive copy. 
    *  @return the new instance of the Frame's Vec[] */
-  public final Vec[] reloadVecs() { _vecs=null; return vecs(); }
+  public final Vec[] reloadVecs() { _vecs=null; _col0=null; return vecs(); }
   
   /** Returns the Vec by given index, implemented by code: {@code vecs()[idx]}.
    *  @param idx idx of column
@@ -1015,6 +1015,10 @@ public class Frame extends Lockable<Frame> {
   private static class DeepSelect extends MRTask<DeepSelect> {
     @Override public void map( Chunk chks[], NewChunk nchks[] ) {
       Chunk pred = chks[chks.length-1];
+      // Nothing selected, e.g. a comparison settled by zone maps?  Skip the
+      // chunk without decoding the data
+      if( (pred instanceof C0LChunk || pred instanceof C0DChunk) && pred._len > 0 &&
+          (pred.atd(0) == 0 || pred.isNA(0)) ) return;
       for(int i = 0; i < pred._len; ++i) {
         if( pred.atd(i) != 0 && !pred.isNA(i) ) {
           for( int j = 0; j < chks.length - 1; j++ ) {
@@ -0,0 +1,287 @@
+package water.fvec;
+
+import jsr166y.CountedCompleter;
+import water.*;
+import water.H2O.H2OCountedCompleter;
+import water.parser.ValueString;
+import water.persist.PersistManager;
+import water.util.FileUtils;
+import water.util.Log;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/** Save a Frame in H2O's own compressed chunk format, and load it back with
+ *  no re-parse.
+ *
+ *  <p>A saved Frame is a directory.  {@code frame.meta} holds the column
+ *  names, types and domains and the chunk layout; {@code chunk-00000.bin} and
+ *  on hold every column's compressed bytes for one chunk, exactly as they sit
+ *  in the K/V store.  Each node writes the chunks homed on it, in parallel,
+ *  like {@link ExportDataset}; local paths are on each node's own disk, HDFS
+ *  and S3 paths go through the {@link PersistManager}.
+ *
+ *  <p>Loading puts the bytes straight back into the K/V store as chunk
+ *  Values: no tokenizing, type guessing or re-compression.  Chunks are homed
+ *  afresh, so a Frame can be loaded on a different number of nodes.  Each
+ *  chunk file is read by the first node which can see it: local directories
+ *  work as long as every chunk file is on some node of the cluster, shared
+ *  ones from any cluster.  */
+public final class FrameSnapshot extends Job<Frame> {
+  static final String META = "frame.meta";
+  private static final int MAGIC = 0x46324F48; // "H2OF"
+  private static final int VERSION = 1;
+
+  /** Save, returning when done. */
+  public static void save(Frame fr, String path, boolean force) {
+    forkSave(fr,path,force).get();
+  }
+
+  /** Start saving fr into directory path as a backgroundable Job, which
+   *  progresses by chunks written.
+   *  @param force overwrite existing files */
+  public static FrameSnapshot forkSave(Frame fr, String path, boolean force) {
+    if( fr._key == null )
+      throw new IllegalArgumentException("Only Frames in the K/V store can be saved");
+    FrameSnapshot job = new FrameSnapshot(fr._key,"Save");
+    fr.read_lock(job._key);     // Read-Lock BEFORE returning
+    job.start(new SaveFJTask(job,fr,path,force), fr.anyVec() == null ? 0 : fr.anyVec().nChunks());
+    return job;
+  }
+
+  /** Load a Frame saved into directory path, returning it when done. */
+  public static Frame load(String path, Key<Frame> dest) {
+    return forkLoad(path,dest).get();
+  }
+
+  /** Start loading a Frame saved into directory path as a backgroundable Job,
+   *  which progresses by chunks read. */
+  public static FrameSnapshot forkLoad(String path, Key<Frame> dest) {
+    Meta meta = Meta.read(path+"/"+META);
+    FrameSnapshot job = new FrameSnapshot(dest,"Load");
+    job.start(new LoadFJTask(job,meta,path), meta._espc.length-1);
+    return job;
+  }
+
+  private FrameSnapshot(Key<Frame> dest, String desc) { super(dest,desc); }
+
+  /** Name of the file for one chunk. */
+  public static String chunkName( int cidx ) { return String.format("chunk-%05d.bin",cidx); }
+
+  // Column names, types & domains and chunk layout.  Written field by field,
+  // with no type ids: those are only good for one cloud.
+  private static class Meta {
+    String[] _names;
+    byte[] _types;
+    String[][] _domains;
+    long[] _espc;
+
+    Meta( Frame fr ) {
+      Vec[] vecs = fr.vecs();
+      _names = fr.names();
+      _types = new byte[vecs.length];
+      _domains = new String[vecs.length][];
+      for( int i=0; i<vecs.length; i++ ) { _types[i] = vecs[i]._type;  _domains[i] = vecs[i].domain(); }
+      Vec v = fr.anyVec();
+      int nchunks = v == null ? 0 : v.nChunks();
+      _espc = new long[nchunks+1];
+      for( int i=0; i<nchunks; i++ ) _espc[i] = v.chunk2StartElem(i);
+      _espc[nchunks] = v == null ? 0 : v.length();
+    }
+    private Meta( AutoBuffer ab, String path ) {
+      if( ab.get4() != MAGIC ) throw new IllegalArgumentException("Not a saved Frame: "+path);
+      int version = ab.get4();
+      if( version != VERSION ) throw new IllegalArgumentException("Unknown saved Frame version "+version+": "+path);
+      _names = ab.getAStr();
+      _types = ab.getA1();
+      _domains = ab.getAAStr();
+      _espc = ab.getA8();
+    }
+    static Meta read( String path ) { return new Meta(new AutoBuffer(readAll(path)),path); }
+    void write( String path, boolean force ) {
+      AutoBuffer ab = new AutoBuffer().put4(MAGIC).put4(VERSION);
+      ab.putAStr(_names).putA1(_types).putAAStr(_domains).putA8(_espc);
+      writeAll(path,ab.buf(),force);
+    }
+  }
+
+  private static class SaveFJTask extends H2OCountedCompleter {
+    final FrameSnapshot _job;
+    final Frame _fr;
+    final String _path;
+    final boolean _force;
+    SaveFJTask( FrameSnapshot job, Frame fr, String path, boolean force ) {
+      _job = job; _fr = fr; _path = path; _force = force;
+    }
+    @Override public void compute2() {
+      Log.info("Saving "+_fr._key+" into "+_path);
+      H2O.getPM().mkdirs(_path);
+      new SaveTask(_job._key,_path,_force).doAll(_fr);
+      new Meta(_fr).write(_path+"/"+META,_force); // Last, so a partial save does not load
+      tryComplete();
+    }
+    @Override public void onCompletion(CountedCompleter caller) {
+      _fr.unlock(_job._key);
+      Log.info("Key '"+_fr._key+"' was saved to "+_path+".");
+      _job.done();
+    }
+    @Override public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
+      _fr.unlock(_job._key);
+      _job.failed(ex);
+      return true;
+    }
+  }
+
+  /** Write each chunk's columns into its own file. */
+  private static class SaveTask extends MRTask<SaveTask> {
+    final Key _jobKey;
+    final String _path;
+    final boolean _force;
+    SaveTask( Key jobKey, String path, boolean force ) { _jobKey = jobKey; _path = path; _force = force; }
+
+    // The directory, on every node's local disk
+    @Override protected void setupLocal() { H2O.getPM().mkdirs(_path); }
+
+    @Override public void map( Chunk cs[] ) {
+      AutoBuffer ab = new AutoBuffer().put4(cs.length);
+      for( Chunk c : cs ) {
+        c = stored(c);
+        ab.putStr(c.getClass().getName()).putA1(c.getBytes());
+      }
+      writeAll(_path+"/"+chunkName(cs[0].cidx()),ab.buf(),_force);
+      Job.update(1,_jobKey);    // Record chunks written
+    }
+
+    // Chunks of wrapped Vecs are views over other chunks; save them compressed
+    private static Chunk stored( Chunk c ) {
+      Vec v = c.vec();
+      if( !(v instanceof WrappedVec) ) return c;
+      NewChunk nc = new NewChunk(null,0);
+      ValueString vstr = new ValueString();
+      for( int i=0; i<c._len; i++ ) {
+        if( c.isNA(i) ) nc.addNA();
+        else if( v.isUUID() ) nc.addUUID(c.at16l(i),c.at16h(i));
+        else if( v.isString() ) nc.addStr(c.atStr(vstr,i));
+        else if( !c.hasFloat() ) nc.addNum(c.at8(i),0);
+        else nc.addNum(c.atd(i));
+      }
+      return nc.compress();
+    }
+  }
+
+  private static class LoadFJTask extends H2OCountedCompleter {
+    final FrameSnapshot _job;
+    final Meta _meta;
+    final String _path;
+    Frame _out;
+    LoadFJTask( FrameSnapshot job, Meta meta, String path ) { _job = job; _meta = meta; _path = path; }
+    @Override public void compute2() {
+      Log.info("Loading "+_job.dest()+" from "+_path);
+      final int ncols = _meta._names.length, nchunks = _meta._espc.length-1;
+      Key<Vec>[] keys = new Vec.VectorGroup().addVecs(ncols);
+      Vec[] vecs = new Vec[ncols];
+      Futures fs = new Futures();
+      for( int i=0; i<ncols; i++ )
+        DKV.put(keys[i],vecs[i] = new Vec(keys[i],_meta._espc,_meta._domains[i],_meta._types[i]),fs);
+      fs.blockForPending();
+      _out = new Frame(_job.dest(),_meta._names,vecs);
+      _out.delete_and_lock(_job._key);
+
+      // Each chunk file is read by the lowest numbered node which can see it
+      int[] owners = new FindTask(_path,nchunks).doAllNodes()._owners;
+      for( int cidx=0; cidx<nchunks; cidx++ )
+        if( owners[cidx] == Integer.MAX_VALUE )
+          throw new IllegalArgumentException("Missing "+chunkName(cidx)+" of saved Frame "+_path);
+      new LoadTask(_job._key,_path,keys,owners).doAllNodes();
+      tryComplete();
+    }
+    @Override public void onCompletion(CountedCompleter caller) {
+      _out.update(_job._key);
+      _out.unlock(_job._key);
+      Log.info("Key '"+_out._key+"' was loaded from "+_path+".");
+      _job.done();
+    }
+    @Override public boolean onExceptionalCompletion(Throwable ex, CountedCompleter caller) {
+      if( _out != null ) _out.delete(_job._key,new Futures()).blockForPending();
+      _job.failed(ex);
+      return true;
+    }
+  }
+
+  /** Find, for every chunk file, the lowest numbered node which can see it. */
+  private static class FindTask extends MRTask<FindTask> {
+    final String _path;
+    final int _nchunks;
+    int[] _owners;
+    FindTask( String path, int nchunks ) { _path = path; _nchunks = nchunks; }
+    @Override public void setupLocal() {
+      _owners = new int[_nchunks];
+      Arrays.fill(_owners,Integer.MAX_VALUE);
+      if( H2O.SELF._heartbeat._client ) return; // Clients are not in the cloud, and do not load
+      PersistManager pm = H2O.getPM();
+      for( int cidx=0; cidx<_nchunks; cidx++ )
+        if( pm.exists(_path+"/"+chunkName(cidx)) )
+          _owners[cidx] = H2O.SELF.index();
+    }
+    @Override public void reduce( FindTask ft ) {
+      for( int i=0; i<_owners.length; i++ )
+        _owners[i] = Math.min(_owners[i],ft._owners[i]);
+    }
+  }
+
+  /** Read the chunk files this node owns, putting every column's bytes back
+   *  as chunk Values, homed wherever the new Vec keys say. */
+  private static class LoadTask extends MRTask<LoadTask> {
+    final Key _jobKey;
+    final String _path;
+    final Key[] _keys;
+    final int[] _owners;
+    LoadTask( Key jobKey, String path, Key[] keys, int[] owners ) { _jobKey = jobKey; _path = path; _keys = keys; _owners = owners; }
+    @Override public void setupLocal() {
+      Futures fs = new Futures();
+      for( int cidx=0; cidx<_owners.length; cidx++ ) {
+        if( _owners[cidx] != H2O.SELF.index() ) continue;
+        String path = _path+"/"+chunkName(cidx);
+        AutoBuffer ab = new AutoBuffer(readAll(path));
+        if( ab.get4() != _keys.length )
+          throw new IllegalArgumentException("Column count mismatch in "+path);
+        for( Key vkey : _keys ) {
+          String cls = ab.getStr();
+          byte[] mem = ab.getA1();
+          Key ckey = Vec.chunkKey(vkey,cidx);
+          DKV.put(ckey,new Value(ckey,mem.length,mem,(short)TypeMap.onIce(cls),Value.ICE),fs);
+        }
+        Job.update(1,_jobKey);  // Record chunks read
+      }
+      fs.blockForPending();
+    }
+  }
+
+  private static byte[] readAll( String path ) {
+    PersistManager pm = H2O.getPM();
+    byte[] bs = MemoryManager.malloc1((int)pm.length(path));
+    InputStream is = pm.open(path);
+    try {
+      new DataInputStream(is).readFully(bs);
+    } catch( IOException e ) {
+      throw new RuntimeException(e);
+    } finally {
+      FileUtils.close(is);
+    }
+    return bs;
+  }
+
+  private static void writeAll( String path, byte[] bs, boolean force ) {
+    OutputStream os = H2O.getPM().create(path,force);
+    try {
+      os.write(bs);
+    } catch( IOException e ) {
+      throw new RuntimeException(e);
+    } finally {
+      FileUtils.close(os);
+    }
+  }
+}
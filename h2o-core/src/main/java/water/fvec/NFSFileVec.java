@@ -37,9 +37,16 @@ public class NFSFileVec extends FileVec {
     Key k = Vec.newKey(PersistNFS.decodeFile(f));
     // Insert the top-level FileVec key into the store
     NFSFileVec nfs = new NFSFileVec(k,size);
+    PersistNFS.unmap(k,fs);     // The file may have changed since last mapped
     DKV.put(k,nfs,fs);
     return nfs;
   }
 
   private NFSFileVec(Key key, long len) {super(key,len,Value.NFS);}
+
+  /** Also drop the memory-mappings of the file, on every node. */
+  @Override public Futures remove_impl( Futures fs ) {
+    PersistNFS.unmap(_key,fs);
+    return super.remove_impl(fs);
+  }
 }
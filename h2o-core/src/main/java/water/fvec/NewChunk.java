@@ -121,10 +121,9 @@ public class NewChunk extends Chunk {
     int j = 0, l = _len;
     for( int i = 0; i < l; ++i ) {
       if( _id != null && _id.length > 0 && (j < _id.length && _id[j] == i ) ) // Sparse storage
-        // adjust for enum ids using 1-based indexing
-        strChunk.addStr(emap[(int) _ls[j++] - 1]);
+        strChunk.addStr(emap[(int) _ls[j++]]);
       else if (_xs[i] != Integer.MIN_VALUE) // Categorical value isn't NA
-        strChunk.addStr(emap[(int) _ls[i] - 1]);
+        strChunk.addStr(emap[(int) _ls[i]]);
       else
         strChunk.addNA();
     }
@@ -207,7 +206,7 @@ public class NewChunk extends Chunk {
             if( isNA2(i) ) nas++;
             else {
               if( isEnum2(i)   ) es++;
-              if( _ls[i] != 0 ) nzs++;
+              if( _ls[i] != 0 || isEnum2(i) ) nzs++; // Enum 0 is a level, not a sparse zero
             }
         if( _is != null )  // Strings
           for( int i=0; i< sparseLen(); i++ )
@@ -416,7 +415,7 @@ public class NewChunk extends Chunk {
 
   // Fast-path append long data
   void append2( long l, int x ) {
-    if(_id == null || l != 0){
+    if(_id == null || l != 0 || x == Integer.MIN_VALUE+1){
       if(_ls == null || sparseLen() == _ls.length) {
         append2slow();
         // again call append2 since calling append2slow might have changed things (eg might have switched to sparse and l could be 0)
@@ -592,7 +591,7 @@ public class NewChunk extends Chunk {
         long [] ls = MemoryManager.malloc8(nzeros);
         int [] xs = MemoryManager.malloc4(nzeros);
         for(int i = 0; i < sparseLen(); ++i){
-          if(_ls[i] != 0){
+          if(_ls[i] != 0 || isEnum2(i)){
             ls[j] = _ls[i];
             xs[j] = _xs[i];
             id[j] = _id[i];
@@ -705,8 +704,10 @@ public class NewChunk extends Chunk {
     byte mode = type();
     if( mode==AppendableVec.NA ) // ALL NAs, nothing to do
       return new C0DChunk(Double.NaN, sparseLen());
-    if( mode==AppendableVec.STRING )
-      return new CStrChunk(_sslen, _ss, sparseLen(), _len, _is);
+    if( mode==AppendableVec.STRING ) {
+      Chunk dict = chunkStrDict();
+      return dict != null ? dict : new CStrChunk(_sslen, _ss, sparseLen(), _len, _is);
+    }
     boolean rerun=false;
     if(mode == AppendableVec.ENUM){
       for( int i=0; i< sparseLen(); i++ )
@@ -840,6 +841,21 @@ public class NewChunk extends Chunk {
       if( (lemin/pow10lo) != llo ) overflow = true;
     }
 
+    // Long runs of integers?  Run-length encode, if that is at most half the
+    // size of the fixed-width encoding picked below.
+    if( !sparse && !overflow && xmin == 0 ) {
+      Chunk rle = chunkRLE(lemin,lemax,max == 1 && min == 0);
+      if( rle != null ) return rle;
+    }
+
+    // Wide integers with close neighbours, like timestamps and ids?  Store
+    // each block of rows as offsets from its smallest value, if that saves a
+    // quarter of the 4 or 8 byte encoding picked below.
+    if( !sparse && !overflow && xmin == 0 && leRange(lemin,lemax) >= 65535 ) {
+      Chunk cfor = chunkFOR(lemin,lemax);
+      if( cfor != null ) return cfor;
+    }
+
     // Boolean column?
     if (max == 1 && min == 0 && xmin == 0 && !overflow) {
       if(sparse) { // Very sparse?
@@ -892,6 +908,12 @@ public class NewChunk extends Chunk {
       return chunkD();
     } // else an integer column
 
+    // Bit-pack when the range needs well fewer bits than the bytes below
+    if( xmin == 0 ) {
+      Chunk cbp = chunkBP(lemin,lemax,leRange);
+      if( cbp != null ) return cbp;
+    }
+
     // Compress column into a byte
     if(xmin == 0 &&  0<=lemin && lemax <= 255 && ((_naCnt + _enumCnt)==0) )
       return new C1NChunk( bufX(0,0,C1NChunk._OFF,0));
@@ -917,6 +939,116 @@ public class NewChunk extends Chunk {
 
   private static long [] NAS = {C1Chunk._NA,C2Chunk._NA,C4Chunk._NA,C8Chunk._NA};
 
+  // Run-length encode a dense integer chunk, or null if it does not pay.
+  private Chunk chunkRLE( long lemin, long lemax, boolean bool ) {
+    final int len = _len;
+    final long range = leRange(lemin,lemax);
+    final int valsz = range < 255 ? 1 : range < 65535 ? 2 : range < 4294967295L ? 4 : 8;
+    final int ridsz = len < 65536 ? 2 : 4;
+    // Size of the fixed-width encoding: bit-vector, or bytes/shorts/ints/longs
+    final long fixed = bool ? ((long)len*(_naCnt+_enumCnt > 0 ? 2 : 1)+7)>>3 : (long)len*valsz;
+    final long maxRuns = (fixed/2 - CRLEChunk._OFF)/(ridsz+valsz);
+    if( maxRuns < 1 ) return null;
+    // Count runs of equal mantissa & exponent (an upper bound on runs of
+    // equal values), giving up as soon as there are too many
+    int nruns = len > 0 ? 1 : 0;
+    for( int i=1; i<len; i++ )
+      if( _ls[i] != _ls[i-1] || _xs[i] != _xs[i-1] )
+        if( ++nruns > maxRuns ) return null;
+    boolean[] nas = new boolean[len];
+    long[] ls = longs(nas);
+    final long bias = valsz == 1 ? lemin-(Byte.MIN_VALUE+1) : valsz == 2 ? lemin-(Short.MIN_VALUE+1)
+      : valsz == 4 ? lemin-(Integer.MIN_VALUE+1) : 0;
+    return new CRLEChunk(CRLEChunk.encode(ls,nas,len,valsz,bias));
+  }
+
+  // Frame-of-reference encode a dense integer chunk, or null if it does not pay.
+  private Chunk chunkFOR( long lemin, long lemax ) {
+    long fixed = (long)_len*(Integer.MIN_VALUE < lemin && lemax <= Integer.MAX_VALUE ? 4 : 8)*3/4;
+    // Bit-packing the whole chunk decodes as fast, so must be beaten outright
+    final int bits = bitsBP(lemin,lemax,leRange(lemin,lemax));
+    if( bits > 0 )
+      fixed = Math.min(fixed,CBPChunk._OFF+(((long)_len*bits+7)>>3)+8);
+    boolean[] nas = new boolean[_len];
+    long[] ls = longs(nas);
+    long sz = CFORChunk.size(ls,nas,_len);
+    return sz < 0 || sz >= fixed ? null : new CFORChunk(CFORChunk.encode(ls,nas,_len));
+  }
+
+  // Bit-pack a dense integer chunk, or null if it does not pay
+  private Chunk chunkBP( long lemin, long lemax, long leRange ) {
+    final int bits = bitsBP(lemin,lemax,leRange);
+    if( bits < 0 ) return null;
+    boolean[] nas = new boolean[_len];
+    long[] ls = longs(nas);
+    return new CBPChunk(CBPChunk.encode(ls,nas,_len,lemin,bits,_naCnt+_enumCnt > 0));
+  }
+
+  // Bits a row if bit-packing saves at least an eighth of the byte-aligned
+  // encoding, else -1
+  private int bitsBP( long lemin, long lemax, long leRange ) {
+    if( _len < CBPChunk.MIN_LEN ) return -1;
+    final boolean hasNA = _naCnt+_enumCnt > 0;
+    final int bits = CBPChunk.bits(lemin,lemax,hasNA);
+    final int aligned = (!hasNA && 0 <= lemin && lemax <= 255) || leRange < 255 ? 8 : leRange < 65535 ? 16
+      : Integer.MIN_VALUE < lemin && lemax <= Integer.MAX_VALUE ? 32 : 64;
+    return bits < CBPChunk.MIN_BITS || bits > CBPChunk.MAX_BITS || bits > aligned-aligned/8 ? -1 : bits;
+  }
+
+  // Dictionary encode a string chunk, or null if under half the rows repeat
+  // or it would not be smaller
+  private Chunk chunkStrDict() {
+    if( _id != null ) return null;
+    final int len = _len, maxDict = len>>1;
+    int cap = 16;
+    while( cap < len ) cap <<= 1;
+    int[] table = MemoryManager.malloc4(cap<<1); // Open addressing, dictionary id+1
+    final int mask = (cap<<1)-1;
+    int[] ids = MemoryManager.malloc4(len);
+    int[] dstart = MemoryManager.malloc4(Math.min(maxDict,1024)), dlen = MemoryManager.malloc4(dstart.length);
+    int ndict = 0, dbytes = 0;
+    for( int i=0; i<len; i++ ) {
+      int off = i < sparseLen() ? _is[i] : CStrChunk.NA;
+      if( off == CStrChunk.NA ) { ids[i] = -1; continue; }
+      int l = 0, h = 0;
+      for( ; _ss[off+l] != 0; l++ ) h = 31*h + _ss[off+l];
+      int slot = (h ^ (h>>>16)) & mask, d;
+      while( (d = table[slot]-1) != -1 && !(dlen[d] == l && sameBytes(dstart[d],off,l)) )
+        slot = (slot+1) & mask;
+      if( d == -1 ) {           // New string
+        if( ndict == maxDict ) return null;
+        if( ndict == dstart.length ) {
+          dstart = MemoryManager.arrayCopyOf(dstart,Math.min(ndict<<1,maxDict));
+          dlen   = MemoryManager.arrayCopyOf(dlen  ,dstart.length);
+        }
+        d = ndict++;
+        dstart[d] = off;  dlen[d] = l;  dbytes += l;
+        table[slot] = d+1;
+      }
+      ids[i] = d;
+    }
+    long sz = CStrDictChunk._OFF+((long)(ndict+1)<<2)+(long)len*CStrDictChunk.idxsz(ndict)+dbytes;
+    if( sz >= CStrChunk._OFF+((long)len<<2)+_sslen ) return null;
+    return new CStrDictChunk(CStrDictChunk.encode(ids,len,_ss,dstart,dlen,ndict,dbytes));
+  }
+  private boolean sameBytes( int off0, int off1, int l ) {
+    for( int i=0; i<l; i++ )
+      if( _ss[off0+i] != _ss[off1+i] ) return false;
+    return true;
+  }
+
+  // Dense integer rows as plain longs, flagging NAs in nas
+  private long[] longs( boolean[] nas ) {
+    long[] ls = MemoryManager.malloc8(_len);
+    for( int i=0; i<_len; i++ ) {
+      if( isNA2(i) ) { nas[i] = true; continue; }
+      int x = _xs[i];
+      if( x==Integer.MIN_VALUE+1 ) x=0; // Enum flag, no scaling
+      ls[i] = x >= 0 ? _ls[i]*PrettyPrint.pow10i(x) : _ls[i]/PrettyPrint.pow10i(-x);
+    }
+    return ls;
+  }
+
   // Compute a sparse integer buffer
   private byte[] bufS(final int valsz){
     int log = 0;
@@ -10,6 +10,8 @@ import water.H2O.H2OCountedCompleter;
 import water.parser.Categorical;
 import water.parser.ValueString;
 import water.util.ArrayUtils;
+import water.util.HyperLogLog;
+import water.util.QuantileSketch;
 
 import java.util.Arrays;
 
@@ -17,7 +19,10 @@ import java.util.Arrays;
  *  away if the Vec is written into, and then recomputed lazily.  Error to ask
  *  for them if the Vec is actively being written into.  It is common for all
  *  cores to ask for the same Vec rollup at once, so it is crucial that it be
- *  computed once across the cluster.
+ *  computed once across the cluster.  Each chunk caches its own rollups, so
+ *  the recompute after a write only rescans the written chunks.  The cache
+ *  holds only the small fixed-size fields; the distinct-count and quantile
+ *  sketches are built per Vec, on demand, in the same pass as the histogram.
  *
  *  Rollups are kept in the K/V store, which also controls who manages the
  *  rollup work and final results.  Winner of a DKV CAS/PutIfMatch race gets to
@@ -39,12 +44,23 @@ class RollupStats extends Iced {
   long _rows, _nzCnt, _size, _pinfs, _ninfs;
   boolean _isInt=true;
   double[] _mins, _maxs;
-
-  // Expensive histogram & percentiles
+  // Per-chunk min, max (NaN if no values; infinities count) and NA count,
+  // by chunk index: zone maps for skipping chunks in selections
+  double[] _chkMins, _chkMaxs;
+  int[] _chkNAs;
+  // Zone maps of the chunks seen so far, in no order; gathered by Roll
+  private int[] _zcidx;
+  private double[] _zmins, _zmaxs;
+  private int[] _znas;
+  // Expensive histogram and sketches
   // Computed in a 2nd pass, on-demand, by calling computeHisto
   private static final int MAX_SIZE = 1024; // Standard bin count; enums can have more bins
   volatile long[] _bins;
-  // Approximate data value closest to the Xth percentile
+  // Mergeable sketch of the finite values, for approximate quantiles
+  QuantileSketch _sketch;
+  // Mergeable sketch of the count of distinct values
+  HyperLogLog _hll;
+  // Approximate data value at the Xth percentile, from the sketch
   double[] _pctiles;
 
   public boolean hasStats(){return _naCnt >= 0;}
@@ -103,9 +119,11 @@ class RollupStats extends Iced {
       int zs = c._len-c.sparseLen(); // Easy zeros
       int nans = 0;
       // Hard-count sparse-but-zero (weird case of setting a zero over a non-zero)
-      for( int i=c.nextNZ(-1); i< c._len; i=c.nextNZ(i) )
-        if( c.isNA(i) ) nans++;
-        else if( c.at8(i)==0 ) zs++;
+      final double[] vals = MemoryManager.malloc8d(c.sparseLen());
+      final int nnz = c.getSparseDoubles(vals, MemoryManager.malloc4(vals.length));
+      for( int k=0; k<nnz; k++ )
+        if( Double.isNaN(vals[k]) ) nans++;
+        else if( vals[k]==0 ) zs++;
       int os = c._len-zs-nans;  // Ones
       _nzCnt = os;
       _naCnt = nans;
@@ -119,6 +137,9 @@ class RollupStats extends Iced {
 
 
     // Walk the non-zeros
+    double[] vals = null;
+    int[] ids = null;
+    int nnz = 0;
     if( isUUID ) {   // UUID columns do not compute min/max/mean/sigma
       for( int i=c.nextNZ(-1); i< c._len; i=c.nextNZ(i) ) {
         if( c.isNA(i) ) _naCnt++;
@@ -143,11 +164,19 @@ class RollupStats extends Iced {
       }
 
     } else {                    // Numeric
-      for( int i=c.nextNZ(-1); i< c._len; i=c.nextNZ(i) ) {
-        double d = c.atd(i);
+      // One pass over the stored rows; values and row numbers are kept for
+      // the sigma pass below
+      vals = MemoryManager.malloc8d(c.sparseLen());
+      ids  = MemoryManager.malloc4 (c.sparseLen());
+      nnz  = c.getSparseDoubles(vals,ids);
+      final boolean isFloat = c.hasFloat();
+      for( int k=0; k<nnz; k++ ) {
+        final int i = ids[k];
+        double d = vals[k];
         if( Double.isNaN(d) ) _naCnt++;
         else {                  // All other columns have useful rollups
-          l = c.hasFloat()?Double.doubleToRawLongBits(d):c.at8(i);
+          // Integer chunks: a double holds the exact long up to 2^53
+          l = isFloat?Double.doubleToRawLongBits(d):(Math.abs(d) < 0x1p53 ? (long)d : c.at8(i));
           if( d == Double.POSITIVE_INFINITY ) _pinfs++;
           else if( d == Double.NEGATIVE_INFINITY ) _ninfs++;
           else {
@@ -161,7 +190,6 @@ class RollupStats extends Iced {
         if(l != 0) // ignore 0s in checksum to be consistent with sparse chunks
           checksum ^= (17 * (start+i)) ^ 23*l;
       }
-
     }
     _checksum = checksum;
 
@@ -183,8 +211,8 @@ class RollupStats extends Iced {
       int zeros = c._len - c.sparseLen();
       double sigma = mean*mean*zeros;
       // Handle all non-zero rows
-      for( int i=c.nextNZ(-1); i< c._len; i=c.nextNZ(i) ) {
-        double d = c.atd(i);
+      for( int k=0; k<nnz; k++ ) {
+        double d = vals[k];
         if( !Double.isNaN(d) ) {
           d -= mean;
           sigma += d*d;
@@ -195,6 +223,28 @@ class RollupStats extends Iced {
     return this;
   }
 
+  // Record this chunk's zone map, from its rollups
+  private RollupStats zone( Chunk c ) {
+    boolean vals = _rows > 0 && !Double.isNaN(_mins[0]);
+    _zcidx = new int[]{c.cidx()};
+    _zmins = new double[]{_ninfs > 0 ? Double.NEGATIVE_INFINITY : vals ? _mins[0] : _pinfs > 0 ? Double.POSITIVE_INFINITY : Double.NaN};
+    _zmaxs = new double[]{_pinfs > 0 ? Double.POSITIVE_INFINITY : vals ? _maxs[0] : _ninfs > 0 ? Double.NEGATIVE_INFINITY : Double.NaN};
+    _znas  = new int[]{(int)_naCnt};
+    return this;
+  }
+  // Scatter the gathered zone maps by chunk index
+  private void zones( int nchunks ) {
+    _chkMins = new double[nchunks];  Arrays.fill(_chkMins,Double.NaN);
+    _chkMaxs = new double[nchunks];  Arrays.fill(_chkMaxs,Double.NaN);
+    _chkNAs  = new int[nchunks];
+    for( int i=0; _zcidx != null && i<_zcidx.length; i++ ) {
+      _chkMins[_zcidx[i]] = _zmins[i];
+      _chkMaxs[_zcidx[i]] = _zmaxs[i];
+      _chkNAs [_zcidx[i]] = _znas [i];
+    }
+    _zcidx = null;  _zmins = _zmaxs = null;  _znas = null;
+  }
+
   private void reduce( RollupStats rs ) {
     for( double d : rs._mins ) min(d);
     for( double d : rs._maxs ) max(d);
@@ -212,6 +262,15 @@ class RollupStats extends Iced {
     _size += rs._size;
     _isInt &= rs._isInt;
     _checksum ^= rs._checksum;
+    if( rs._zcidx != null ) {
+      if( _zcidx == null ) { _zcidx = rs._zcidx;  _zmins = rs._zmins;  _zmaxs = rs._zmaxs;  _znas = rs._znas; }
+      else {
+        _zcidx = ArrayUtils.append(_zcidx,rs._zcidx);
+        _zmins = ArrayUtils.append(_zmins,rs._zmins);
+        _zmaxs = ArrayUtils.append(_zmaxs,rs._zmaxs);
+        _znas  = ArrayUtils.append(_znas ,rs._znas );
+      }
+    }
   }
 
   private void min( double d ) {
@@ -227,13 +286,32 @@ class RollupStats extends Iced {
         { double tmp = _maxs[i];  _maxs[i] = d;  d = tmp; }
   }
 
+  // Rollups of one chunk, cached on the chunk object.  Writes replace the
+  // chunk in the DKV, so after a few writes only the written chunks are
+  // rescanned, and the Vec's rollups are a merge of the cached ones.  Each
+  // caller gets its own copy, since reduce merges into it.  No sketches, so
+  // the cache is a couple hundred bytes a chunk.
+  static RollupStats chunkRollups( Chunk c ) {
+    byte[] bs = c._rollups;
+    if( bs == null ) {
+      RollupStats rs = new RollupStats(0).map(c).zone(c);
+      c._rollups = new AutoBuffer().put(rs).buf();
+      return rs;
+    }
+    return new AutoBuffer(bs).get();
+  }
+
   private static class Roll extends MRTask<Roll> {
     final Key _rskey;
     RollupStats _rs;
     Roll( H2OCountedCompleter cmp, Key rskey ) { super(cmp); _rskey=rskey; }
-    @Override public void map( Chunk c ) { _rs = new RollupStats(0).map(c); }
+    @Override public void map( Chunk c ) { _rs = chunkRollups(c); }
     @Override public void reduce( Roll roll ) { _rs.reduce(roll._rs); }
-    @Override public void postGlobal() { if( _rs == null ) _rs = new RollupStats(0); else _rs._sigma = Math.sqrt(_rs._sigma/(_rs._rows-1)); }
+    @Override public void postGlobal() {
+      if( _rs == null ) _rs = new RollupStats(0);
+      else _rs._sigma = Math.sqrt(_rs._sigma/(_rs._rows-1));
+      _rs.zones(_fr.anyVec().nChunks());
+    }
     // Just toooo common to report always.  Drowning in multi-megabyte log file writes.
     @Override public boolean logVerbose() { return false; }
   }
@@ -301,25 +379,63 @@ class RollupStats extends Iced {
   double h_stride() { return h_stride(_bins.length); }
   private double h_stride(int nbins) { return (_maxs[0]-_mins[0]+(_isInt?1:0))/nbins; }
 
-  // Compute expensive histogram
+  // Compute expensive histogram, and the sketches of the values
   private static class Histo extends MRTask<Histo> {
     final double _base, _stride; // Inputs
-    final int _nbins;            // Inputs
+    final int _nbins;            // Inputs; no bins for non-numbers
     long[] _bins;                // Outputs
-    Histo( H2OCountedCompleter cmp, RollupStats rs, int nbins ) { super(cmp);_base = rs.h_base(); _stride = rs.h_stride(nbins); _nbins = nbins; }
+    QuantileSketch _sketch;      // Outputs; null for non-numbers
+    HyperLogLog _hll;            // Outputs
+    Histo( H2OCountedCompleter cmp, RollupStats rs, int nbins ) {
+      super(cmp);
+      _base = nbins == 0 ? 0 : rs.h_base();
+      _stride = nbins == 0 ? 0 : rs.h_stride(nbins);
+      _nbins = nbins;
+    }
     @Override public void map( Chunk c ) {
       _bins = new long[_nbins];
-      for( int i=c.nextNZ(-1); i< c._len; i=c.nextNZ(i) ) {
-        double d = c.atd(i);
-        if( !Double.isNaN(d) ) _bins[idx(d)]++;
+      _hll = new HyperLogLog();
+      if( c._vec.isUUID() ) {
+        for( int i=c.nextNZ(-1); i<c._len; i=c.nextNZ(i) )
+          if( !c.isNA(i) ) _hll.add(HyperLogLog.hash(c.at16l(i),c.at16h(i)));
+        return;
       }
+      if( c._vec.isString() ) {
+        ValueString vs = new ValueString();
+        for( int i=c.nextNZ(-1); i<c._len; i=c.nextNZ(i) )
+          if( !c.isNA(i) ) {
+            c.atStr(vs,i);
+            _hll.add(HyperLogLog.hash(vs.get_buf(),vs.get_off(),vs.get_length()));
+          }
+        return;
+      }
+      final double[] vals = MemoryManager.malloc8d(c.sparseLen());
+      final int nnz = c.getSparseDoubles(vals, MemoryManager.malloc4(vals.length));
+      for( int k=0; k<nnz; k++ ) {
+        double d = vals[k];
+        if( !Double.isNaN(d) ) {
+          if( _nbins > 0 ) _bins[idx(d)]++;
+          _hll.add(HyperLogLog.hash(d));
+        }
+      }
+      _sketch = new QuantileSketch().add(vals,nnz);
       // Sparse?  We skipped all the zeros; do them now
-      if( c.isSparse() )
-        _bins[idx(0.0)] += (c._len - c.sparseLen());
+      int zeros = c._len - c.sparseLen();
+      if( zeros > 0 ) {
+        if( _nbins > 0 ) _bins[idx(0.0)] += zeros;
+        _sketch.add(0,zeros);
+        _hll.add(HyperLogLog.hash(0));
+      }
     }
     private int idx( double d ) { int idx = (int)((d-_base)/_stride); return Math.min(idx,_bins.length-1); }
 
-    @Override public void reduce( Histo h ) { ArrayUtils.add(_bins,h._bins); }
+    @Override public void reduce( Histo h ) {
+      ArrayUtils.add(_bins,h._bins);
+      if( _hll == null ) _hll = h._hll;
+      else if( h._hll != null ) _hll.add(h._hll);
+      if( _sketch == null ) _sketch = h._sketch;
+      else if( h._sketch != null ) _sketch.add(h._sketch);
+    }
     // Just toooo common to report always.  Drowning in multi-megabyte log file writes.
     @Override public boolean logVerbose() { return false; }
   }
@@ -419,58 +535,32 @@ class RollupStats extends Iced {
     }
 
     final void computeHisto(final RollupStats rs, Vec vec, final Value nnn){
-      // All NAs or non-math; histogram has zero bins
-      if( rs._naCnt == vec.length() || vec.isUUID() ) {
-        rs._bins = new long[0];
-        installResponse(nnn,rs);
-        return;
-      }
-      // Constant: use a single bin
-      double span = rs._maxs[0]-rs._mins[0];
       final long rows = vec.length()-rs._naCnt;
-      assert rows > 0:"rows = " + rows + ", vec.len() = " + vec.length() + ", naCnt = " + rs._naCnt;
-      if( span==0 ) {
-        rs._bins = new long[]{rows};
-        installResponse(nnn,rs);
-        return;
-      }
-      // Number of bins: MAX_SIZE by default.  For integers, bins for each unique int
-      // - unless the count gets too high; allow a very high count for enums.
-      int nbins=MAX_SIZE;
-      if( rs._isInt && (int)span==span ) {
-        nbins = (int)span+1;      // 1 bin per int
-        int lim = vec.isEnum() ? Categorical.MAX_ENUM_SIZE : MAX_SIZE;
-        nbins = Math.min(lim,nbins); // Cap nbins at sane levels
+      double span = rs._maxs[0]-rs._mins[0];
+      int nbins;
+      // All NAs or non-math; histogram has zero bins, but the pass still
+      // sketches the distinct values
+      if( rows == 0 || vec.isUUID() || vec.isString() ) nbins = 0;
+      // Constant: use a single bin
+      else if( span==0 ) nbins = 1;
+      else {
+        // Number of bins: MAX_SIZE by default.  For integers, bins for each unique int
+        // - unless the count gets too high; allow a very high count for enums.
+        nbins=MAX_SIZE;
+        if( rs._isInt && (int)span==span ) {
+          nbins = (int)span+1;      // 1 bin per int
+          int lim = vec.isEnum() ? Categorical.MAX_ENUM_SIZE : MAX_SIZE;
+          nbins = Math.min(lim,nbins); // Cap nbins at sane levels
+        }
       }
       addToPendingCount(1);
       new Histo(new H2OCallback<Histo>(this){
         @Override public void callback(Histo histo) {
-          assert ArrayUtils.sum(histo._bins) == rows;
-          rs._bins = histo._bins;
-          // Compute percentiles from histogram
-          rs._pctiles = new double[Vec.PERCENTILES.length];
-          int j = 0;                    // Histogram bin number
-          long hsum = 0;                // Rolling histogram sum
-          double base = rs.h_base();
-          double stride = rs.h_stride();
-          long oldPint = 0;
-          double oldVal = rs._mins[0];
-          for (int i = 0; i < Vec.PERCENTILES.length; i++) {
-            final double P = Vec.PERCENTILES[i];
-            long pint = (long) ((P * rows)+0.5);
-            if (pint == oldPint) { // can happen if rows < 100
-              rs._pctiles[i] = oldVal;
-              continue;
-            }
-            oldPint = pint;
-            while (hsum < pint) hsum += rs._bins[j++];
-            // j overshot by 1 bin; we added _bins[j-1] and this goes from too low to too big
-            rs._pctiles[i] = base + stride * (j - 1);
-            // linear interpolate stride, based on fraction of bin
-            if( stride != 1.0 || !rs._isInt )
-              rs._pctiles[i] += stride * ((double) (pint - (hsum - rs._bins[j - 1])) / rs._bins[j - 1]);
-            oldVal = rs._pctiles[i];
-          }
+          assert histo._bins == null || histo._bins.length == 0 || ArrayUtils.sum(histo._bins) == rows;
+          rs._bins = histo._bins == null ? new long[0] : histo._bins;
+          rs._hll = histo._hll == null ? new HyperLogLog() : histo._hll;
+          rs._sketch = histo._sketch;
+          if( rs._sketch != null ) rs._pctiles = rs._sketch.quantiles(Vec.PERCENTILES);
           installResponse(nnn,rs);
         }
       },rs,nbins).dfork(vec); // intentionally using dfork here to increase priority level
@@ -498,6 +498,12 @@ public class Vec extends Keyed<Vec> {
   /** Count of non-zero elements
    *  @return Count of non-zero elements */
   public long  nzCnt() { return rollupStats()._nzCnt; }
+  /** Estimated count of distinct values, not counting missing ones: within
+   *  a few percent, from a HyperLogLog sketch built with the histogram, for
+   *  numeric, UUID and String Vecs alike.  Computed on first use and cached
+   *  thereafter.
+   *  @return Estimated count of distinct values */
+  public long distinctCnt() { HyperLogLog hll = RollupStats.get(this,true)._hll; return hll == null ? 0 : hll.estimate(); }
   /** Count of positive infinities
    *  @return Count of positive infinities */
   public long  pinfs() { return rollupStats()._pinfs; }
@@ -513,6 +519,19 @@ public class Vec extends Keyed<Vec> {
   /** Size of compressed vector data. */
   public long byteSize(){return rollupStats()._size; }
 
+  /** Per-chunk minimums ("zone maps"), counting infinities, or NaN for a
+   *  chunk without values; null unless the rollups are already computed.
+   *  Selections use these to skip whole chunks which cannot match, without
+   *  decoding them.
+   *  @return Per-chunk minimums, or null */
+  public double[] chunkMins() { RollupStats rs = RollupStats.getOrNull(this); return rs == null ? null : rs._chkMins; }
+  /** Per-chunk maximums, as {@link #chunkMins}
+   *  @return Per-chunk maximums, or null */
+  public double[] chunkMaxs() { RollupStats rs = RollupStats.getOrNull(this); return rs == null ? null : rs._chkMaxs; }
+  /** Per-chunk counts of missing elements, as {@link #chunkMins}
+   *  @return Per-chunk NA counts, or null */
+  public int[] chunkNAs() { RollupStats rs = RollupStats.getOrNull(this); return rs == null ? null : rs._chkNAs; }
+
   /** Default Histogram bins. */
   public static final double PERCENTILES[] = {0.001,0.01,0.1,0.25,1.0/3.0,0.50,2.0/3.0,0.75,0.9,0.99,0.999};
   /** A simple and cheap histogram of the Vec, useful for getting a broad
@@ -537,8 +556,19 @@ public class Vec extends Keyed<Vec> {
 
   /** A simple and cheap percentiles of the Vec, useful for getting a broad
    *  overview of the data.  The specific percentiles are take from {@link #PERCENTILES}. 
+   *  Computed with the histogram, from its quantile sketch.
    *  @return A set of percentiles */
-  public double[] pctiles() { return RollupStats.get(this, true)._pctiles;   }
+  public double[] pctiles() { return RollupStats.get(this,true)._pctiles;   }
+  /** Approximate value at any quantile, from the quantile sketch built with
+   *  the histogram: no further pass over the data once it is computed.  Rank
+   *  error is small, and relative near the extremes; NaN for an all-missing,
+   *  UUID or String Vec.
+   *  @param prob quantile in [0,1]
+   *  @return Approximate value at quantile prob */
+  public double quantile( double prob ) {
+    QuantileSketch qs = RollupStats.get(this,true)._sketch;
+    return qs == null ? Double.NaN : qs.quantile(prob);
+  }
 
 
   /** Compute the roll-up stats as-needed */
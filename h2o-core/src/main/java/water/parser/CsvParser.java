@@ -14,7 +14,27 @@ class CsvParser extends Parser {
   private static final int GUESS_HEADER = ParseSetup.GUESS_HEADER;
   private static final int HAS_HEADER = ParseSetup.HAS_HEADER;
 
-  CsvParser( ParseSetup ps ) { super(ps); }
+  // Bytes which end the body of an unquoted or quoted string: line ends,
+  // the separator and quotes.  Runs of any other byte are consumed in bulk.
+  private final boolean[] _strEnd = new boolean[256];
+
+  CsvParser( ParseSetup ps ) {
+    super(ps);
+    for( byte b : new byte[]{CHAR_CR, CHAR_LF, CHAR_SEPARATOR, CHAR_DOUBLE_QUOTE, CHAR_SINGLE_QUOTE} )
+      _strEnd[b&0xFF] = true;
+  }
+
+  // End of the run of bytes from off which need no per-byte state change:
+  // within this buffer only, so chunk crossings stay with the main loop
+  private int strRunEnd( byte[] bits, int off ) {
+    final boolean[] strEnd = _strEnd;
+    while( off < bits.length && !strEnd[bits[off]&0xFF] ) off++;
+    return off;
+  }
+  private static int eolRunEnd( byte[] bits, int off ) {
+    while( off < bits.length && !isEOL(bits[off]) ) off++;
+    return off;
+  }
 
   // Parse this one Chunk (in parallel with other Chunks)
   @SuppressWarnings("fallthrough")
@@ -81,6 +101,7 @@ MAIN_LOOP:
           if (isEOL(c)) {
             state = EOL;
           } else {
+            offset = eolRunEnd(bits, offset+1)-1;
             break;
           }
           continue MAIN_LOOP;
@@ -97,7 +118,9 @@ MAIN_LOOP:
             break;
           }
           if (!isEOL(c) && ((quotes != 0) || (c != CHAR_SEPARATOR))) {
-            str.addChar();
+            int end = strRunEnd(bits, offset+1);
+            str.addChars(end-offset);
+            offset = end-1;
             break;
           }
           // fallthrough to STRING_END
@@ -231,7 +254,15 @@ MAIN_LOOP:
         case NUMBER:
           if ((c >= '0') && (c <= '9')) {
             if (number >= LARGEST_DIGIT_NUMBER)  state = NUMBER_SKIP;
-            else  number = (number*10)+(c-'0');
+            else {
+              number = (number*10)+(c-'0');
+              // The rest of the digit run, without going round the switch
+              int d;
+              while (offset+1 < bits.length && number < LARGEST_DIGIT_NUMBER && (d = bits[offset+1]-'0') >= 0 && d <= 9) {
+                number = (number*10)+d;
+                offset++;
+              }
+            }
             break;
           } else if (c == CHAR_DECIMAL_SEP) {
             state = NUMBER_FRACTION;
@@ -333,6 +364,11 @@ MAIN_LOOP:
               state = NUMBER_SKIP_NO_DOT;
             } else {
               number = (number*10)+(c-'0');
+              int d;
+              while (offset+1 < bits.length && number < LARGEST_DIGIT_NUMBER && (d = bits[offset+1]-'0') >= 0 && d <= 9) {
+                number = (number*10)+d;
+                offset++;
+              }
             }
             break;
           } else if ((c == 'e') || (c == 'E')) {
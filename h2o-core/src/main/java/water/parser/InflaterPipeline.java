@@ -0,0 +1,289 @@
+package water.parser;
+
+import jsr166y.ForkJoinPool;
+import water.H2O;
+import water.H2O.H2OCountedCompleter;
+import water.Job;
+import water.Key;
+import water.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/** Decompress ahead of the parser.
+ *
+ *  <p>A reader task pulls compressed bytes from the file's ByteVec stream
+ *  and hands decompressed blocks, in order, through a bounded queue to the
+ *  parser reading this stream, so inflating and parsing overlap.  The reader
+ *  runs in the F/J pool one priority above the parser, and both wait on the
+ *  queue as managed blockers, so neither starves the other of threads.  It
+ *  stops once this stream is closed or the parse job is no longer running.
+ *
+ *  <p>Block gzip files (BGZF, as written by {@code bgzip}: a series of gzip
+ *  members each recording its own compressed size) are also inflated in
+ *  parallel: the reader only splits the file at member boundaries, and
+ *  groups of members are inflated as F/J tasks.  Plain gzip files (one
+ *  member, or members without sizes) cannot be split without inflating, so
+ *  they are inflated by the reader task alone.
+ *
+ *  <p>Like the ByteVec stream, {@code read(null,0,0)} is a back-channel
+ *  returning the index of the compressed chunk the current block starts in,
+ *  which the parser uses to line up output chunks with input chunks.
+ */
+class InflaterPipeline extends InputStream {
+  private static final int BLOCK = 1<<20;        // Plain inflate output block size
+  private static final int GROUP = 256<<10;      // Compressed bytes per parallel inflate task
+
+  private final InputStream _bvs;                // Compressed ByteVec stream
+  private final Key<Job> _job;                   // Parse job, or null
+  private final ArrayBlockingQueue<Block> _q;
+  private volatile boolean _closed;
+  private volatile Throwable _err;               // Reader failure, rethrown to the parser
+  private Block _blk;                            // Block being read
+  private int _pos;
+  private int _cidx;                             // Compressed chunk index where _blk starts
+  private boolean _eof;
+
+  /** Gzip, inflated in parallel if the file is BGZF. */
+  static InflaterPipeline gzip( final InputStream bvs, boolean bgzf, Key<Job> job ) {
+    InflaterPipeline p = new InflaterPipeline(bvs,job);
+    H2O.submitTask(p.new Reader(null,bgzf));
+    return p;
+  }
+
+  /** Any decompressing stream over bvs, inflated by the reader task. */
+  static InflaterPipeline pipe( InputStream is, InputStream bvs, Key<Job> job ) {
+    InflaterPipeline p = new InflaterPipeline(bvs,job);
+    H2O.submitTask(p.new Reader(is,false));
+    return p;
+  }
+
+  private InflaterPipeline( InputStream bvs, Key<Job> job ) {
+    _bvs = bvs;
+    _job = job;
+    _q = new ArrayBlockingQueue<>(H2O.NUMCPUS+2);
+  }
+
+  private int cidx() {
+    try { return _bvs.read(null,0,0); }
+    catch( IOException ioe ) { throw new RuntimeException(ioe); }
+  }
+
+  /** Reads, and inflates or splits, the whole input ahead of the parser. */
+  private class Reader extends H2OCountedCompleter<Reader> {
+    final InputStream _is;      // Decompressing stream, or null for gzip
+    final boolean _bgzf;
+    final byte _priority;
+    Reader( InputStream is, boolean bgzf ) { _is = is; _bgzf = bgzf; _priority = nextThrPriority(); }
+    @Override public byte priority() { return _priority; }
+
+    @Override protected void compute2() {
+      try {
+        if( _bgzf ) readBGZF();
+        else readStream(_is == null ? new GZIPInputStream(_bvs,1<<16) : _is);
+      } catch( Throwable t ) {
+        _err = t;
+      } finally {
+        put(new Block(-1,null,0,false)); // End marker
+      }
+      tryComplete();
+    }
+  }
+
+  // True while the parser wants more; an error once the parse job has stopped
+  private boolean wanted() throws IOException {
+    if( _closed ) return false;
+    if( _job != null && !Job.isRunning(_job) ) throw new IOException("Parse job stopped");
+    return true;
+  }
+
+  // Offers a block, waking every 100ms to see if the parser gave up
+  private class Put implements ForkJoinPool.ManagedBlocker {
+    final Block _b;
+    boolean _put;
+    Put( Block b ) { _b = b; }
+    @Override public boolean isReleasable() { return _closed || (_put = _q.offer(_b)); }
+    @Override public boolean block() throws InterruptedException {
+      return _closed || (_put = _q.offer(_b,100,TimeUnit.MILLISECONDS));
+    }
+  }
+
+  // Takes the next block, as it becomes ready
+  private class Take implements ForkJoinPool.ManagedBlocker {
+    Block _b;
+    @Override public boolean isReleasable() { return _b != null || (_b = _q.poll()) != null; }
+    @Override public boolean block() throws InterruptedException {
+      if( _b == null ) _b = _q.take();
+      return true;
+    }
+  }
+
+  // Blocks until the parser takes it, or gives up
+  private boolean put( Block b ) {
+    Put p = new Put(b);
+    try { ForkJoinPool.managedBlock(p); }
+    catch( InterruptedException ignore ) { }
+    return p._put;
+  }
+
+  // Single-threaded inflate, handed over a block at a time
+  private void readStream( InputStream is ) throws IOException {
+    while( wanted() ) {
+      byte[] bits = new byte[BLOCK];
+      int off=0, len, cidx=0;
+      while( off < bits.length && (len = is.read(bits,off,bits.length-off)) != -1 ) {
+        if( off == 0 ) cidx = cidx();
+        off += len;
+      }
+      if( off == 0 ) return;
+      put(new Block(cidx,bits,off,false));
+      if( off < bits.length ) return;
+    }
+  }
+
+  // BGZF: split at member boundaries, inflate groups of members in parallel
+  private void readBGZF() throws IOException {
+    byte[] hdr = new byte[18];
+    while( wanted() ) {
+      byte[] zip = new byte[GROUP + (64<<10)];
+      int off=0, nmem=0, cidx=0;
+      while( off < GROUP ) {
+        int n = readFully(hdr,0,hdr.length);
+        if( n == 0 ) break;
+        if( nmem == 0 ) cidx = cidx();
+        int bsize = bgzfBlockSize(hdr,0,n);
+        if( bsize < 0 ) throw new IOException("Not a BGZF file: gzip member without a block size");
+        if( off+bsize > zip.length ) zip = Arrays.copyOf(zip,Math.max(off+bsize,zip.length*2));
+        System.arraycopy(hdr,0,zip,off,hdr.length);
+        if( readFully(zip,off+hdr.length,bsize-hdr.length) != bsize-hdr.length )
+          throw new IOException("Truncated BGZF member");
+        off += bsize;
+        nmem++;
+      }
+      if( nmem == 0 ) return;
+      Block b = new Block(cidx,zip,off,true);
+      H2O.submitTask(b);
+      if( !put(b) ) return;
+    }
+  }
+
+  private int readFully( byte[] bits, int off, int len ) throws IOException {
+    int n=0, r;
+    while( n < len && (r = _bvs.read(bits,off+n,len-n)) > 0 ) n += r;
+    return n;
+  }
+
+  /** Total size of the BGZF member starting at off, or -1 if these bytes do
+   *  not start a BGZF member. */
+  static int bgzfBlockSize( byte[] bits, int off, int len ) {
+    if( len < 18 ) return -1;
+    if( (bits[off]&0xFF) != 0x1f || (bits[off+1]&0xFF) != 0x8b || bits[off+2] != 8 ) return -1;
+    if( (bits[off+3]&4) == 0 ) return -1;           // FEXTRA
+    int xlen = (bits[off+10]&0xFF) | (bits[off+11]&0xFF)<<8;
+    if( xlen != 6 || bits[off+12] != 'B' || bits[off+13] != 'C' || bits[off+14] != 2 ) return -1;
+    return ((bits[off+16]&0xFF) | (bits[off+17]&0xFF)<<8) + 1;
+  }
+
+  /** A decompressed block; for BGZF also the task inflating it. */
+  private static class Block extends H2OCountedCompleter<Block> {
+    final int _cidx;
+    final boolean _inflate;     // Submitted to inflate whole BGZF members in _bits
+    byte[] _bits;               // Inflated bytes
+    int _len;
+    Block( int cidx, byte[] bits, int len, boolean inflate ) { _cidx = cidx; _bits = bits; _len = len; _inflate = inflate; }
+
+    @Override protected void compute2() {
+      byte[] zip = _bits;
+      int zlen = _len, size = 0;
+      for( int off=0; off < zlen; off += bgzfBlockSize(zip,off,zlen-off) )
+        size += isize(zip,off+bgzfBlockSize(zip,off,zlen-off));
+      byte[] bits = new byte[size];
+      Inflater inf = new Inflater(true);
+      try {
+        int pos=0;
+        for( int off=0; off < zlen; ) {
+          int bsize = bgzfBlockSize(zip,off,zlen-off);
+          int end = pos+isize(zip,off+bsize);
+          inf.reset();
+          inf.setInput(zip,off+18,bsize-18-8); // Past header, before CRC & ISIZE
+          while( pos < end ) {  // Empty members, like the BGZF end marker, are skipped
+            int n = inf.inflate(bits,pos,end-pos);
+            if( n == 0 && (inf.finished() || inf.needsInput() || inf.needsDictionary()) )
+              throw new DataFormatException("BGZF member shorter than its recorded size");
+            pos += n;
+          }
+          off += bsize;
+        }
+        _bits = bits;
+        _len = pos;
+      } catch( DataFormatException dfe ) {
+        throw new RuntimeException(dfe);
+      } finally {
+        inf.end();
+      }
+      tryComplete();
+    }
+
+    // Uncompressed size, from the end of a member
+    private static int isize( byte[] zip, int end ) {
+      return (zip[end-4]&0xFF) | (zip[end-3]&0xFF)<<8 | (zip[end-2]&0xFF)<<16 | (zip[end-1]&0xFF)<<24;
+    }
+  }
+
+  // Next block, waiting for the reader and the inflate task
+  private boolean next() throws IOException {
+    if( _eof ) return false;
+    try {
+      Take t = new Take();
+      ForkJoinPool.managedBlock(t);
+      Block b = t._b;
+      if( b._cidx == -1 ) {        // End marker
+        _eof = true;
+        if( _err != null ) throw _err instanceof IOException ? (IOException)_err : new IOException(_err);
+        return false;
+      }
+      if( b._inflate ) b.join();
+      _blk = b;  _pos = 0;  _cidx = b._cidx;
+      return true;
+    } catch( InterruptedException ie ) {
+      throw new IOException(ie);
+    } catch( RuntimeException re ) {
+      throw new IOException(re);
+    }
+  }
+
+  @Override public int available() throws IOException {
+    while( _blk == null || _pos == _blk._len )
+      if( !next() ) return 0;
+    return _blk._len - _pos;
+  }
+
+  @Override public int read() throws IOException {
+    return available() == 0 ? -1 : _blk._bits[_pos++]&0xFF;
+  }
+
+  @Override public int read( byte[] b, int off, int len ) throws IOException {
+    if( b == null ) {           // Back-channel read of cidx
+      if( _blk == null ) available(); // Of the first block, once there is one
+      return _cidx;
+    }
+    int sz = available();
+    if( sz == 0 ) return -1;
+    len = Math.min(len,sz);
+    System.arraycopy(_blk._bits,_pos,b,off,len);
+    _pos += len;
+    return len;
+  }
+
+  @Override public void close() throws IOException {
+    if( !_eof && !_closed ) Log.debug("Inflater pipeline closed before the end of the input");
+    _closed = true;
+    _q.clear();
+  }
+}
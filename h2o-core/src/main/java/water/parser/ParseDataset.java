@@ -178,8 +178,9 @@ public final class ParseDataset extends Job<Frame> {
     if( fkeys.length == 0) { job.cancel();  return;  }
 
     VectorGroup vg = getByteVec(fkeys[0]).group();
-    MultiFileParseTask mfpt = job._mfpt = new MultiFileParseTask(vg,setup,job._key,fkeys,delete_on_done);
-    mfpt.doAll(fkeys);
+    Key[][] packs = packFiles(fkeys,setup);
+    MultiFileParseTask mfpt = job._mfpt = new MultiFileParseTask(vg,setup,job._key,packs,delete_on_done);
+    mfpt.doAll(packKeys(packs));
 /*    if (mfpt._errors != null) {
       job.cancel();
       //TODO replace with H2OParseException
@@ -198,44 +199,12 @@ public final class ParseDataset extends Job<Frame> {
     final int[] ecols = Arrays.copyOf(ecols2, n);
     // If we have any, go gather unified enum domains
     if( n > 0 ) {
-      EnumFetchTask eft = new EnumFetchTask(mfpt._eKey, ecols).doAllNodes();
-      final Categorical[] enums = eft._gEnums;
-      final ValueString[][] ds = new ValueString[ecols.length][];
-      EnumMapping [] emaps = new EnumMapping[H2O.CLOUD.size()];
-      H2OCountedCompleter[] domtasks = new H2OCountedCompleter[ecols.length];
-      // In parallel, compute enum column domains.  Includes expensive sort.
-      for( int k = 0; k<ecols.length; k++ ) {
-        final int fk = k;
-        H2O.submitTask(domtasks[k] = new H2OCountedCompleter() {
-            @Override public void compute2() {
-              int ei = ecols[fk];
-              avs[ei].setDomain(ValueString.toString(ds[fk] = enums[ei].computeColumnDomain()));
-              tryComplete();
-            }
-          });
-      }
-      for( int k = 0; k<ecols.length; k++ ) domtasks[k].join();
-
-      for(int nodeId = 0; nodeId < H2O.CLOUD.size(); ++nodeId) {
-        if(eft._lEnums[nodeId] == null)continue;
-        int[][] emap = new int[ecols.length][];
-        for (int i = 0; i < ecols.length; ++i) {
-          final Categorical e = eft._lEnums[nodeId][ecols[i]];
-          if(e == null) continue;
-          int maxid = e.maxId();
-          emap[i] = MemoryManager.malloc4(maxid + 1);
-          Arrays.fill(emap[i], -1);
-          for (int j = 0; j < ds[i].length; ++j) {
-            ValueString vs = ds[i][j];
-            if (e.containsKey(vs)) {
-              int tokid = e.getTokenId(vs);
-              assert tokid <= maxid : "maxIdx = " + maxid + ", got " + tokid;
-              emap[i][tokid] = j;
-            }
-          }
-        }
-        emaps[nodeId] = new EnumMapping(emap);
-      }
+      // Merge the nodes' sorted local domains up the node tree
+      final ValueString[][] ds = new EnumDomainTask(mfpt._eKey, ecols).doAllNodes()._doms;
+      for( int k = 0; k<ecols.length; k++ )
+        avs[ecols[k]].setDomain(ValueString.toString(ds[k]));
+      // Each node maps its own local ids to the global ones
+      EnumMapping[] emaps = new EnumMapTask(mfpt._eKey, ecols, ds).doAllNodes()._emaps;
       fr = new Frame(job.dest(), setup._column_names != null?setup._column_names :genericColumnNames(setup._number_columns),AppendableVec.closeAll(avs));
       // Some cols with enums lose their enum status (because they have more
       // number chunks than enum chunks); these no longer need (or want) enum
@@ -284,10 +253,67 @@ public final class ParseDataset extends Job<Frame> {
         assert DKV.get(k) == null : "Input key "+k+" not deleted during parse";
   }
 
+  // --------------------------------------------------------------------------
+  // Group the files to parse: runs of small files, each under a quarter of a
+  // chunk, are packed into shared chunks of up to a chunk's worth of bytes;
+  // every other file stands alone.  A directory of many small files then
+  // parses into a sane number of chunks, instead of one tiny chunk (and its
+  // parse, Vec metadata and K/V traffic) per file.  Row order is kept.  Only
+  // CSV is packed: ARFF files carry their own header sections, and SVMLight
+  // outputs its own chunk layout.  Compressed files are never packed: their
+  // length says little of the bytes they inflate to, all of which would land
+  // in the pack's one chunk.
+  static Key[][] packFiles( Key[] fkeys, ParseSetup setup ) {
+    ArrayList<Key[]> packs = new ArrayList<>();
+    ArrayList<Key> pack = new ArrayList<>();
+    long packed = 0;
+    final long small = setup._chunk_size>>2;
+    for( Key k : fkeys ) {
+      ByteVec vec = getByteVec(k);
+      long len = vec.length();
+      boolean packable = setup._parse_type == ParserType.CSV && len < small &&
+        ZipUtil.guessCompressionMethod(vec.getFirstBytes()) == ZipUtil.Compression.NONE;
+      if( !packable || packed+len > setup._chunk_size ) { // Close the open pack
+        if( pack.size() == 1 ) packs.add(new Key[]{pack.get(0)});
+        else if( pack.size() > 1 ) packs.add(pack.toArray(new Key[pack.size()]));
+        pack.clear();
+        packed = 0;
+      }
+      if( packable ) { pack.add(k); packed += len; }
+      else packs.add(new Key[]{k});
+    }
+    if( pack.size() == 1 ) packs.add(new Key[]{pack.get(0)});
+    else if( pack.size() > 1 ) packs.add(pack.toArray(new Key[pack.size()]));
+    return packs.toArray(new Key[packs.size()][]);
+  }
+
+  // The Key to map each pack on: a lone file's own Key, which parses where
+  // its data lives; for a pack of small files, a fresh Key homed on the node
+  // with the fewest bytes to parse so far, so packs spread by size and not
+  // by count.
+  private static Key[] packKeys( Key[][] packs ) {
+    long[] loads = new long[H2O.CLOUD.size()];
+    Key[] keys = new Key[packs.length];
+    for( int i=0; i<packs.length; i++ )
+      if( packs[i].length == 1 )
+        loads[(keys[i] = packs[i][0]).home_node().index()] += getByteVec(keys[i]).length();
+    for( int i=0; i<packs.length; i++ ) {
+      if( packs[i].length == 1 ) continue;
+      int node = 0;
+      for( int n=1; n<loads.length; n++ )
+        if( loads[n] < loads[node] ) node = n;
+      keys[i] = Key.make((byte)1,Key.HIDDEN_USER_KEY,false,H2O.CLOUD._memary[node]);
+      for( Key k : packs[i] ) loads[node] += getByteVec(k).length();
+    }
+    return keys;
+  }
+
   // --------------------------------------------------------------------------
   /** Task to update enum (categorical) values to match the global numbering scheme.
    *  Performs update in place so that values originally numbered using
    *  node-local unordered numbering will be numbered using global numbering.
+   *  Columns whose local ids are already global are left alone, and only
+   *  chunks with a value that changes are written back.
    *  @author tomasnykodym
    */
   private static class EnumUpdateTask extends MRTask<EnumUpdateTask> {
@@ -297,7 +323,7 @@ public final class ParseDataset extends Job<Frame> {
     private EnumUpdateTask(ValueString [][] gDomain, EnumMapping [] emaps, int [] chunk2Enum) {
       _gDomain = gDomain; _emaps = emaps; _chunk2Enum = chunk2Enum;
     }
-    private int[][] emap(int nodeId) {return _emaps[nodeId].map;}
+    private int[][] emap(int nodeId) {return _emaps[nodeId] == null ? null : _emaps[nodeId].map;}
     @Override public void map(Chunk [] chks){
       int[][] emap = emap(_chunk2Enum[chks[0].cidx()]);
       final int cidx = chks[0].cidx();
@@ -305,7 +331,7 @@ public final class ParseDataset extends Job<Frame> {
         Chunk chk = chks[i];
         if(_gDomain[i] == null) // killed, replace with all NAs
           DKV.put(chk.vec().chunkKey(chk.cidx()),new C0DChunk(Double.NaN,chk._len));
-        else if (!(chk instanceof CStrChunk)) {
+        else if (emap != null && emap[i] != null && !(chk instanceof CStrChunk)) {
           for( int j = 0; j < chk._len; ++j){
             if( chk.isNA(j) )continue;
             long l = chk.at8(j);
@@ -313,7 +339,7 @@ public final class ParseDataset extends Job<Frame> {
               chk.reportBrokenEnum(i, j, l, emap, _gDomain[i].length);
             if(emap[i][(int)l] < 0)
               throw new RuntimeException(H2O.SELF.toString() + ": missing enum at col:" + i + ", line: " + (chk.start() + j) + ", val = " + l + ", chunk=" + chk.getClass().getSimpleName() + ", map = " + Arrays.toString(emap[i]));
-            chk.set(j, emap[i][(int) l]);
+            if( emap[i][(int) l] != l ) chk.set(j, emap[i][(int) l]);
           }
         }
         chk.close(cidx, _fs);
@@ -322,45 +348,98 @@ public final class ParseDataset extends Job<Frame> {
   }
 
   // --------------------------------------------------------------------------
-  private static class EnumFetchTask extends MRTask<EnumFetchTask> {
+  /** Gather the global domain of each enum column: every node sorts its own
+   *  local domain, and the sorted domains are merged pairwise as the
+   *  reduction goes up the node tree.  Only distinct strings are shipped,
+   *  never the local maps. */
+  private static class EnumDomainTask extends MRTask<EnumDomainTask> {
     private final Key _k;
     private final int[] _ecols;
-    private Categorical[] _gEnums;      // global enums per column
-    public Categorical[][] _lEnums;    // local enums per node per column
-    private EnumFetchTask(Key k, int[] ecols){_k = k;_ecols = ecols;}
+    ValueString[][] _doms;      // Sorted domain per enum column
+    private EnumDomainTask(Key k, int[] ecols){_k = k;_ecols = ecols;}
     @Override public void setupLocal() {
-      _lEnums = new Categorical[H2O.CLOUD.size()][];
-      if( !MultiFileParseTask._enums.containsKey(_k) ) return;
-      _lEnums[H2O.SELF.index()] = _gEnums = MultiFileParseTask._enums.get(_k);
-      // Null out any empty Enum structs; no need to ship these around.
-      for( int i=0; i<_gEnums.length; i++ )
-        if( _gEnums[i].size()==0 ) _gEnums[i] = null;
-
-      // if we are the original node (i.e. there will be no sending over wire),
-      // we have to clone the enums not to share the same object (causes
-      // problems when computing column domain and renumbering maps).
-//      if( H2O.SELF.index() == _homeNode ) {
-      // fixme: looks like need to clone even if not on home node in h2o-dev
-        _gEnums = _gEnums.clone();
-        for(int i = 0; i < _gEnums.length; ++i)
-          if( _gEnums[i] != null ) _gEnums[i] = _gEnums[i].deepCopy();
-//      }
-      MultiFileParseTask._enums.remove(_k);
+      _doms = new ValueString[_ecols.length][];
+      final Categorical[] enums = MultiFileParseTask._enums.get(_k);
+      if( enums == null ) return;
+      // In parallel, sort each column's local domain
+      ArrayList<RecursiveAction> rs = new ArrayList<>();
+      for( int i=0; i<_ecols.length; i++ ) {
+        final int fi = i;
+        if( enums[_ecols[i]].size() > 0 )
+          rs.add(new RecursiveAction() {
+            @Override protected void compute() { _doms[fi] = enums[_ecols[fi]].sortedKeys(); }
+          });
+      }
+      ForkJoinTask.invokeAll(rs);
+    }
+    @Override public void reduce(EnumDomainTask edt) {
+      for( int i=0; i<_doms.length; i++ )
+        _doms[i] = merge(_doms[i], edt._doms[i]);
+    }
+    @Override public void postGlobal() {
+      for( int i=0; i<_doms.length; i++ )
+        if( _doms[i] == null ) _doms[i] = new ValueString[0];
+    }
+    // Union of two sorted domains
+    private static ValueString[] merge( ValueString[] a, ValueString[] b ) {
+      if( a == null ) return b;
+      if( b == null ) return a;
+      ValueString[] res = new ValueString[a.length+b.length];
+      int i=0, j=0, n=0;
+      while( i < a.length && j < b.length ) {
+        int x = a[i].compareTo(b[j]);
+        res[n++] = x <= 0 ? a[i] : b[j];
+        if( x <= 0 ) i++;
+        if( x >= 0 ) j++;
+      }
+      while( i < a.length ) res[n++] = a[i++];
+      while( j < b.length ) res[n++] = b[j++];
+      return n == res.length ? res : Arrays.copyOf(res,n);
     }
+  }
 
-    @Override public void reduce(EnumFetchTask etk) {
-      if(_gEnums == null) {
-        _gEnums = etk._gEnums;
-        _lEnums = etk._lEnums;
-      } else if (etk._gEnums != null) {
-        for( int i : _ecols ) {
-          if( _gEnums[i] == null ) _gEnums[i] = etk._gEnums[i];
-          else if( etk._gEnums[i] != null ) _gEnums[i].merge(etk._gEnums[i]);
-        }
-        for( int i = 0; i < _lEnums.length; ++i )
-          if( _lEnums[i] == null ) _lEnums[i] = etk._lEnums[i];
-          else assert etk._lEnums[i] == null;
+  /** Map every node's local enum ids to the global domain, on that node; only
+   *  the resulting int maps are gathered.  Local maps are dropped after. */
+  static class EnumMapTask extends MRTask<EnumMapTask> {
+    private final Key _k;
+    private final int[] _ecols;
+    private final ValueString[][] _doms;
+    EnumMapping[] _emaps;       // Per node: per column, local id to global
+    private EnumMapTask(Key k, int[] ecols, ValueString[][] doms){_k = k;_ecols = ecols;_doms = doms;}
+    @Override public void setupLocal() {
+      _emaps = new EnumMapping[H2O.CLOUD.size()];
+      final Categorical[] enums = MultiFileParseTask._enums.remove(_k);
+      if( enums == null ) return;
+      final int[][] emap = new int[_ecols.length][];
+      ArrayList<RecursiveAction> rs = new ArrayList<>();
+      for( int i=0; i<_ecols.length; i++ ) {
+        final int fi = i;
+        if( enums[_ecols[i]].size() > 0 )
+          rs.add(new RecursiveAction() {
+            @Override protected void compute() { emap[fi] = emap(enums[_ecols[fi]], _doms[fi]); }
+          });
+      }
+      ForkJoinTask.invokeAll(rs);
+      _emaps[H2O.SELF.index()] = new EnumMapping(emap);
+    }
+    // Chunked (0-based) local id to global id, or null if the local ids are
+    // the global ones
+    static int[] emap( Categorical e, ValueString[] dom ) {
+      int[] m = MemoryManager.malloc4(e.maxId());
+      Arrays.fill(m, -1);
+      boolean same = true;
+      for( ValueString vs : e.keys() ) {
+        int id = e.getTokenId(vs)-1, j = Arrays.binarySearch(dom, vs);
+        assert j >= 0 : "local enum "+vs+" not in the global domain";
+        m[id] = j;
+        same &= id == j;
       }
+      return same ? null : m;
+    }
+    @Override public void reduce(EnumMapTask emt) {
+      for( int i = 0; i < _emaps.length; ++i )
+        if( _emaps[i] == null ) _emaps[i] = emt._emaps[i];
+        else assert emt._emaps[i] == null;
     }
   }
 
@@ -449,24 +528,28 @@ public final class ParseDataset extends Job<Frame> {
     private final Key _job_key;
     // A mapping of Key+ByteVec to rolling total Chunk counts.
     private final int[]  _fileChunkOffsets;
+    // The files parsed by each map: one file, or a pack of small files
+    private final Key[][] _packs;
 
     // OUTPUT fields:
     FVecDataOut [] _dout;
     String[] _errors;
 
     int _reservedKeys;
-    MultiFileParseTask(VectorGroup vg,  ParseSetup setup, Key job_key, Key[] fkeys, boolean delete_on_done ) {
+    MultiFileParseTask(VectorGroup vg,  ParseSetup setup, Key job_key, Key[][] packs, boolean delete_on_done ) {
       _vg = vg; _parseSetup = setup;
       _vecIdStart = _vg.reserveKeys(_reservedKeys = _parseSetup._parse_type == ParserType.SVMLight ? 100000000 : setup._number_columns);
       _delete_on_done = delete_on_done;
       _job_key = job_key;
+      _packs = packs;
 
-      // A mapping of Key+ByteVec to rolling total Chunk counts.
-      _fileChunkOffsets = new int[fkeys.length];
+      // A mapping of Key+ByteVec to rolling total Chunk counts.  A pack of
+      // small files parses into a single chunk.
+      _fileChunkOffsets = new int[packs.length];
       int len = 0;
-      for( int i = 0; i < fkeys.length; ++i ) {
+      for( int i = 0; i < packs.length; ++i ) {
         _fileChunkOffsets[i] = len;
-        len += getByteVec(fkeys[i]).nChunks();
+        len += packs[i].length > 1 ? 1 : getByteVec(packs[i][0]).nChunks();
       }
 
       // Mapping from Chunk# to cluster-node-number
@@ -533,7 +616,11 @@ public final class ParseDataset extends Job<Frame> {
     private void chunksAreLocal( Vec vec, int chunkStartIdx, Key key ) {
       for(int i = 0; i < vec.nChunks(); ++i)
         _chunk2Enum[chunkStartIdx + i] = H2O.SELF.index();
-      // For Big Data, must delete data as eagerly as possible.
+      freeInput(vec,key);
+    }
+
+    // For Big Data, must delete data as eagerly as possible.
+    private void freeInput( Vec vec, Key key ) {
       Iced ice = DKV.get(key).get();
       if( ice==vec ) {
         if( _delete_on_done ) vec.remove();
@@ -554,8 +641,9 @@ public final class ParseDataset extends Job<Frame> {
         :new FVecDataOut(_vg, chunkOff, enums(_eKey,localSetup._number_columns), localSetup._column_types, _parseSetup._chunk_size, avs);
     }
 
-    // Called once per file
+    // Called once per file, or pack of small files
     @Override public void map( Key key ) {
+      if( _packs[_lo].length > 1 ) { parsePack(_packs[_lo]); return; }
       ParseSetup localSetup = new ParseSetup(_parseSetup);
       ByteVec vec = getByteVec(key);
       final int chunkStartIdx = _fileChunkOffsets[_lo];
@@ -584,13 +672,15 @@ public final class ParseDataset extends Job<Frame> {
           }
           break;
         case ZIP: {
-          // Zipped file; no parallel decompression;
+          // Zipped file; decompressed ahead of the parse, but not in parallel
           InputStream bvs = vec.openStream(_job_key);
           ZipInputStream zis = new ZipInputStream(bvs);
           ZipEntry ze = zis.getNextEntry(); // Get the *FIRST* entry
           // There is at least one entry in zip file and it is not a directory.
-          if( ze != null && !ze.isDirectory() )
-            _dout[_lo] = streamParse(zis,localSetup,makeDout(localSetup,chunkStartIdx,vec.nChunks()), bvs);
+          if( ze != null && !ze.isDirectory() ) {
+            InputStream is = InflaterPipeline.pipe(zis,bvs,_job_key);
+            _dout[_lo] = streamParse(is,localSetup,makeDout(localSetup,chunkStartIdx,vec.nChunks()), is);
+          }
             // check for more files in archive
             ZipEntry ze2 = zis.getNextEntry();
             if (ze2 != null && !ze.isDirectory()) {
@@ -602,8 +692,10 @@ public final class ParseDataset extends Job<Frame> {
         }
         case GZIP: {
           InputStream bvs = vec.openStream(_job_key);
-          // Zipped file; no parallel decompression;
-          _dout[_lo] = streamParse(new GZIPInputStream(bvs),localSetup,makeDout(localSetup,chunkStartIdx,vec.nChunks()),bvs);
+          // Gzipped file; decompressed ahead of the parse, in parallel for
+          // block gzip (BGZF) files
+          InputStream is = InflaterPipeline.gzip(bvs, InflaterPipeline.bgzfBlockSize(zips,0,zips.length) > 0, _job_key);
+          _dout[_lo] = streamParse(is,localSetup,makeDout(localSetup,chunkStartIdx,vec.nChunks()),is);
           // set this node as the one which processed all the chunks
           chunksAreLocal(vec,chunkStartIdx,key);
           break;
@@ -616,6 +708,34 @@ public final class ParseDataset extends Job<Frame> {
       }
     }
 
+    // Parse a pack of small uncompressed files one after the other into a
+    // single chunk, checking each file for its own header
+    private void parsePack( Key[] keys ) {
+      final int chunkStartIdx = _fileChunkOffsets[_lo];
+      FVecDataOut dout = makeDout(_parseSetup,chunkStartIdx,1);
+      for( Key key : keys ) {
+        ParseSetup localSetup = new ParseSetup(_parseSetup);
+        ByteVec vec = getByteVec(key);
+        byte[] bits = vec.getFirstBytes();
+        assert ZipUtil.guessCompressionMethod(bits) == ZipUtil.Compression.NONE;
+        if (localSetup._check_header == ParseSetup.HAS_HEADER) //check for header on local file
+          localSetup._check_header = localSetup.parser().fileHasHeader(bits, localSetup);
+        try {
+          // Plain stream parse: no new chunk per input chunk
+          InputStream is = vec.openStream(_job_key);
+          try { localSetup.parser().streamParse(is,dout); }
+          finally { is.close(); }
+        } catch( IOException ioe ) {
+          throw new RuntimeException(ioe);
+        } catch (H2OParseException pe) {
+          throw new H2OParseException(key,pe);
+        }
+        freeInput(vec,key);
+      }
+      _dout[_lo] = dout.close(_fs);
+      _chunk2Enum[chunkStartIdx] = H2O.SELF.index();
+    }
+
     // Reduce: combine errors from across files.
     // Roll-up other meta data
     @Override public void reduce( MultiFileParseTask mfpt ) {
@@ -635,14 +755,18 @@ public final class ParseDataset extends Job<Frame> {
     }
 
     // ------------------------------------------------------------------------
-    // Zipped file; no parallel decompression; decompress into local chunks,
-    // parse local chunks; distribute chunks later.
+    // Zipped file; decompress into local chunks, parse local chunks;
+    // distribute chunks later.
     private FVecDataOut streamParse( final InputStream is, final ParseSetup localSetup, FVecDataOut dout, InputStream bvs) throws IOException {
       // All output into a fresh pile of NewChunks, one per column
       Parser p = localSetup.parser();
-      // assume 2x inflation rate
-      if( localSetup._parse_type._parallelParseSupported ) p.streamParseZip(is, dout, bvs);
-      else                                            p.streamParse   (is, dout);
+      try {
+        // assume 2x inflation rate
+        if( localSetup._parse_type._parallelParseSupported ) p.streamParseZip(is, dout, bvs);
+        else                                            p.streamParse   (is, dout);
+      } finally {
+        is.close();             // Stops any inflater early, on a failed parse
+      }
       // Parse all internal "chunks", until we drain the zip-stream dry.  Not
       // real chunks, just flipping between 32K buffers.  Fills up the single
       // very large NewChunk.
@@ -911,7 +1035,7 @@ public final class ParseDataset extends Job<Frame> {
           if(!_enums[colIdx].isMapFull()) {
             int id = _enums[_col = colIdx].addKey(str);
             if (_ctypes[colIdx] == Vec.T_BAD && id > 1) _ctypes[colIdx] = Vec.T_ENUM;
-            _nvs[colIdx].addEnum(id);
+            _nvs[colIdx].addEnum(id-1); // Chunks hold 0-based ids, like the global domain
           } else { // maxed out enum map, convert col to string chunk
             _ctypes[_col = colIdx] = Vec.T_STR;
             enumCol2StrCol(colIdx);
@@ -924,11 +1048,9 @@ public final class ParseDataset extends Job<Frame> {
     private void enumCol2StrCol(int colIdx) {
       //build local value2key map for enums
       Categorical enums = _enums[colIdx].deepCopy();
-      ValueString emap[] = new ValueString[enums.maxId()+1];
-      ValueString keys[] = enums._map.keySet().toArray(new ValueString[enums.size()]);
-      for (ValueString str:keys)
-        // adjust for enum ids using 1-based indexing
-        emap[enums._map.get(str)-1] = str;
+      ValueString emap[] = new ValueString[enums.maxId()];
+      for (ValueString str:enums.keys())
+        emap[enums.getTokenId(str)-1] = str;
 
       //swap in string NewChunk in place of enum NewChunk
       _nvs[colIdx] = _nvs[colIdx].convertEnum2Str(emap);
@@ -0,0 +1,229 @@
+package water.parser;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import water.*;
+import water.fvec.*;
+import water.util.Log;
+
+/** Follow a growing local file, like {@code tail -f}, appending the lines
+ *  added since the last parse to a Frame.
+ *
+ *  <p>{@link #start} parses the complete lines of the file into a new Frame
+ *  and remembers the setup and the byte offset parsed up to; each {@link
+ *  #poll} then parses only the bytes since, with the same setup, and appends
+ *  the result as new chunks of the Frame's Vecs.  Ingest costs only the new
+ *  bytes: old chunks are neither re-read nor rewritten.  A trailing partial
+ *  line is left for the next poll.
+ *
+ *  <p>Enum columns keep their levels: new levels are added at the end of the
+ *  domain, so the domain of a followed Frame is sorted only up to its first
+ *  append.  Rollups are recomputed lazily as for any written Vec, but only
+ *  the new chunks are visited, the old ones keeping their per-chunk rollups.
+ *
+ *  <p>New rows are parsed with the old column types forced, so text in a
+ *  numeric column reads as missing, as in a parse with user-given types.  A
+ *  column which still parses as another type is an error, leaving the Frame
+ *  as it was; so is a file shrinking below the parsed offset, as on log
+ *  rotation.  Polls of one Frame must not race each other. */
+public final class TailParse extends Iced {
+  final String _path;
+  final Key<Frame> _dest;
+  final ParseSetup _setup;      // The setup for new bytes: no header, forced types
+  long _offset;                 // Bytes parsed so far, always at a line start
+
+  private TailParse( String path, Key<Frame> dest, ParseSetup setup, long offset ) {
+    _path = path;  _dest = dest;  _setup = setup;  _offset = offset;
+  }
+
+  /** Parse the complete lines of the local file path into a new Frame dest,
+   *  guessing the setup, and follow the file from there. */
+  public static TailParse start( String path, Key<Frame> dest ) throws IOException {
+    File f = new File(path);
+    long end = lineEnd(f,0);
+    if( end == 0 ) throw new IllegalArgumentException("No complete line in "+path);
+    Key src = readRange(f,0,end);
+    ParseSetup setup = ParseSetup.guessSetup(new Key[]{src}, false, ParseSetup.GUESS_HEADER);
+    setup._chunk_size = FileVec.DFLT_CHUNK_SIZE; // The chunking of readRange
+    Frame fr = ParseDataset.parse(dest,new Key[]{src},true,setup);
+    return follow(fr,path,setup,end);
+  }
+
+  /** Follow the local file path from byte offset on, appending to fr, which
+   *  was parsed with setup from the bytes before.
+   *  @param offset the start of the first line not in fr */
+  public static TailParse follow( Frame fr, String path, ParseSetup setup, long offset ) {
+    ParseSetup ps = new ParseSetup(setup);
+    ps._check_header = ParseSetup.NO_HEADER;
+    ps._chunk_size = FileVec.DFLT_CHUNK_SIZE;
+    ps._column_names = fr.names();
+    Vec[] vecs = fr.vecs();     // Keep enums enums, even if new levels look numeric
+    ps._column_types = new byte[vecs.length];
+    for( int i=0; i<vecs.length; i++ ) ps._column_types[i] = vecs[i].get_type();
+    return new TailParse(path,fr._key,ps,offset);
+  }
+
+  /** Bytes of the file parsed so far */
+  public long offset() { return _offset; }
+
+  /** Append the complete lines added to the file since the last poll.
+   *  @return the Frame, with any new rows */
+  public Frame poll() throws IOException {
+    File f = new File(_path);
+    if( f.length() < _offset )
+      throw new IllegalStateException("File "+_path+" shrank below the "+_offset+" bytes already parsed");
+    long end = lineEnd(f,_offset);
+    if( end == _offset ) return DKV.getGet(_dest);
+    Key src = readRange(f,_offset,end);
+    Frame tail = ParseDataset.parse(Key.make(),new Key[]{src},true,_setup);
+    try {
+      Frame fr = append(tail);
+      Log.info("Appended "+tail.numRows()+" rows from bytes "+_offset+" to "+end+" of "+_path);
+      _offset = end;
+      return fr;
+    } finally {
+      tail.delete();
+    }
+  }
+
+  // Append the rows of tail to the Frame, as new chunks of its Vecs
+  private Frame append( Frame tail ) {
+    Frame fr = DKV.getGet(_dest);
+    if( fr == null ) throw new IllegalArgumentException("Frame "+_dest+" is gone");
+    fr.write_lock(null);
+    try {
+      Vec[] ovs = fr.vecs(), tvs = tail.vecs();
+      if( ovs.length != tvs.length )
+        throw new IllegalArgumentException("New rows have "+tvs.length+" columns, not "+ovs.length);
+      // Check types and extend domains before writing anything
+      byte[] types = new byte[ovs.length];
+      String[][] doms = new String[ovs.length][];
+      for( int i=0; i<ovs.length; i++ ) {
+        Vec o = ovs[i], t = tvs[i];
+        types[i] = o.get_type();
+        doms[i] = o.domain();
+        if( t.isBad() ) continue; // All missing: fits any type
+        if( o.isBad() ) { types[i] = t.get_type(); doms[i] = t.domain(); continue; }
+        if( types[i] != t.get_type() )
+          throw new IllegalArgumentException("Column "+fr._names[i]+" is "+o.get_type_str()+", but new rows parse as "+t.get_type_str());
+        if( o.isEnum() ) doms[i] = extend(doms[i],t);
+      }
+      // Copy the new chunks in after the old ones
+      final int nchks = ovs[0].nChunks();
+      Key[] keys = new Key[ovs.length];
+      for( int i=0; i<ovs.length; i++ ) keys[i] = ovs[i]._key;
+      new AppendTask(keys,nchks).doAll(tail);
+      // Publish longer Vecs under the old keys
+      long[] oespc = ovs[0].get_espc(), tespc = tvs[0].get_espc();
+      long[] espc = Arrays.copyOf(oespc,nchks+tespc.length);
+      for( int c=1; c<tespc.length; c++ ) espc[nchks+c] = oespc[nchks]+tespc[c];
+      Futures fs = new Futures();
+      for( int i=0; i<ovs.length; i++ ) {
+        ovs[i].preWriting();
+        Vec v = new Vec(ovs[i]._key,espc,doms[i],types[i]);
+        DKV.put(v._key,v,fs);
+        v.postWrite(fs);        // Rollups are rebuilt on demand
+      }
+      fs.blockForPending();
+      fr.reloadVecs();
+      fr.update(null);
+    } finally {
+      fr.unlock(null);
+    }
+    return fr;
+  }
+
+  // The domain dom followed by the levels of enum t not in it, renumbering
+  // the values of t to match
+  private static String[] extend( String[] dom, Vec t ) {
+    HashMap<String,Integer> ids = new HashMap<>();
+    for( int i=0; i<dom.length; i++ ) ids.put(dom[i],i);
+    String[] tdom = t.domain();
+    String[] res = Arrays.copyOf(dom,dom.length+tdom.length);
+    int[] map = new int[tdom.length];
+    int n = dom.length;
+    boolean ident = true;
+    for( int j=0; j<tdom.length; j++ ) {
+      Integer id = ids.get(tdom[j]);
+      if( id == null ) res[id = n++] = tdom[j];
+      ident &= (map[j] = id) == j;
+    }
+    if( !ident ) new RemapTask(map).doAll(t);
+    return n == dom.length ? dom : Arrays.copyOf(res,n);
+  }
+
+  // Renumber enum values by a map
+  private static class RemapTask extends MRTask<RemapTask> {
+    final int[] _map;
+    RemapTask( int[] map ) { _map = map; }
+    @Override public void map( Chunk c ) {
+      for( int r=0; r<c._len; r++ )
+        if( !c.isNA(r) ) c.set(r,_map[(int)c.at8(r)]);
+    }
+  }
+
+  // Put each chunk of a Frame under the matching Vec Key, from chunk# _cidx0 on
+  private static class AppendTask extends MRTask<AppendTask> {
+    final Key[] _keys;
+    final int _cidx0;
+    AppendTask( Key[] keys, int cidx0 ) { _keys = keys;  _cidx0 = cidx0; }
+    @Override public void map( Chunk[] cs ) {
+      for( int i=0; i<cs.length; i++ ) {
+        Key k = Vec.chunkKey(_keys[i],_cidx0+cs[i].cidx());
+        byte[] mem = cs[i].getBytes();
+        DKV.put(k,new Value(k,mem.length,mem,(short)cs[i].frozenType(),Value.ICE),_fs);
+      }
+    }
+  }
+
+  // The end of the last complete line of f after byte from, or from if none
+  static long lineEnd( File f, long from ) throws IOException {
+    try( RandomAccessFile raf = new RandomAccessFile(f,"r") ) {
+      byte[] buf = new byte[64*1024];
+      long end = raf.length();
+      while( end > from ) {
+        int n = (int)Math.min(buf.length,end-from);
+        raf.seek(end-n);
+        raf.readFully(buf,0,n);
+        for( int i=n-1; i>=0; i-- )
+          if( buf[i] == '\n' ) return end-n+i+1;
+        end -= n;
+      }
+      return from;
+    }
+  }
+
+  // Upload bytes [from,to) of f into the K/V store, as a Frame to parse
+  private static Key readRange( File f, long from, final long to ) throws IOException {
+    Key k = Key.make(f.getName()+"_"+from);
+    final long len = to-from;
+    try( InputStream is = new FilterInputStream(new FileInputStream(f)) {
+        long _left = len;       // Bytes left to read, past the skip
+        @Override public int read( byte[] b, int off, int len ) throws IOException {
+          if( _left == 0 ) return -1;
+          int n = super.read(b,off,(int)Math.min(len,_left));
+          if( n > 0 ) _left -= n;
+          return n;
+        }
+      } ) {
+      for( long skip = from; skip > 0; ) {
+        long n = is.skip(skip);
+        if( n <= 0 ) throw new IOException("File "+f+" shrank while reading");
+        skip -= n;
+      }
+      UploadFileVec.readPut(k,is,null);
+    } catch( IOException e ) {
+      throw e;
+    } catch( Exception e ) {    // readPut throws anything
+      throw new RuntimeException(e);
+    }
+    return k;
+  }
+}
@@ -0,0 +1,191 @@
+package water.parser;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import water.AutoBuffer;
+import water.MemoryManager;
+
+/** A concurrent map from byte strings to ints, for interning enum levels
+ *  during parse.
+ *
+ *  Open addressing with linear probing; the strings are copied into one
+ *  byte arena, and hashes, offsets, lengths and values live in int arrays,
+ *  so there is no per-entry object and no boxing.  Lookups are lock-free and
+ *  allocate nothing.  Inserts take the map lock: during a parse they happen
+ *  once per distinct level, while lookups happen once per cell.
+ *
+ *  A growing map copies into a new table and publishes it, so a lookup
+ *  racing with a grow finds its keys in the old table, or misses and
+ *  retries under the lock.  Overwriting the value of a key ({@link #put})
+ *  is only meant for single-threaded phases, like renumbering a domain.
+ */
+final class ValueStringMap {
+  /** Returned for a missing key */
+  static final int NONE = -1;
+
+  // Each slot is 3 ints: the hash, the entry+1 (0 for an empty slot) and the
+  // value, so a probe usually touches a single cache line.  Entries hold the
+  // offset and length of the key in the arena, in insertion order.
+  private static final class Table {
+    final AtomicIntegerArray _slots;
+    final int[] _ents;          // Per entry: offset, length, slot
+    final byte[] _arena;
+    final int _mask;
+    Table( int nslots, int nents, int nbytes ) {
+      _slots = new AtomicIntegerArray(nslots*3);
+      _ents  = MemoryManager.malloc4(nents*3);
+      _arena = MemoryManager.malloc1(nbytes);
+      _mask  = nslots-1;
+    }
+    int nslots() { return _mask+1; }
+    int nents() { return _ents.length/3; }
+    int val( int e ) { return _slots.get(_ents[e*3+2]*3+2); }
+  }
+
+  private volatile Table _tab;
+  private volatile int _size;   // Entries, all in _tab; written after _tab
+  private int _used;            // Arena bytes used; guarded by this
+
+  ValueStringMap() { _tab = new Table(16,8,256); }
+
+  int size() { return _size; }
+
+  /** @return the value of str, or {@link #NONE} */
+  int get( ValueString str ) {
+    Table t = _tab;
+    int i = find(t,str,hash(str));
+    return i == -1 ? NONE : t._slots.get(i*3+2);
+  }
+
+  boolean containsKey( ValueString str ) { return get(str) != NONE; }
+
+  /** Map str to val unless already mapped; str's bytes are copied.
+   *  @return the existing value, or {@link #NONE} if val was added */
+  int putIfAbsent( ValueString str, int val ) {
+    int h = hash(str);
+    Table t = _tab;
+    int i = find(t,str,h);
+    return i != -1 ? t._slots.get(i*3+2) : insert(str,h,val,false);
+  }
+
+  /** Map str to val, replacing any existing value.
+   *  @return the old value, or {@link #NONE} */
+  int put( ValueString str, int val ) { return insert(str,hash(str),val,true); }
+
+  private synchronized int insert( ValueString str, int h, int val, boolean replace ) {
+    Table t = _tab;
+    int i = find(t,str,h);
+    if( i != -1 ) {
+      int old = t._slots.get(i*3+2);
+      if( replace ) t._slots.set(i*3+2,val);
+      return old;
+    }
+    final int n = _size, len = str.get_length();
+    if( (n+1)<<1 > t.nslots() || n == t.nents() || _used+len > t._arena.length )
+      _tab = t = grow(t,n,len);
+    System.arraycopy(str.get_buf(),str.get_off(),t._arena,_used,len);
+    i = slot(t,h);
+    t._ents[n*3] = _used;  t._ents[n*3+1] = len;  t._ents[n*3+2] = i;
+    _used += len;
+    t._slots.lazySet(i*3  ,h);
+    t._slots.lazySet(i*3+2,val);
+    t._slots.set(i*3+1,n+1);    // Publishes the entry to lock-free readers
+    _size = n+1;
+    return NONE;
+  }
+
+  // First empty slot for hash h
+  private static int slot( Table t, int h ) {
+    int i = h&t._mask;
+    while( t._slots.get(i*3+1) != 0 ) i = (i+1)&t._mask;
+    return i;
+  }
+
+  // A bigger table holding the n entries of t, with room for one more of len
+  // bytes.  Slots are kept at most half full, so probe runs stay short.
+  private Table grow( Table t, int n, int len ) {
+    int nslots = t.nslots();
+    while( (n+1)<<1 > nslots ) nslots <<= 1;
+    int nents = n == t.nents() ? n<<1 : t.nents();
+    long nbytes = t._arena.length;
+    while( _used+len > nbytes ) nbytes <<= 1;
+    Table nt = new Table(nslots,nents,(int)Math.min(nbytes,Integer.MAX_VALUE-8));
+    System.arraycopy(t._arena,0,nt._arena,0,_used);
+    for( int e=0; e<n; e++ ) {
+      int os = t._ents[e*3+2], h = t._slots.get(os*3), i = slot(nt,h);
+      nt._ents[e*3] = t._ents[e*3];  nt._ents[e*3+1] = t._ents[e*3+1];  nt._ents[e*3+2] = i;
+      nt._slots.lazySet(i*3  ,h);
+      nt._slots.lazySet(i*3+1,e+1);
+      nt._slots.lazySet(i*3+2,t._slots.get(os*3+2));
+    }
+    return nt;                  // Published by the volatile write of _tab
+  }
+
+  // Slot holding str, or -1
+  private static int find( Table t, ValueString str, int h ) {
+    final AtomicIntegerArray slots = t._slots;
+    final int len = str.get_length(), off = str.get_off();
+    final byte[] buf = str.get_buf();
+    for( int i = h&t._mask; ; i = (i+1)&t._mask ) {
+      int e = slots.get(i*3+1)-1;
+      if( e == -1 ) return -1;
+      if( slots.get(i*3) != h || t._ents[e*3+1] != len ) continue;
+      final byte[] arena = t._arena;
+      int j = 0, o = t._ents[e*3];
+      while( j < len && arena[o+j] == buf[off+j] ) j++;
+      if( j == len ) return i;
+    }
+  }
+
+  private static int hash( ValueString str ) {
+    final byte[] buf = str.get_buf();
+    final int off = str.get_off(), end = off+str.get_length();
+    int h = 0;
+    for( int i=off; i<end; i++ ) h = 31*h+buf[i];
+    h ^= h>>>16;  h *= 0x85ebca6b;  // Spread into the low bits used for slots
+    h ^= h>>>13;  h *= 0xc2b2ae35;
+    return h^(h>>>16);
+  }
+
+  /** @return a copy of every key, in insertion order */
+  ValueString[] keys() {
+    final int n = _size;        // Entries below n are in the table read after
+    final Table t = _tab;
+    ValueString[] vs = new ValueString[n];
+    for( int e=0; e<n; e++ ) {
+      byte[] bs = MemoryManager.malloc1(t._ents[e*3+1]);
+      System.arraycopy(t._arena,t._ents[e*3],bs,0,bs.length);
+      vs[e] = new ValueString(bs);
+    }
+    return vs;
+  }
+
+  /** A copy, sharing nothing with this map */
+  synchronized ValueStringMap copy() {
+    ValueStringMap m = new ValueStringMap();
+    m._tab = grow(_tab,_size,0);
+    m._used = _used;
+    m._size = _size;
+    return m;
+  }
+
+  /** Write each entry as its length, bytes and value */
+  AutoBuffer write( AutoBuffer ab ) {
+    final int n = _size;
+    final Table t = _tab;
+    for( int e=0; e<n; e++ ) {
+      int off = t._ents[e*3], len = t._ents[e*3+1];
+      ab.put2((char)len).putA1(t._arena,off,off+len).put4(t.val(e));
+    }
+    return ab;
+  }
+
+  @Override public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    final int n = _size;
+    final Table t = _tab;
+    for( int e=0; e<n; e++ )
+      sb.append(e == 0 ? "" : ", ").append(new String(t._arena,t._ents[e*3],t._ents[e*3+1])).append('=').append(t.val(e));
+    return sb.append('}').toString();
+  }
+}
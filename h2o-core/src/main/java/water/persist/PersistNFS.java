@@ -2,12 +2,15 @@ package water.persist;
 
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 
 import water.*;
 import water.exceptions.H2ONotFoundArgumentException;
 import water.fvec.NFSFileVec;
+import water.nbhm.NonBlockingHashMap;
 import water.util.FileIntegrityChecker;
 import water.util.Log;
 
@@ -31,7 +34,7 @@ public final class PersistNFS extends Persist {
 
   // Returns the file for given key.
   private static File getFileForKey(Key k) {
-    final int off = k._kb[0] == Key.CHK ? water.fvec.Vec.KEY_PREFIX_LEN : 0;
+    final int off = k._kb[0] == Key.CHK || k._kb[0] == Key.VEC ? water.fvec.Vec.KEY_PREFIX_LEN : 0;
     assert new String(k._kb, off, KEY_PREFIX_LENGTH).equals(KEY_PREFIX) : "Not an NFS key: " + k;
     String s = new String(k._kb, KEY_PREFIX_LENGTH + off, k._kb.length - (KEY_PREFIX_LENGTH + off));
     return new File(s);
@@ -44,12 +47,83 @@ public final class PersistNFS extends Persist {
     return new FileInputStream(getFileForKey(k));
   }
 
+  // Read-only mappings of whole files, made on the first chunk load.  A chunk
+  // load is then a copy out of the page cache, without the per-chunk
+  // open/seek/read and the AutoBuffer staging copy.  Mapped pages live outside
+  // the Java heap and are paged in and out by the OS.  A mapping is of the
+  // file as it was when mapped: importing or removing the file's Vec drops it
+  // on every node, so a re-imported file is mapped afresh.
+  private static final NonBlockingHashMap<String,MappedFile> MAPS = new NonBlockingHashMap<>();
+
+  private static class MappedFile {
+    static final int SEG_LOG2 = 30; // 1G segments; a mapping is limited to 2G
+    final long _len;
+    final MappedByteBuffer[] _segs;
+    MappedFile(File f) throws IOException {
+      _len = f.length();
+      _segs = new MappedByteBuffer[(int)((_len + (1L<<SEG_LOG2) - 1) >> SEG_LOG2)];
+      try (FileInputStream s = new FileInputStream(f)) {
+        FileChannel fc = s.getChannel();
+        for( int i = 0; i < _segs.length; i++ ) {
+          long off = (long)i << SEG_LOG2;
+          _segs[i] = fc.map(FileChannel.MapMode.READ_ONLY, off, Math.min(1L<<SEG_LOG2, _len - off));
+        }
+      }                         // Mappings stay valid after the channel closes
+    }
+    // Copy b.length bytes starting at file offset off; may span segments
+    void get(long off, byte[] b) {
+      int i = 0;
+      while( i < b.length ) {
+        ByteBuffer seg = _segs[(int)(off >> SEG_LOG2)].duplicate(); // Private position
+        int pos = (int)(off & ((1L<<SEG_LOG2)-1));
+        int n = Math.min(b.length - i, seg.capacity() - pos);
+        seg.position(pos);
+        seg.get(b, i, n);
+        i += n;  off += n;
+      }
+    }
+  }
+
+  // A mapping of f holding bytes up to end; no file system calls once mapped
+  private static MappedFile mapped(File f, long end) throws IOException {
+    String path = f.getAbsolutePath();
+    MappedFile mf = MAPS.get(path);
+    if( mf != null && end <= mf._len ) return mf;
+    MappedFile mf2 = new MappedFile(f); // Racing loads may map twice; last one wins
+    MAPS.put(path, mf2);
+    return mf2;
+  }
+
+  /** Drop the mappings of the file behind this NFS key, on every node.  The
+   *  pages are unmapped once the buffers are collected. */
+  public static Futures unmap(Key k, Futures fs) {
+    for( H2ONode h2o : H2O.CLOUD._memary )
+      fs.add(RPC.call(h2o,new Unmap(k)));
+    return fs;
+  }
+
+  private static class Unmap extends DTask<Unmap> {
+    final Key _key;
+    Unmap(Key key) { _key = key; }
+    // Dropped like an invalidate, so removes inside running tasks may block on it
+    @Override public byte priority() { return H2O.INVALIDATE_PRIORITY; }
+    @Override public void compute2() {
+      MAPS.remove(getFileForKey(_key).getAbsolutePath());
+      tryComplete();
+    }
+  }
+
   @Override
   public byte[] load(Value v) throws IOException {
     assert v.isPersisted();
     // Convert a file chunk into a long-offset from the base file.
     Key k = v._key;
     long skip = k.isChunkKey() ? water.fvec.NFSFileVec.chunkOffset(k) : 0;
+    if( !H2O.ARGS.no_mmap ) {
+      byte[] b = MemoryManager.malloc1(v._max);
+      mapped(getFileForKey(k), skip + b.length).get(skip, b);
+      return b;
+    }
     try (FileInputStream s = new FileInputStream(getFileForKey(k))) {
       FileChannel fc = s.getChannel();
       fc.position(skip);
@@ -25,7 +25,9 @@ abstract public class AST extends Iced {
 
     // First check if we're a top-level node of type astop
     if (this instanceof ASTOp) {
-      if (this instanceof ASTBinOp) {
+      if (ASTFuse.treeWalk(this, e)) {
+        // Nested elementwise ops, done in a single pass
+      } else if (this instanceof ASTBinOp) {
 
         // Exec the right branch
         _asts[1].treeWalk(e);
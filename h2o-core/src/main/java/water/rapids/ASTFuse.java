@@ -0,0 +1,185 @@
+package water.rapids;
+
+import water.MRTask;
+import water.fvec.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Fused evaluation of nested elementwise ops.
+ *
+ * Each elementwise op (+, *, log, >, ...) normally runs its own MRTask pass
+ * and writes a full temporary Frame, so e.g. <code>log(a*b+c) > 3</code>
+ * makes 4 passes and 3 temporaries.  Here the non-elementwise leaves of such
+ * an expression tree are evaluated as usual, then the whole tree is computed
+ * in one pass writing only the final Frame.  Inside the pass each chunk is
+ * evaluated a block at a time: every leaf column is decoded once, and every
+ * op runs over the whole block.
+ *
+ * The semantics are those of ASTUniOp.apply and ASTBinOp.apply over numeric
+ * columns, where an intermediate NaN would have been written out as an NA.
+ * Only trees whose leaves are all numbers or numeric Frames of one layout are
+ * fused, which is decided from the tree before anything is evaluated; other
+ * trees are walked as before, fusing any smaller nested trees they hold.
+ */
+class ASTFuse {
+  // Unary and binary ops using the default elementwise apply(), as opposed to
+  // the many ops which override apply() to do something else.
+  private static final ClassValue<Boolean> ELEMENTWISE = new ClassValue<Boolean>() {
+    @Override protected Boolean computeValue(Class<?> c) {
+      for( ; c != ASTUniOp.class && c != ASTBinOp.class; c = c.getSuperclass() )
+        try { c.getDeclaredMethod("apply", Env.class); return false; }
+        catch( NoSuchMethodException ignore ) { }
+      return true;
+    }
+  };
+
+  static boolean isElementwise( AST ast ) {
+    if( ast instanceof ASTBinOp )
+      return ast._asts != null && ast._asts.length == 2 && ELEMENTWISE.get(ast.getClass());
+    if( ast instanceof ASTUniPrefixOp )
+      return ast._asts != null && ast._asts.length == 1 && ELEMENTWISE.get(ast.getClass());
+    return false;
+  }
+
+  /** Walk a tree of at least 2 nested elementwise ops, leaving its result
+   *  on the stack.
+   *  @return false if ast is not such a tree, and nothing was done */
+  static boolean treeWalk( AST ast, Env e ) {
+    if( !isElementwise(ast) ) return false;
+    boolean nested = false;
+    for( AST a : ast._asts ) nested |= isElementwise(a);
+    if( !nested ) return false;
+
+    // Every leaf must be a number or a Frame of numeric columns, all Frames
+    // of the same shape and layout
+    ArrayList<AST> terms = new ArrayList<>();
+    terms(ast, terms);
+    Frame fr = null;            // Any one Frame leaf
+    for( AST a : terms ) {
+      if( a instanceof ASTNum ) continue;
+      if( !(a instanceof ASTFrame) ) return false; // Strings, slices, other ops...
+      Frame f = ((ASTFrame)a)._fr;
+      for( Vec vec : f.vecs() )
+        if( vec.isEnum() || vec.isString() || vec.isUUID() ) return false;
+      if( fr != null && !fr.checkCompatible(f) ) return false;
+      fr = f;
+    }
+    if( fr == null || fr.numCols() == 0 ) return false;
+
+    // Walk the leaves in the same order as AST.treeWalk, recording the ops in
+    // postfix order; leaves are recorded as nulls.
+    ArrayList<ASTOp> prog = new ArrayList<>();
+    int nleaves = walk(ast, e, prog);
+
+    // Leaves are now on the stack
+    Frame frs[] = new Frame[nleaves];
+    double cons[] = new double[nleaves];
+    for( int i=0; i<nleaves; i++ ) {
+      Val v = e.peekAt(i-(nleaves-1));
+      if( v instanceof ValNum ) cons[i] = ((ValNum)v)._d;
+      else frs[i] = ((ValFrame)v)._fr;
+    }
+
+    // One pass over all the Frame leaves side by side
+    final int ncols = fr.numCols();
+    Frame all = new Frame();
+    int leaf=0, col=0;
+    int leaves[] = new int[nleaves];
+    for( Frame f : frs ) {
+      leaves[leaf++] = f == null ? -1 : col;
+      if( f != null ) { all.add(f); col += ncols; }
+    }
+    ASTOp ops[] = new ASTOp[prog.size()];
+    for( int i=0; i<ops.length; i++ )  // Fresh ops, without the subtrees
+      if( prog.get(i) != null ) ops[i] = prog.get(i).make();
+    String names[] = names(prog, frs);
+    Frame res = new FusedTask(ops, leaves, cons).doAll(ncols, all).outputFrame(null, names, null);
+    e.poppush(nleaves, new ValFrame(res));
+    return true;
+  }
+
+  // The leaf terms under ast: its topmost non-elementwise nodes
+  private static void terms( AST ast, ArrayList<AST> terms ) {
+    if( !isElementwise(ast) ) terms.add(ast);
+    else for( AST a : ast._asts ) terms(a, terms);
+  }
+
+  // Walk the leaves as AST.treeWalk would: right before left for binary ops.
+  private static int walk( AST ast, Env e, ArrayList<ASTOp> prog ) {
+    if( !isElementwise(ast) ) {
+      ast.treeWalk(e);
+      prog.add(null);
+      return 1;
+    }
+    int n = ast instanceof ASTBinOp
+      ? walk(ast._asts[1], e, prog) + walk(ast._asts[0], e, prog)
+      : walk(ast._asts[0], e, prog);
+    prog.add((ASTOp)ast);
+    return n;
+  }
+
+  // Result column names, as the unfused ops would pick them: from the left
+  // operand if it is a Frame, else the right.
+  private static String[] names( ArrayList<ASTOp> prog, Frame frs[] ) {
+    String stk[][] = new String[prog.size()][];
+    int sp=0, leaf=0;
+    for( ASTOp op : prog ) {
+      if( op == null ) { Frame f = frs[leaf++]; stk[sp++] = f == null ? null : f._names; }
+      else if( op instanceof ASTBinOp ) { String l[] = stk[--sp]; String r[] = stk[--sp]; stk[sp++] = l != null ? l : r; }
+      // Unary ops keep their operand's names
+    }
+    return stk[0];
+  }
+
+  // The fused pass.  Ops are in postfix order with null for leaves; leaves[]
+  // holds the first column of a Frame leaf in the chunk array, or -1 for a
+  // number in cons[].
+  private static class FusedTask extends MRTask<FusedTask> {
+    final ASTOp _ops[];
+    final int _leaves[];
+    final double _cons[];
+    FusedTask( ASTOp ops[], int leaves[], double cons[] ) { _ops = ops; _leaves = leaves; _cons = cons; }
+
+    @Override public void map( Chunk chks[], NewChunk nchks[] ) {
+      final int len = chks[0]._len;
+      final double stk[][] = new double[_ops.length][];
+      final double tmp[][] = new double[_ops.length][]; // Spare arrays
+      int ntmp=0;
+      for( int c=0; c<nchks.length; c++ ) {
+        int sp=0, leaf=0;
+        for( int i=0; i<_ops.length; i++ ) {
+          final ASTOp op = _ops[i];
+          if( op == null ) {    // Push a leaf
+            double ds[] = ntmp > 0 ? tmp[--ntmp] : new double[len];
+            int l = _leaves[leaf];
+            if( l == -1 ) Arrays.fill(ds, _cons[leaf]);
+            else chks[l+c].getDoubles(ds, 0, len);
+            leaf++;
+            stk[sp++] = ds;
+          } else if( op instanceof ASTBinOp ) {
+            final ASTBinOp bin = (ASTBinOp)op;
+            final double ls[] = stk[--sp], rs[] = stk[--sp];
+            final boolean or = bin.opStr().equals("|"); // "|" sees NAs, all others yield NA
+            for( int r=0; r<len; r++ ) {
+              double lv = ls[r], rv = rs[r];
+              ls[r] = !or && (Double.isNaN(lv) || Double.isNaN(rv)) ? Double.NaN : bin.op(lv, rv);
+            }
+            tmp[ntmp++] = rs;
+            stk[sp++] = ls;
+          } else {
+            final ASTUniOp uni = (ASTUniOp)op;
+            final double ds[] = stk[sp-1];
+            for( int r=0; r<len; r++ ) ds[r] = uni.op(ds[r]);
+          }
+        }
+        assert sp == 1 : "Unbalanced fused ops";
+        final double ds[] = stk[0];
+        final NewChunk n = nchks[c];
+        for( int r=0; r<len; r++ ) n.addNum(ds[r]);
+        tmp[ntmp++] = ds;       // Reuse for the next column
+      }
+    }
+  }
+}
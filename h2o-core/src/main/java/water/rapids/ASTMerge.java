@@ -2,8 +2,11 @@ package water.rapids;
 
 import water.*;
 import water.fvec.*;
-import water.nbhm.*;
+import water.parser.ValueString;
+import water.util.ArrayUtils;
+
 import java.util.Arrays;
+import java.util.HashMap;
 
 
 /** plyr's merge: Join by any other name.
@@ -16,6 +19,17 @@ import java.util.Arrays;
  *  If allLeftFlag is true, all rows in the leftFrame will be included, even if
  *  there is no matching row in the rightFrame, and vice-versa for
  *  allRightFlag.  Missing data will appear as NAs.  Both flags can be true.
+ *  NA keys match other NA keys, as in R.
+ *
+ *  The result has the join columns, then the other left columns, then the
+ *  other right columns.  Rows come out grouped by key hash, not sorted.
+ *
+ *  <p>This is a distributed hash join.  Both frames are shuffled by a hash of
+ *  the join columns into partitions, each homed on one node; then every node
+ *  joins its own partitions with an open-addressing hash table over the
+ *  smaller side.  There are enough partitions that a single one fits easily
+ *  in memory; the shuffled rows wait in the K/V store, in batches of bounded
+ *  size, where they can be swapped to disk like any other Value.
  */
 public class ASTMerge extends ASTOp {
   static final String VARS[] = new String[]{ "ary", "leftary", "rightary", "allleft", "allright"};
@@ -59,197 +73,460 @@ public class ASTMerge extends ASTOp {
     Frame l = env.popAry();
     Frame r = env.popAry();
 
-    // Look for the set of columns in common; resort left & right to make the
-    // leading prefix of column names match.  Bail out if we find any weird
+    // Look for the set of columns in common.  Bail out if we find any weird
     // column types.
     int ncols=0;                // Number of columns in common
+    int lks[] = new int[l.numCols()], rks[] = new int[l.numCols()];
     for( int i=0; i<l._names.length; i++ ) {
       int idx = r.find(l._names[i]);
       if( idx != -1 ) {
-        l.swap(i  ,ncols);
-        r.swap(idx,ncols);
-        Vec lv = l.vecs()[ncols];
-        Vec rv = r.vecs()[ncols];
+        Vec lv = l.vecs()[i];
+        Vec rv = r.vecs()[idx];
         if( lv.get_type() != rv.get_type() )
-          throw new IllegalArgumentException("Merging columns must be the same type, column "+l._names[ncols]+
+          throw new IllegalArgumentException("Merging columns must be the same type, column "+l._names[i]+
                                              " found types "+lv.get_type_str()+" and "+rv.get_type_str());
-        if( lv.isString() )  
-          throw new IllegalArgumentException("Cannot merge Strings; flip toEnum first");
-        if( lv.isNumeric() && !lv.isInt())  
-          throw new IllegalArgumentException("Equality tests on doubles rarely work, please round to integers only before merging");
+        lks[ncols] = i;  rks[ncols] = idx;
         ncols++;
       }
     }
-    if( ncols == 0 ) 
+    if( ncols == 0 )
       throw new IllegalArgumentException("Frames must have at least one column in common to merge them");
+    if( ncols > 64 )
+      throw new IllegalArgumentException("Cannot merge on more than 64 columns, found "+ncols+" columns in common");
+    for( Frame fr : new Frame[]{l,r} )
+      for( int i=0; i<fr.numCols(); i++ )
+        if( fr.vecs()[i].isUUID() )
+          throw new IllegalArgumentException("Cannot merge frames with UUID columns, found "+fr._names[i]);
+
+    Frame res = new HashJoin(l,Arrays.copyOf(lks,ncols),r,Arrays.copyOf(rks,ncols),_allLeft,_allRite).join();
+    env.push(new ValFrame(res));
+  }
 
-    // Pick the frame to replicate & hash; smallest bytesize of the non-key
-    // columns.  Hashed dataframe is completely replicated per-node
-    long lsize = 0, rsize = 0;
-    for( int i=ncols; i<l.numCols(); i++ ) lsize += l.vecs()[i].byteSize();
-    for( int i=ncols; i<r.numCols(); i++ ) rsize += r.vecs()[i].byteSize();
-    Frame small = lsize < rsize ? l : r;
-    Frame large = lsize < rsize ? r : l;
-
-    // Build enum mappings, to rapidly convert enums from the larger
-    // distributed set to the smaller hashed & replicated set.
-    int[][] enum_maps = new int[ncols][];
-    int[][]   id_maps = new int[ncols][];
-    for( int i=0; i<ncols; i++ ) {
-      Vec lv = large.vecs()[i];
-      if( lv.isEnum() ) {
-        EnumWrappedVec ewv = new EnumWrappedVec(lv.domain(),small.vecs()[i].domain());
-        int[] ids = enum_maps[i] = ewv.enum_map();
-        DKV.remove(ewv._key);
-        // Build an Identity map for the smaller hash
-        id_maps[i] = new int[ids.length];
-        for( int j=0; j<ids.length; j++ )  id_maps[i][j] = j;
+  // Join column encodings.  Every join column is turned into a long (or a
+  // String), equal for equal keys in both frames.
+  static final byte K_LONG=0;   // Integers and times, as is; enums, as an index into the union domain
+  static final byte K_REAL=1;   // Doubles, by their bits
+  static final byte K_STR =2;   // Strings
+
+  // Fixed shuffle batch size in bytes, for testing; else sized by the heap
+  static long FLUSH_BYTES = 0;
+
+  /** The whole join: set up, shuffle both sides, join per-partition. */
+  private static class HashJoin {
+    final Frame _l, _r;
+    final int _lks[], _rks[];   // Join columns in each frame
+    final boolean _allLeft, _allRite;
+    HashJoin( Frame l, int lks[], Frame r, int rks[], boolean allLeft, boolean allRite ) {
+      _l = l; _lks = lks; _r = r; _rks = rks; _allLeft = allLeft; _allRite = allRite;
+    }
+
+    Frame join() {
+      final int ncols = _lks.length;
+      // Pick the join column encodings, and the enum union domains
+      byte kinds[] = new byte[ncols];
+      int lmaps[][] = new int[ncols][], rmaps[][] = new int[ncols][];
+      String kdoms[][] = new String[ncols][];
+      for( int i=0; i<ncols; i++ ) {
+        Vec lv = _l.vecs()[_lks[i]], rv = _r.vecs()[_rks[i]];
+        if( lv.isString() ) kinds[i] = K_STR;
+        else if( lv.isEnum() ) {
+          kinds[i] = K_LONG;
+          String dom[] = kdoms[i] = ArrayUtils.domainUnion(lv.domain(),rv.domain());
+          HashMap<String,Integer> ids = new HashMap<>();
+          for( int j=0; j<dom.length; j++ ) ids.put(dom[j],j);
+          lmaps[i] = new int[lv.domain().length];
+          for( int j=0; j<lmaps[i].length; j++ ) lmaps[i][j] = ids.get(lv.domain()[j]);
+          rmaps[i] = new int[rv.domain().length];
+          for( int j=0; j<rmaps[i].length; j++ ) rmaps[i][j] = ids.get(rv.domain()[j]);
+        } else kinds[i] = lv.isInt() && rv.isInt() ? K_LONG : K_REAL;
       }
+      Frame lfr = shuffleFrame(_l,_lks), rfr = shuffleFrame(_r,_rks);
+
+      // Enough partitions that one partition's worth of both sides is a small
+      // slice of the heap, and a few per core once each has a megabyte or so;
+      // small joins get one partition, and one output chunk, per node.
+      int nodes = H2O.CLOUD.size();
+      long bytes = lfr.byteSize()+rfr.byteSize();
+      long target = Math.max(1<<20, Runtime.getRuntime().maxMemory()/(4*H2O.NUMCPUS));
+      long perNode = Math.max(bytes/((long)nodes*target)+1, Math.min(2*H2O.NUMCPUS, bytes/((long)nodes<<20)));
+      int nparts = (int)Math.min(1<<16, nodes*perNode);
+      // Rows buffered per partition before being flushed to the K/V store,
+      // so a node holds at most an eighth of its heap of unflushed rows
+      long flush = FLUSH_BYTES > 0 ? FLUSH_BYTES : Math.max(1<<16, Runtime.getRuntime().maxMemory()/(8L*nparts));
+
+      String id = Key.make().toString();
+      Layout ll = new Layout(kinds,lfr,ncols), rl = new Layout(kinds,rfr,ncols);
+      new Shuffle(id,0,ll,lmaps,nparts,flush).doAll(lfr);
+      new Shuffle(id,1,rl,rmaps,nparts,flush).doAll(rfr);
+
+      // Result columns: join columns, then the other left & right columns
+      String names[] = ArrayUtils.append(Arrays.copyOf(lfr._names,ncols),
+                                         ArrayUtils.append(Arrays.copyOfRange(lfr._names,ncols,lfr.numCols()),
+                                                           Arrays.copyOfRange(rfr._names,ncols,rfr.numCols())));
+      Vec srcs[] = ArrayUtils.append(lfr.vecs(),Arrays.copyOfRange(rfr.vecs(),ncols,rfr.numCols()));
+      Key keys[] = new Vec.VectorGroup().addVecs(names.length);
+      AppendableVec avs[] = new AppendableVec[names.length];
+      for( int i=0; i<avs.length; i++ ) avs[i] = new AppendableVec(keys[i],new long[nparts],0);
+      Key parts[] = new Key[nparts];
+      for( int p=0; p<nparts; p++ ) parts[p] = partKey(id,p);
+      avs = new LocalJoin(id,ll,rl,_allLeft,_allRite,avs).doAll(parts)._avs;
+
+      Futures fs = new Futures();
+      Vec vecs[] = new Vec[avs.length];
+      for( int i=0; i<avs.length; i++ ) {
+        if( srcs[i].isEnum() ) avs[i].setDomain(i < ncols ? kdoms[i] : srcs[i].domain());
+        vecs[i] = avs[i].close(fs);
+        if( srcs[i].isTime() ) // Written out as plain numbers
+          DKV.put(vecs[i]._key, vecs[i] = new Vec(vecs[i]._key, vecs[i]._espc, null, srcs[i].get_type()), fs);
+      }
+      fs.blockForPending();
+      return new Frame(names,vecs);
     }
 
-    // MergeSet is from local (non-replicated) chunks/row to other-chunks/row.
-    // Row object in table has e.g. chunks and a row number; passed-in Row
-    // object can also have chunks & a row number.  Hash based on contents of
-    // chunks.  Returns matched Row object (which has replicated chunk ptrs & row).
-    Key uniq = new MergeSet(ncols,id_maps,small).doAllNodes()._uniq;
-
-    // run a global parallel work: lookup non-hashed rows in hashSet; find
-    // matching row; append matching column data
-    String[]   names  = Arrays.copyOfRange(small._names   ,ncols,small._names.length-ncols+1);
-    String[][] domains= Arrays.copyOfRange(small.domains(),ncols,small._names.length-ncols+1);
-    Frame res = new DoJoin(ncols,uniq,enum_maps,_allLeft).doAll(small.numCols()-ncols,large).outputFrame(names,domains);
-    Frame res2 = large.add(res);
-    System.out.println(res2);
-    env.push(new ValFrame(res2));
+    // Join columns first, then the rest, and no columns loaded twice
+    private static Frame shuffleFrame( Frame fr, int ks[] ) {
+      Frame res = new Frame();
+      boolean isKey[] = new boolean[fr.numCols()];
+      for( int k : ks ) { res.add(fr._names[k],fr.vecs()[k]); isKey[k] = true; }
+      for( int i=0; i<fr.numCols(); i++ )
+        if( !isKey[i] ) res.add(fr._names[i],fr.vecs()[i]);
+      return res;
+    }
   }
 
-  // One Row object per row of the smaller dataset, so kept as small as
-  // possible.  The _chks[] array is shared across many Rows.
-  private static class Row {
-    public final Chunk _chks[]; // Chunks
-    public int[][] _enum_maps;
-    public int _row;    // Row in chunk
-    public int _hash;
-    Row( Chunk chks[] ) { _chks = chks; }
-    Row fill( int row, int ncols, int[][] enum_maps ) {
-      _row = row; 
-      _enum_maps = enum_maps;
-      // Precompute hash: columns are integer only (checked before we started
-      // here).  NAs count as a zero for hashing.
-      long hash = 0;
-      for( int i=0; i<ncols; i++ ) {
-        if( _chks[i].isNA(_row) ) continue;
-        long l = _chks[i].at8(_row);
-        hash += enum_maps[i]==null ? l : enum_maps[i][(int)l];
+  /** Shape of the rows of one side: the join columns (encoded as long or
+   *  String), then the other columns (as double or String). */
+  private static class Layout extends Iced {
+    final byte _kinds[];        // Encoding per join column
+    final boolean _strs[];      // Per non-join column, String or not
+    final int _nlong, _nstrk, _nval, _nstr; // Column counts per storage
+    Layout( byte kinds[], Frame fr, int ncols ) {
+      _kinds = kinds;
+      int nstrk=0;
+      for( byte k : kinds ) if( k == K_STR ) nstrk++;
+      _nstrk = nstrk;  _nlong = kinds.length-nstrk;
+      _strs = new boolean[fr.numCols()-ncols];
+      int nstr=0;
+      for( int i=0; i<_strs.length; i++ ) if( _strs[i] = fr.vecs()[ncols+i].isString() ) nstr++;
+      _nstr = nstr;  _nval = _strs.length-nstr;
+    }
+  }
+
+  /** A batch of rows, all from one side, in primitive arrays. */
+  private static class Rows extends Iced {
+    final Layout _lay;
+    int _n;                     // Rows
+    long _bytes;                // Rough heap size of the rows
+    long _nas[];                // Per row, bit i set if join column i is NA
+    long _keys[];               // Per row, the long-encoded join columns
+    String _skeys[];            // Per row, the String join columns
+    double _vals[];             // Per row, the numeric other columns
+    String _svals[];            // Per row, the String other columns
+    Rows( Layout lay, int cap ) {
+      _lay = lay;
+      cap = Math.max(cap,1);
+      _nas = new long[cap];
+      _keys = new long[cap*lay._nlong];
+      _skeys = new String[cap*lay._nstrk];
+      _vals = new double[cap*lay._nval];
+      _svals = new String[cap*lay._nstr];
+    }
+
+    private void grow( int n ) {
+      if( n <= _nas.length ) return;
+      int cap = Math.max(n,_nas.length<<1);
+      _nas = Arrays.copyOf(_nas,cap);
+      _keys = Arrays.copyOf(_keys,cap*_lay._nlong);
+      _skeys = Arrays.copyOf(_skeys,cap*_lay._nstrk);
+      _vals = Arrays.copyOf(_vals,cap*_lay._nval);
+      _svals = Arrays.copyOf(_svals,cap*_lay._nstr);
+    }
+
+    // Rough heap size of row i: the primitives, plus the Strings
+    long rowBytes( int i ) {
+      final Layout lay = _lay;
+      long b = 8L*(1+lay._nlong+lay._nval);
+      for( int j=i*lay._nstrk; j<(i+1)*lay._nstrk; j++ ) b += _skeys[j]==null ? 8 : 48+2*_skeys[j].length();
+      for( int j=i*lay._nstr ; j<(i+1)*lay._nstr ; j++ ) b += _svals[j]==null ? 8 : 48+2*_svals[j].length();
+      return b;
+    }
+
+    // Append row i of rs
+    void add( Rows rs, int i ) {
+      grow(_n+1);
+      final Layout lay = _lay;
+      _bytes += rs.rowBytes(i);
+      _nas[_n] = rs._nas[i];
+      System.arraycopy(rs._keys ,i*lay._nlong,_keys ,_n*lay._nlong,lay._nlong);
+      System.arraycopy(rs._skeys,i*lay._nstrk,_skeys,_n*lay._nstrk,lay._nstrk);
+      System.arraycopy(rs._vals ,i*lay._nval ,_vals ,_n*lay._nval ,lay._nval );
+      System.arraycopy(rs._svals,i*lay._nstr ,_svals,_n*lay._nstr ,lay._nstr );
+      _n++;
+    }
+    // Append all of rs
+    void addAll( Rows rs ) {
+      grow(_n+rs._n);
+      final Layout lay = _lay;
+      System.arraycopy(rs._nas  ,0,_nas  ,_n          ,rs._n);
+      System.arraycopy(rs._keys ,0,_keys ,_n*lay._nlong,rs._n*lay._nlong);
+      System.arraycopy(rs._skeys,0,_skeys,_n*lay._nstrk,rs._n*lay._nstrk);
+      System.arraycopy(rs._vals ,0,_vals ,_n*lay._nval ,rs._n*lay._nval );
+      System.arraycopy(rs._svals,0,_svals,_n*lay._nstr ,rs._n*lay._nstr );
+      _n += rs._n;
+      _bytes += rs._bytes;
+    }
+
+    // Hash of the join columns of row i.  NA columns hash as zero.
+    int hash( int i ) {
+      long h = _nas[i];
+      for( int j=i*_lay._nlong; j<(i+1)*_lay._nlong; j++ ) h = h*0x9E3779B97F4A7C15L + _keys[j];
+      for( int j=i*_lay._nstrk; j<(i+1)*_lay._nstrk; j++ ) h = h*31 + (_skeys[j]==null ? 0 : _skeys[j].hashCode());
+      h ^= h>>>33;  h *= 0xff51afd7ed558ccdL;  h ^= h>>>33; // Mix well; the low bits pick the partition
+      return (int)h;
+    }
+
+    // Same join columns in row i here and row j of rs.  Both sides' join
+    // columns are encoded alike, so Rows from either side compare.
+    boolean keyEquals( int i, Rows rs, int j ) {
+      if( _nas[i] != rs._nas[j] ) return false;
+      final int nl = _lay._nlong, ns = _lay._nstrk;
+      for( int c=0; c<nl; c++ ) if( _keys[i*nl+c] != rs._keys[j*nl+c] ) return false;
+      for( int c=0; c<ns; c++ ) {
+        String a = _skeys[i*ns+c], b = rs._skeys[j*ns+c];
+        if( a == null ? b != null : !a.equals(b) ) return false;
+      }
+      return true;
+    }
+  }
+
+  // The node joining a partition
+  static H2ONode partHome( int part ) { return H2O.CLOUD._memary[part % H2O.CLOUD.size()]; }
+
+  // Name of the K/V key holding one batch of rows of one side, for one
+  // partition, sent from one node.  Homed on the node joining that partition.
+  // A node's batches for a partition are numbered from 0 up.
+  static Key shuffleKey( String id, int side, int part, int from, int batch ) {
+    return Key.make(id+"_"+side+"_"+part+"_"+from+"_"+batch,(byte)1,Key.HIDDEN_USER_KEY,true,partHome(part));
+  }
+
+  // Name of the key standing for one partition in the join, holding nothing
+  static Key partKey( String id, int part ) {
+    return Key.make(id+"_"+part,(byte)1,Key.HIDDEN_USER_KEY,true,partHome(part));
+  }
+  static int partOf( Key k ) { String s = k.toString(); return Integer.parseInt(s.substring(s.lastIndexOf('_')+1)); }
+
+  /** Hash-partition all rows of one side.  Rows are gathered per-node, and a
+   *  partition's batch is written into the K/V store whenever it outgrows the
+   *  flush size, and once more at the end. */
+  private static class Shuffle extends MRTask<Shuffle> {
+    final String _id;
+    final int _side;            // 0 for left, 1 for right
+    final Layout _lay;
+    final int _maps[][];        // Per enum join column, map to the union domain
+    final int _nparts;
+    final long _flush;          // Batch size in bytes written out early
+    transient Rows _parts[];    // Per-node shared, one batch per partition
+    transient int _batches[];   // Per-node shared, batches written per partition
+    transient Object _locks[];  // Guarding _parts and _batches, per partition
+    Shuffle( String id, int side, Layout lay, int maps[][], int nparts, long flush ) {
+      _id = id; _side = side; _lay = lay; _maps = maps; _nparts = nparts; _flush = flush;
+    }
+
+    @Override protected void setupLocal() {
+      _parts = new Rows[_nparts];
+      _batches = new int[_nparts];
+      _locks = new Object[_nparts];
+      for( int p=0; p<_nparts; p++ ) { _parts[p] = new Rows(_lay,0); _locks[p] = new Object(); }
+    }
+
+    @Override public void map( Chunk chks[] ) {
+      final Layout lay = _lay;
+      final int len = chks[0]._len;
+      final int nk = lay._kinds.length;
+      Rows rs = new Rows(lay,len);  // This chunk, in row order
+      ValueString vstr = new ValueString();
+      double ds[] = new double[len];
+      // Join columns
+      for( int c=0, lc=0, sc=0; c<nk; c++ ) {
+        final Chunk chk = chks[c];
+        final byte kind = lay._kinds[c];
+        for( int r=0; r<len; r++ ) {
+          if( chk.isNA(r) ) { rs._nas[r] |= 1L<<c; continue; }
+          switch( kind ) {
+          case K_LONG: long l = chk.at8(r);  rs._keys[r*lay._nlong+lc] = _maps[c]==null ? l : _maps[c][(int)l]; break;
+          case K_REAL: double d = chk.atd(r);  rs._keys[r*lay._nlong+lc] = Double.doubleToLongBits(d==0 ? 0 : d); break; // -0.0 == 0.0
+          case K_STR : rs._skeys[r*lay._nstrk+sc] = chk.atStr(vstr,r).toString(); break;
+          }
+        }
+        if( kind == K_STR ) sc++; else lc++;
       }
-      _hash = (int)(hash^(hash>>32));
-      return this;
-    }
-    @Override public int hashCode() { return _hash; }
-    @Override public boolean equals( Object o ) {
-      assert o instanceof Row;
-      Row r = (Row)o;
-      if( _hash != r._hash ) return false;
-      if( _chks == r._chks && _row == r._row ) return true;
-      // Now must check field contents
-      int len = _enum_maps.length;
-      for( int c=0; c<len; c++ ) {
-        boolean lb = _chks[c].isNA(_row), rb = r._chks[c].isNA(r._row);
-        if( lb && rb ) continue;     // Both NA, count as equal
-        if( lb || rb ) return false; // One NA, one not - count as unequal
-        // Check longs for equality (thru the enum maps, if needed)
-        long ll = _chks[c].at8(_row), rl = r._chks[c].at8(r._row);
-        if( _enum_maps[c] == null ) {
-          if( ll != rl ) return false;
+      // Other columns
+      for( int c=0, vc=0, sc=0; c<lay._strs.length; c++ ) {
+        final Chunk chk = chks[nk+c];
+        if( lay._strs[c] ) {
+          for( int r=0; r<len; r++ )
+            rs._svals[r*lay._nstr+sc] = chk.isNA(r) ? null : chk.atStr(vstr,r).toString();
+          sc++;
         } else {
-          if( _enum_maps[c][(int) ll] != r._enum_maps[c][(int) rl] ) return false;
+          chk.getDoubles(ds,0,len);
+          for( int r=0; r<len; r++ ) rs._vals[r*lay._nval+vc] = ds[r];
+          vc++;
         }
       }
-      return true;
+      rs._n = len;
+      // Split by partition, then add to the node's batches
+      Rows parts[] = new Rows[_nparts];
+      for( int r=0; r<len; r++ ) {
+        int p = (rs.hash(r)&Integer.MAX_VALUE) % _nparts;
+        if( parts[p] == null ) parts[p] = new Rows(lay,4);
+        parts[p].add(rs,r);
+      }
+      final int self = H2O.SELF.index();
+      for( int p=0; p<_nparts; p++ ) {
+        if( parts[p] == null ) continue;
+        Rows full = null;
+        int batch = 0;
+        synchronized(_locks[p]) {
+          _parts[p].addAll(parts[p]);
+          if( _parts[p]._bytes >= _flush ) {
+            full = _parts[p];
+            _parts[p] = new Rows(lay,0);
+            batch = _batches[p]++;
+          }
+        }
+        if( full != null ) DKV.put(shuffleKey(_id,_side,p,self,batch),full,_fs);
+      }
+    }
+
+    // Ship this node's last batches to their partitions' homes
+    @Override protected void closeLocal() {
+      Futures fs = new Futures();
+      int self = H2O.SELF.index();
+      for( int p=0; p<_nparts; p++ )
+        if( _parts[p]._n > 0 )
+          DKV.put(shuffleKey(_id,_side,p,self,_batches[p]++),_parts[p],fs);
+      _parts = null;
+      fs.blockForPending();
     }
   }
 
-  // Build a HashSet of one entire Frame, where the Key is the contents of the
-  // first few columns.  One entry-per-row.
-  private static class MergeSet extends MRTask<MergeSet> {
-    // All active Merges have a per-Node hashset of one of the datasets
-    static NonBlockingHashMap<Key,MergeSet> MERGE_SETS = new NonBlockingHashMap<>();
-    final Key _uniq;      // Key to allow sharing of this MergeSet on each Node
-    final int _ncols;     // Number of leading columns for the Hash Key
-    final int[][] _id_maps;
-    final Frame _fr;      // Frame to hash-all-rows locally per-node
-    transient NonBlockingHashSet<Row> _rows;
-
-    MergeSet( int ncols, int[][] id_maps, Frame fr ) { 
-      _uniq=Key.make();  _ncols = ncols;  _id_maps = id_maps; _fr = fr; 
-    }
-    // Per-node, hash the entire _fr dataset
-    @Override public void setupLocal() {
-      MERGE_SETS.put(_uniq,this);
-      _rows = new NonBlockingHashSet<>();
-      new MakeHash(this).doAll(_fr,true/*run locally*/);
-    }
-
-    // Executed locally only, build a local HashSet over the entire given dataset
-    private static class MakeHash extends MRTask<MakeHash> {
-      transient final MergeSet _ms;
-      MakeHash( MergeSet ms ) { _ms = ms; }
-      @Override public void map( Chunk chks[] ) {
-        int len = chks[0]._len;
-        for( int i=0; i<len; i++ ) {
-          Row row = new Row(chks).fill(i,_ms._ncols,_ms._id_maps);
-          boolean added = _ms._rows.add(row);
-          if( !added ) { // dup handling?  Need to gather absolute rows in Row
-            Row other = _ms._rows.get(row);
-            /*
-            ... bikes is small, weather is big (4x bigger, 2x more cols?)
-            bikes gets replicated locally; based on Days - and has 1
-            day-per-station, so about 340 rows for each unique Day
-
-            weather: did it per-hour, but now need to average per-hour to get a per-day value
-
-            
-            */
-            throw H2O.unimpl();
+  /** Join each partition on its home node, writing one output chunk per
+   *  partition.  Runs over one key per partition, so the partitions fan out
+   *  over the cores like the chunks of a Frame. */
+  private static class LocalJoin extends MRTask<LocalJoin> {
+    final String _id;
+    final Layout _ll, _rl;
+    final boolean _allLeft, _allRite;
+    AppendableVec _avs[];       // Output columns
+    LocalJoin( String id, Layout ll, Layout rl, boolean allLeft, boolean allRite, AppendableVec avs[] ) {
+      _id = id; _ll = ll; _rl = rl; _allLeft = allLeft; _allRite = allRite; _avs = avs;
+    }
+
+    @Override public void map( Key k ) { joinPart(partOf(k),_fs); }
+
+    @Override public void reduce( LocalJoin lj ) {
+      if( _avs != lj._avs )
+        for( int i=0; i<_avs.length; i++ ) _avs[i].reduce(lj._avs[i]);
+    }
+
+    // Gather one side of a partition, all batches from all nodes
+    private Rows gather( int side, int p, Layout lay, Futures fs ) {
+      Rows rows = new Rows(lay,0);
+      for( int n=0; n<H2O.CLOUD.size(); n++ ) {
+        for( int b=0; ; b++ ) {
+          Key k = shuffleKey(_id,side,p,n,b);
+          Rows rs = DKV.getGet(k);
+          if( rs == null ) break;
+          rows.addAll(rs);
+          DKV.remove(k,fs);
+        }
+      }
+      return rows;
+    }
+
+    private void joinPart( int p, Futures fs ) {
+      final Rows lrs = gather(0,p,_ll,fs), rrs = gather(1,p,_rl,fs);
+      NewChunk ncs[] = new NewChunk[_avs.length];
+      for( int i=0; i<ncs.length; i++ ) ncs[i] = new NewChunk(_avs[i],p);
+      ValueString vstr = new ValueString();
+
+      // Open-addressing table over the smaller side: slots hold a row+1 per
+      // distinct key, duplicate keys are chained through next[].
+      final boolean buildLeft = lrs._n < rrs._n;
+      final Rows build = buildLeft ? lrs : rrs, probe = buildLeft ? rrs : lrs;
+      int cap = Integer.highestOneBit(Math.max(2,build._n)*2);
+      final int slots[] = new int[cap], next[] = new int[build._n], hashes[] = new int[build._n];
+      for( int i=0; i<build._n; i++ ) {
+        int h = hashes[i] = build.hash(i);
+        int s = h & (cap-1);
+        next[i] = -1;
+        while( true ) {
+          int j = slots[s]-1;
+          if( j == -1 ) { slots[s] = i+1; break; }
+          if( hashes[j] == h && build.keyEquals(j,build,i) ) { next[i] = next[j]; next[j] = i; break; }
+          s = (s+1) & (cap-1);
+        }
+      }
+
+      // Probe
+      final boolean allBuild = buildLeft ? _allLeft : _allRite;
+      final boolean allProbe = buildLeft ? _allRite : _allLeft;
+      final boolean matched[] = allBuild ? new boolean[build._n] : null;
+      for( int i=0; i<probe._n; i++ ) {
+        int h = probe.hash(i);
+        int s = h & (cap-1), j;
+        while( (j = slots[s]-1) != -1 && !(hashes[j] == h && build.keyEquals(j,probe,i)) )
+          s = (s+1) & (cap-1);
+        if( j == -1 ) {
+          if( allProbe ) emit(ncs,vstr,buildLeft ? null : lrs,buildLeft ? -1 : i,buildLeft ? rrs : null,buildLeft ? i : -1);
+        } else {
+          for( ; j != -1; j = next[j] ) {
+            if( matched != null ) matched[j] = true;
+            emit(ncs,vstr,lrs,buildLeft ? j : i,rrs,buildLeft ? i : j);
           }
         }
       }
+      if( matched != null )     // Unmatched rows of the build side
+        for( int j=0; j<build._n; j++ )
+          if( !matched[j] )
+            emit(ncs,vstr,buildLeft ? lrs : null,buildLeft ? j : -1,buildLeft ? null : rrs,buildLeft ? -1 : j);
+      for( NewChunk nc : ncs ) nc.close(p,fs);
     }
-  }
 
-  // Build the join-set by iterating over all the local Chunks of the larger
-  // dataset, doing a hash-lookup on the smaller replicated dataset, and adding
-  // in the matching columns.
-  private static class DoJoin extends MRTask<DoJoin> {
-    private final int _ncols;     // Number of merge columns
-    private final Key _uniq;      // Which mergeset being merged
-    private final int[][] _enum_maps; // Mapping enum domains
-    private final boolean _allLeft;
-    DoJoin( int ncols, Key uniq, int[][] enum_maps, boolean allLeft ) {
-      _ncols = ncols; _uniq = uniq; _enum_maps = enum_maps;_allLeft = allLeft;
-    }
-    @Override public void map( Chunk chks[], NewChunk nchks[] ) {
-      // Shared common hash map
-      NonBlockingHashSet<Row> rows = MergeSet.MERGE_SETS.get(_uniq)._rows;
-      int len = chks[0]._len;
-      Row row = new Row(chks);  // Recycled Row object on the bigger dataset
-      for( int i=0; i<len; i++ ) {
-        Row smaller = rows.get(row.fill(i,_ncols,_enum_maps));
-        if( smaller == null ) { // Smaller is missing
-          if( _allLeft )        // But need all of larger, so force a NA row
-            for( NewChunk nc : nchks ) nc.addNA();
-          else
-            throw H2O.unimpl(); // Need to remove larger row
+    // Append one result row: join columns from whichever side is present,
+    // then the left and right other columns, NA for a missing side.
+    private void emit( NewChunk ncs[], ValueString vstr, Rows lrs, int li, Rows rrs, int ri ) {
+      final Rows krs = lrs != null ? lrs : rrs;
+      final int ki = lrs != null ? li : ri;
+      final Layout kl = krs._lay;
+      int col=0;
+      for( int c=0, lc=0, sc=0; c<kl._kinds.length; c++ ) {
+        NewChunk nc = ncs[col++];
+        boolean na = (krs._nas[ki] & (1L<<c)) != 0;
+        switch( kl._kinds[c] ) {
+        case K_LONG: if( na ) nc.addNA(); else nc.addNum(krs._keys[ki*kl._nlong+lc],0); lc++; break;
+        case K_REAL: if( na ) nc.addNA(); else nc.addNum(Double.longBitsToDouble(krs._keys[ki*kl._nlong+lc])); lc++; break;
+        case K_STR : nc.addStr(na ? null : vstr.setTo(krs._skeys[ki*kl._nstrk+sc])); sc++; break;
+        }
+      }
+      col = emitVals(ncs,col,vstr,_ll,lrs,li);
+      emitVals(ncs,col,vstr,_rl,rrs,ri);
+    }
+
+    private static int emitVals( NewChunk ncs[], int col, ValueString vstr, Layout lay, Rows rs, int i ) {
+      for( int c=0, vc=0, sc=0; c<lay._strs.length; c++ ) {
+        NewChunk nc = ncs[col++];
+        if( lay._strs[c] ) {
+          String s = rs == null ? null : rs._svals[i*lay._nstr+sc];
+          nc.addStr(s == null ? null : vstr.setTo(s));
+          sc++;
         } else {
-          // Copy fields from matching smaller set into larger set
-          assert smaller._chks.length == _ncols + nchks.length;
-          for( int c = 0; c < nchks.length; c++ )
-            nchks[c].addNum(smaller._chks[_ncols + c].atd(smaller._row));
+          double d = rs == null ? Double.NaN : rs._vals[i*lay._nval+vc];
+          if( Double.isNaN(d) ) nc.addNA(); else nc.addNum(d);
+          vc++;
         }
       }
+      return col;
     }
-    // Cleanup after last pass
-    @Override public void closeLocal() { MergeSet.MERGE_SETS.remove(_uniq);  }
   }
-
 }
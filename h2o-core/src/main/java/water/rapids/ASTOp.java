@@ -1072,6 +1072,9 @@ abstract class ASTBinOp extends ASTOp {
       fr = new Frame(fr1);
     }
     final ASTBinOp bin = this;  // Final 'this' so can use in closure
+    // Comparing a column to a number: chunks whose zone map settles the
+    // answer are filled in without being decoded
+    final int[][] zones = lf != rf && (lf ? sf1 : sf0) == null ? zones(fr, lf, lf ? df1 : df0) : null;
 
     // Run an arbitrary binary op on one or two frames & scalars
     Frame fr2 = new MRTask() {
@@ -1080,6 +1083,12 @@ abstract class ASTBinOp extends ASTOp {
           NewChunk n =nchks[i];
           int rlen = chks[0]._len;
           Chunk c0 = chks[i];
+          int z = zones == null || zones[i] == null ? ZONE_SCAN : zones[i][c0.cidx()];
+          if( z != ZONE_SCAN ) {
+            if( z == ZONE_FALSE ) n.addZeros(rlen);
+            else for( int r=0; r<rlen; r++ ) if( z == ZONE_TRUE ) n.addNum(1,0); else n.addNA();
+            continue;
+          }
           if( (!c0.vec().isEnum() &&
                   !(lf && rf && chks[i+nchks.length].vec().isEnum())) ||
                   bin instanceof ASTEQ ||
@@ -1103,7 +1112,7 @@ abstract class ASTBinOp extends ASTOp {
 
               // Initialize the rhs value
               if (rf) {
-                if(chks[i+(lf ? nchks.length:0)].vec().isUUID() || chks[i].isNA(ro) && !bin.opStr().equals("|")) { n.addNum(Double.NaN); continue; }
+                if(chks[i+(lf ? nchks.length:0)].vec().isUUID() || chks[i+(lf ? nchks.length:0)].isNA(ro) && !bin.opStr().equals("|")) { n.addNum(Double.NaN); continue; }
                 if (chks[i].vec().isEnum()) r = chks[i].vec().domain()[(int)chks[i].atd(ro)];
                 else rv = chks[i+(lf ? nchks.length:0)].atd(ro);
               } else if (sf1 == null) {
@@ -1128,6 +1137,38 @@ abstract class ASTBinOp extends ASTOp {
     }.doAll(ncols,fr).outputFrame(null, (lf ? fr0 : fr1)._names,null);
     env.poppush(2, new ValFrame(fr2));
   }
+
+  // Per-column, per-chunk outcome of a comparison with a number d, from the
+  // zone maps: every row false, true or NA, or the chunk must be scanned.
+  // Null if not a comparison, or no column has zone maps.
+  private static final int ZONE_SCAN=0, ZONE_FALSE=1, ZONE_TRUE=2, ZONE_NA=3;
+  private int[][] zones( Frame fr, boolean left, double d ) {
+    boolean ordered = this instanceof ASTLT || this instanceof ASTLE || this instanceof ASTGT || this instanceof ASTGE;
+    if( (!ordered && !(this instanceof ASTEQ) && !(this instanceof ASTNE)) || Double.isNaN(d) ) return null;
+    int[][] zones = new int[fr.numCols()][];
+    boolean any = false;
+    for( int c=0; c<zones.length; c++ ) {
+      Vec vec = fr.vec(c);
+      if( vec.isEnum() || vec.isString() || vec.isUUID() ) continue;
+      double[] mins = vec.chunkMins(), maxs = vec.chunkMaxs();
+      int[] nas = vec.chunkNAs();
+      if( mins == null || maxs == null || nas == null ) continue;
+      int[] z = zones[c] = new int[mins.length];
+      for( int k=0; k<z.length; k++ ) {
+        double lo = mins[k], hi = maxs[k];
+        if( Double.isNaN(lo) ) { if( nas[k] > 0 ) z[k] = ZONE_NA; continue; } // No values: all NA
+        if( nas[k] > 0 ) continue;
+        double a = left ? op(lo,d) : op(d,lo), b = left ? op(hi,d) : op(d,hi);
+        // Ordered comparisons are monotonic over [lo,hi]; (in)equality is
+        // only settled if d lies outside, or the chunk is constant
+        if( a == b && (ordered || lo == hi || d < lo || d > hi) )
+          z[k] = a == 0 ? ZONE_FALSE : ZONE_TRUE;
+      }
+      any = true;
+    }
+    return any ? zones : null;
+  }
+
   @Override public String toString() { return "("+opStr()+" "+Arrays.toString(_asts)+")"; }
 }
 
@@ -28,7 +28,11 @@ public class ChunkSummary extends MRTask<ChunkSummary> {
     "C4F",
     "C8",
     "C16",                      // UUID
+    "CFOR",                     // Frame-of-reference longs
+    "CRLE",                     // Run-length encoded
+    "CBP",                      // Bit-packed ints
     "CStr",                     // Strings
+    "CStrDict",                 // Dictionary-encoded strings
     "CXD",                      // Sparse doubles
     "C8D",                      //leave this as last -> no compression
   };
@@ -2,7 +2,11 @@ package water.util;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import water.*;
+import water.H2O.H2OCountedCompleter;
 import water.fvec.*;
 import water.persist.PersistNFS;
 
@@ -23,33 +27,45 @@ public class FileIntegrityChecker extends MRTask<FileIntegrityChecker> {
   @Override public void reduce( FileIntegrityChecker o ) { ArrayUtils.add(_ok,o._ok); }
   @Override public byte priority() { return H2O.GUI_PRIORITY; }
 
-  private void addFolder(File folder, ArrayList<File> filesInProgress ) {
-    if( !folder.canRead() ) return;
-    File[] files = folder.listFiles();
-    if( files != null ) {
-      for( File f : files ) {
-        if( !f.canRead() ) continue; // Ignore unreadable files
-        if( f.isHidden() && !folder.isHidden() )
-          continue;             // Do not dive into hidden dirs unless asked
-        if (f.isDirectory())
-          addFolder(f,filesInProgress);
-        else
-          filesInProgress.add(f);
+  // Lists one folder, forking a task per sub-folder, so that trees of many
+  // folders list in parallel.  Files go into a shared queue, in no order.
+  private static class ListFolder extends H2OCountedCompleter<ListFolder> {
+    final File _folder;
+    final Queue<File> _files;
+    ListFolder( H2OCountedCompleter cc, File folder, Queue<File> files ) { super(cc); _folder = folder; _files = files; }
+    @Override public void compute2() {
+      if( _folder.canRead() ) {
+        File[] files = _folder.listFiles();
+        if( files != null ) {
+          for( File f : files ) {
+            if( !f.canRead() ) continue; // Ignore unreadable files
+            if( f.isHidden() && !_folder.isHidden() )
+              continue;             // Do not dive into hidden dirs unless asked
+            if( f.isDirectory() ) {
+              addToPendingCount(1);
+              new ListFolder(this,f,_files).fork();
+            } else
+              _files.add(f);
+          }
+        } else {
+          _files.add(_folder);
+        }
       }
-    } else {
-      filesInProgress.add(folder);
+      tryComplete();
     }
   }
 
   public static FileIntegrityChecker check(File r) {  return new FileIntegrityChecker(r).doAllNodes(); }
 
   public FileIntegrityChecker(File root) {
-    ArrayList<File> filesInProgress = new ArrayList<>();
-    addFolder(root,filesInProgress);
-    _files = new String[filesInProgress.size()];
-    _sizes = new long[filesInProgress.size()];
+    ConcurrentLinkedQueue<File> q = new ConcurrentLinkedQueue<>();
+    H2O.submitTask(new ListFolder(null,root,q)).join();
+    File[] filesInProgress = q.toArray(new File[q.size()]);
+    Arrays.sort(filesInProgress); // Same order for every listing
+    _files = new String[filesInProgress.length];
+    _sizes = new long[filesInProgress.length];
     for( int i = 0; i < _files.length; ++i ) {
-      File f = filesInProgress.get(i);
+      File f = filesInProgress[i];
       _files[i] = f.getAbsolutePath();
       _sizes[i] = f.length();
     }
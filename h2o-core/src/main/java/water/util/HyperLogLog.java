@@ -0,0 +1,61 @@
+package water.util;
+
+import water.Iced;
+
+/**
+ * A mergeable HyperLogLog sketch (Flajolet et al.) of the count of distinct
+ * values, in 2^P one-byte registers: about 1.6% standard error whatever the
+ * count, in 4KB.  Values are added as 64-bit hashes; sketches of any parts of
+ * the data merge into a sketch of the whole.
+ */
+public class HyperLogLog extends Iced {
+  static final int P = 12, M = 1<<P;
+  private final byte[] _regs = new byte[M];
+
+  /** Add a value, as its 64-bit hash (see the {@code hash} methods) */
+  public HyperLogLog add( long hash ) {
+    int idx = (int)(hash>>>(64-P));
+    int rank = Long.numberOfLeadingZeros((hash<<P)|(1L<<(P-1)))+1;
+    if( rank > _regs[idx] ) _regs[idx] = (byte)rank;
+    return this;
+  }
+
+  /** Add all the values of another sketch */
+  public HyperLogLog add( HyperLogLog hll ) {
+    for( int i=0; i<M; i++ )
+      if( hll._regs[i] > _regs[i] ) _regs[i] = hll._regs[i];
+    return this;
+  }
+
+  /** @return the estimated count of distinct values added */
+  public long estimate() {
+    double sum = 0;
+    int zeros = 0;
+    for( byte r : _regs ) {
+      sum += 1.0/(1L<<r);
+      if( r == 0 ) zeros++;
+    }
+    double e = 0.7213/(1+1.079/M)*M*M/sum;
+    // Small counts: linear counting over the empty registers is better
+    if( e <= 2.5*M && zeros > 0 ) e = M*Math.log((double)M/zeros);
+    return Math.round(e);
+  }
+
+  // Mix all bits of a long into all bits (the murmur3 finalizer)
+  private static long mix( long h ) {
+    h ^= h>>>33;  h *= 0xff51afd7ed558ccdL;
+    h ^= h>>>33;  h *= 0xc4ceb9fe1a85ec53L;
+    return h^(h>>>33);
+  }
+  /** @return a 64-bit hash of a number; -0.0 hashes as 0.0 */
+  public static long hash( double d ) { return mix(Double.doubleToLongBits(d == 0 ? 0.0 : d)); }
+  /** @return a 64-bit hash of a UUID */
+  public static long hash( long lo, long hi ) { return mix(lo^mix(hi)); }
+  /** @return a 64-bit hash of len bytes of buf from off */
+  public static long hash( byte[] buf, int off, int len ) {
+    long h = 0xcbf29ce484222325L; // FNV-1a
+    for( int i=off; i<off+len; i++ )
+      h = (h^(buf[i]&0xFF))*0x100000001b3L;
+    return mix(h^len);
+  }
+}
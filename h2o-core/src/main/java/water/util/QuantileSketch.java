@@ -0,0 +1,132 @@
+package water.util;
+
+import java.util.Arrays;
+
+import water.Iced;
+
+/**
+ * A mergeable sketch of a distribution, for approximate quantiles in a single
+ * pass: a merging t-digest (Dunning &amp; Ertl).  Values are kept as weighted
+ * centroids sorted by mean; centroids near the tails hold few values and
+ * those near the median many, so the rank error is small everywhere and
+ * relative near the extremes.  Sketches of disjoint data merge into a sketch
+ * of their union, in any order, so a sketch can ride along any map/reduce
+ * pass.  NaNs and infinities are not counted.
+ */
+public class QuantileSketch extends Iced {
+  /** Bounds the count of centroids, and so the size and accuracy */
+  public static final int COMPRESSION = 200;
+  private double[] _means = new double[0];
+  private long[] _wts = new long[0];
+  private long _count;
+  private double _min = Double.POSITIVE_INFINITY, _max = Double.NEGATIVE_INFINITY;
+
+  /** @return the count of values in the sketch */
+  public long count() { return _count; }
+  /** @return the count of centroids */
+  public int size() { return _means.length; }
+
+  /** Add the first n values of vals; the array is left unchanged.
+   *  @return this sketch */
+  public QuantileSketch add( double[] vals, int n ) {
+    double[] ds = new double[n];
+    int m = 0;
+    for( int i=0; i<n; i++ ) {
+      double d = vals[i];
+      if( !Double.isNaN(d) && !Double.isInfinite(d) ) ds[m++] = d;
+    }
+    Arrays.sort(ds,0,m);
+    merge(ds,null,m);
+    return this;
+  }
+
+  /** Add value d, w times.
+   *  @return this sketch */
+  public QuantileSketch add( double d, long w ) {
+    if( w > 0 && !Double.isNaN(d) && !Double.isInfinite(d) )
+      merge(new double[]{d},new long[]{w},1);
+    return this;
+  }
+
+  /** Add all the values of another sketch.
+   *  @return this sketch */
+  public QuantileSketch add( QuantileSketch qs ) {
+    merge(qs._means,qs._wts,qs._means.length);
+    _min = Math.min(_min,qs._min);
+    _max = Math.max(_max,qs._max);
+    return this;
+  }
+
+  // Merge n centroids, sorted by mean (null weights are all 1), with ours,
+  // then sweep them left to right, growing each centroid as long as it stays
+  // within one unit of the scale function k(q) = C/2pi*asin(2q-1)
+  private void merge( double[] ms, long[] ws, int n ) {
+    if( n == 0 ) return;
+    long added = 0;
+    if( ws == null ) added = n;
+    else for( int j=0; j<n; j++ ) added += ws[j];
+    _min = Math.min(_min,ms[0]);
+    _max = Math.max(_max,ms[n-1]);
+    final long N = _count+added;
+    final double[] means = _means;
+    final long[] wts = _wts;
+    final int len = means.length;
+    double[] om = new double[Math.min(len+n,2*COMPRESSION)];
+    long[] ow = new long[om.length];
+    int i=0, j=0, k=-1;
+    long sofar = 0;             // Weight of the centroids before k
+    double lim = 0;             // Weight centroid k may grow to
+    while( i<len || j<n ) {
+      double x;  long w;
+      if( j==n || (i<len && means[i] <= ms[j]) ) { x = means[i];  w = wts[i++]; }
+      else { x = ms[j];  w = ws == null ? 1 : ws[j];  j++; }
+      if( k >= 0 && ow[k]+w <= lim ) {
+        ow[k] += w;
+        om[k] += (x-om[k])*w/ow[k];
+      } else {
+        if( k >= 0 ) sofar += ow[k];
+        if( ++k == om.length ) { om = Arrays.copyOf(om,k<<1);  ow = Arrays.copyOf(ow,k<<1); }
+        om[k] = x;  ow[k] = w;
+        lim = limit(sofar,N);
+      }
+    }
+    _means = Arrays.copyOf(om,k+1);
+    _wts = Arrays.copyOf(ow,k+1);
+    _count = N;
+  }
+
+  // Largest weight of a centroid starting after sofar of N values
+  private static double limit( long sofar, long N ) {
+    double a = Math.asin(2.0*sofar/N-1)+2*Math.PI/COMPRESSION;
+    double qr = a >= Math.PI/2 ? 1 : (Math.sin(a)+1)/2;
+    return qr*N-sofar;
+  }
+
+  /** Approximate value at quantile q, interpolating between centroid
+   *  centers, and out to the exact min and max at the ends.
+   *  @return the approximate value at quantile q in [0,1], or NaN if empty */
+  public double quantile( double q ) {
+    final int n = _means.length;
+    if( n == 0 ) return Double.NaN;
+    if( q <= 0 ) return _min;
+    if( q >= 1 ) return _max;
+    if( n == 1 ) return interp(_min,_max,q);
+    final double idx = q*_count;
+    double cum = _wts[0]/2.0;   // Weight up to the center of centroid i
+    if( idx < cum ) return interp(_min,_means[0],idx/cum);
+    for( int i=0; i<n-1; i++ ) {
+      double dw = (_wts[i]+_wts[i+1])/2.0;
+      if( idx < cum+dw ) return interp(_means[i],_means[i+1],(idx-cum)/dw);
+      cum += dw;
+    }
+    return interp(_means[n-1],_max,(idx-cum)/(_count-cum));
+  }
+  private static double interp( double lo, double hi, double f ) { return lo+(hi-lo)*f; }
+
+  /** @return approximate values at each quantile in qs */
+  public double[] quantiles( double[] qs ) {
+    double[] res = new double[qs.length];
+    for( int i=0; i<qs.length; i++ ) res[i] = quantile(qs[i]);
+    return res;
+  }
+}
@@ -0,0 +1,44 @@
+package water;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import water.fvec.Chunk;
+import water.fvec.Vec;
+
+public class ChunkPrefetchTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  private static class Sum extends MRTask<Sum> {
+    long _sum;
+    @Override public void map( Chunk c ) {
+      for( int i=0; i<c._len; i++ ) _sum += c.at8(i);
+    }
+    @Override public void reduce( Sum s ) { _sum += s._sum; }
+  }
+
+  // Chunks spilled to disk are loaded ahead of their map(), with the same
+  // results
+  @Test public void testSpilled() throws java.io.IOException {
+    Vec v = null;
+    try {
+      v = Vec.makeCon(3,64*1024,10);
+      final int nchunks = v.nChunks();
+      assertTrue(nchunks > 4);
+      long expect = new Sum().doAll(v)._sum;
+      assertEquals(3*64*1024, expect);
+      for( int i=0; i<nchunks; i++ ) {
+        Value val = H2O.get(v.chunkKey(i));
+        val.storePersist();
+        val.freePOJO();
+        val.freeMem();
+        assertTrue(val.onDiskOnly());
+      }
+      long started = ChunkPrefetch.STARTED.get();
+      assertEquals(expect, new Sum().doAll(v)._sum);
+      assertTrue(ChunkPrefetch.STARTED.get() > started);
+    } finally {
+      if( v != null ) v.remove();
+    }
+  }
+}
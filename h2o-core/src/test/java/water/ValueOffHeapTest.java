@@ -0,0 +1,51 @@
+package water;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.Arrays;
+import water.fvec.C1NChunk;
+import water.fvec.Chunk;
+
+public class ValueOffHeapTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  // Move a Value off-heap, drop both heap forms, and read it back.
+  @Test public void testRoundTrip() {
+    long max = H2O.ARGS.off_heap_mem;
+    H2O.ARGS.off_heap_mem = 1<<20;
+    long used = MemoryManager.OFF_HEAP_USED.get();
+    try {
+      byte[] bits = new byte[1000];
+      for( int i=0; i<bits.length; i++ ) bits[i] = (byte)i;
+      Value v = new Value(Key.make("offheap_bytes"), bits);
+      assertTrue(v.storeOffHeap());
+      assertTrue(v.isOffHeap());
+      assertEquals(used+bits.length, MemoryManager.OFF_HEAP_USED.get());
+      v.freeMem();
+      assertFalse(v.isEmpty());
+      assertArrayEquals(bits, v.memOrLoad());
+      v.releaseOffHeap();
+      v.releaseOffHeap();       // Only released once
+      assertEquals(used, MemoryManager.OFF_HEAP_USED.get());
+
+      // Chunks are copied from the POJO; reloading rebuilds the Chunk
+      Chunk c = new C1NChunk(Arrays.copyOf(bits,bits.length));
+      Value vc = new Value(Key.make("offheap_chunk"), c);
+      assertTrue(vc.storeOffHeap());
+      vc.freePOJO();
+      vc.freeMem();
+      Chunk c2 = vc.get();
+      for( int i=0; i<bits.length; i++ ) assertEquals(c.at8(i), c2.at8(i));
+      vc.releaseOffHeap();
+
+      // No room: stays on heap
+      Value big = new Value(Key.make("offheap_big"), new byte[(1<<20)+1]);
+      assertFalse(big.storeOffHeap());
+      assertFalse(big.isOffHeap());
+      assertEquals(used, MemoryManager.OFF_HEAP_USED.get());
+    } finally {
+      H2O.ARGS.off_heap_mem = max;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package water.fvec;
+
+import org.junit.*;
+
+import java.util.Random;
+
+import water.Key;
+import water.TestUtil;
+import water.Value;
+
+public class CBPChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // Random values over ranges needing 3 to 28 bits, biased or not, with and
+  // without NAs
+  @Test public void test_inflate_impl() {
+    long[][] ranges = {{0,5},{0,100},{-50,50},{0,5000},{1000000,1100000},{-(1L<<26),1L<<26}};
+    int[] bits = {3,7,7,13,17,28};
+    for( int r=0; r<ranges.length; r++ ) {
+      for( boolean withNAs : new boolean[]{false,true} ) {
+        final int len = 3001;
+        Random rng = new Random(r);
+        long lo = ranges[r][0], hi = ranges[r][1];
+        long[] ls = new long[len];
+        boolean[] nas = new boolean[len];
+        NewChunk nc = new NewChunk(null, 0);
+        for( int i=0; i<len; i++ ) {
+          nas[i] = withNAs && rng.nextInt(20) == 0;
+          ls[i] = i == 0 ? lo : i == 1 ? hi : lo + (long)(rng.nextDouble()*(hi-lo+1));
+          if( nas[i] ) nc.addNA();
+          else nc.addNum(ls[i], 0);
+        }
+        Chunk cc = nc.compress();
+        Assert.assertTrue(cc.getClass().getSimpleName(), cc instanceof CBPChunk);
+        Assert.assertEquals(CBPChunk._OFF + (len*(long)bits[r]+7)/8 + 8, cc._mem.length);
+        check(cc, ls, nas);
+
+        // Serialized & back
+        Value v = new Value(Key.make(), cc);
+        v.freePOJO();
+        Chunk cc2 = v.get();
+        check(cc2, ls, nas);
+
+        // Bulk unpack from an unaligned row
+        double[] ds = cc.getDoubles(new double[len-13], 13, len);
+        for( int i=13; i<len; i++ )
+          Assert.assertEquals(cc.atd(i), ds[i-13], 0);
+        long[] ls2 = cc.getLongs(new long[100], 777, 877, Long.MIN_VALUE);
+        for( int i=777; i<877; i++ )
+          Assert.assertEquals(nas[i] ? Long.MIN_VALUE : ls[i], ls2[i-777]);
+
+        nc = new NewChunk(null, 0);
+        cc.inflate_impl(nc);
+        Assert.assertEquals(len, nc._len);
+        Assert.assertArrayEquals(cc._mem, nc.compress()._mem);
+      }
+    }
+  }
+
+  private static void check( Chunk cc, long[] ls, boolean[] nas ) {
+    Assert.assertEquals(ls.length, cc._len);
+    for( int i=0; i<ls.length; i++ ) {
+      Assert.assertEquals(nas[i], cc.isNA(i));
+      if( nas[i] ) Assert.assertTrue(Double.isNaN(cc.atd(i)));
+      else Assert.assertEquals(ls[i], cc.at8(i));
+    }
+  }
+
+  // Byte-sized ranges, ranges saving under an eighth, and small chunks stay
+  // byte aligned
+  @Test public void test_byte_aligned() {
+    NewChunk nc = new NewChunk(null, 0);
+    for( int i=0; i<2000; i++ ) nc.addNum(i%256, 0);
+    Assert.assertTrue(nc.compress() instanceof C1NChunk);
+    nc = new NewChunk(null, 0);
+    for( int i=0; i<1000; i++ ) nc.addNum(i%101, 0);
+    Assert.assertTrue(nc.compress() instanceof C1NChunk);
+    nc = new NewChunk(null, 0);
+    for( int i=0; i<2000; i++ ) nc.addNum(i*500001L, 0);
+    Assert.assertTrue(nc.compress() instanceof C4Chunk);
+  }
+}
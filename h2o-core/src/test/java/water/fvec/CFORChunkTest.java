@@ -0,0 +1,82 @@
+package water.fvec;
+
+import org.junit.*;
+
+import java.util.Random;
+
+import water.Key;
+import water.TestUtil;
+import water.Value;
+
+public class CFORChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // Millisecond timestamps a few seconds apart, ids, and large negative
+  // values drifting slowly; with NAs, an all-NA block and a constant block
+  @Test public void test_inflate_impl() {
+    for( int len : new int[]{1000, 70000} ) {
+      for( int kind=0; kind<3; kind++ ) {
+        Random rng = new Random(kind);
+        long[] ls = new long[len];
+        boolean[] nas = new boolean[len];
+        long t = kind == 0 ? 1420070400000L : kind == 1 ? 1000000000L : -(1L<<50);
+        for( int i=0; i<len; i++ ) {
+          nas[i] = (i>=256 && i<384) || rng.nextInt(50) == 0;
+          if( i>=512 && i<640 ) { ls[i] = t; continue; }
+          t += kind == 0 ? rng.nextInt(5000) : kind == 1 ? 97 : rng.nextInt(1<<20)-(1<<19);
+          ls[i] = t;
+        }
+        NewChunk nc = new NewChunk(null, 0);
+        for( int i=0; i<len; i++ )
+          if( nas[i] ) nc.addNA();
+          else nc.addNum(ls[i], 0);
+
+        Chunk cc = nc.compress();
+        Assert.assertTrue(cc.getClass().getSimpleName(), cc instanceof CFORChunk);
+        Assert.assertEquals(len, cc._len);
+        Assert.assertTrue(cc._mem.length < len*4*3/4);
+        check(cc, ls, nas);
+
+        // Serialized & back
+        Value v = new Value(Key.make(), cc);
+        v.freePOJO();
+        Chunk cc2 = v.get();
+        check(cc2, ls, nas);
+
+        // Bulk reads, not block aligned
+        double[] ds = cc.getDoubles(new double[len-150], 150, len);
+        for( int i=150; i<len; i++ )
+          Assert.assertEquals(cc.atd(i), ds[i-150], 0);
+        long[] ls2 = cc.getLongs(new long[500], 300, 800, -1);
+        for( int i=300; i<800; i++ )
+          Assert.assertEquals(nas[i] ? -1 : ls[i], ls2[i-300]);
+
+        nc = new NewChunk(null, 0);
+        cc.inflate_impl(nc);
+        Assert.assertEquals(len, nc._len);
+        Chunk cc3 = nc.compress();
+        Assert.assertTrue(cc3 instanceof CFORChunk);
+        Assert.assertArrayEquals(cc._mem, cc3._mem);
+      }
+    }
+  }
+
+  private static void check( Chunk cc, long[] ls, boolean[] nas ) {
+    for( int i=0; i<ls.length; i++ ) {
+      Assert.assertEquals(nas[i], cc.isNA(i));
+      if( nas[i] ) Assert.assertTrue(Double.isNaN(cc.atd(i)));
+      else {
+        Assert.assertEquals(ls[i], cc.at8(i));
+        Assert.assertEquals((double)ls[i], cc.atd(i), 0);
+      }
+    }
+  }
+
+  // Random wide integers stay in the fixed-width encodings
+  @Test public void test_random() {
+    Random rng = new Random(1);
+    NewChunk nc = new NewChunk(null, 0);
+    for( int i=0; i<1000; i++ ) nc.addNum(rng.nextInt(), 0);
+    Assert.assertTrue(nc.compress() instanceof C4Chunk);
+  }
+}
@@ -0,0 +1,90 @@
+package water.fvec;
+
+import org.junit.*;
+
+import water.Key;
+import water.TestUtil;
+import water.Value;
+
+public class CRLEChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // Runs of 100 rows, with an NA run every 7th; values span a byte, a short,
+  // an int and a long
+  @Test public void test_inflate_impl() {
+    for( long scale : new long[]{1, 1000, 100000000L, 1L<<40} ) {
+      for( int len : new int[]{5000, 70000} ) { // 2 and 4 byte run ends
+        NewChunk nc = new NewChunk(null, 0);
+        for( int i=0; i<len; i++ )
+          if( (i/100)%7 == 3 ) nc.addNA();
+          else nc.addNum((i/100)%50*scale - 7, 0);
+
+        Chunk cc = nc.compress();
+        Assert.assertTrue(cc.getClass().getSimpleName(), cc instanceof CRLEChunk);
+        Assert.assertEquals(len, cc._len);
+        Assert.assertEquals((len+99)/100, ((CRLEChunk)cc).nruns());
+        Assert.assertTrue(cc._mem.length < len/8);
+        check(cc, len, scale);
+
+        // Serialized & back
+        Value v = new Value(Key.make(), cc);
+        v.freePOJO();
+        Chunk cc2 = v.get();
+        Assert.assertEquals(len, cc2._len);
+        check(cc2, len, scale);
+
+        // Bulk reads from the middle of a run
+        double[] ds = cc.getDoubles(new double[len-150], 150, len);
+        for( int i=150; i<len; i++ )
+          Assert.assertEquals(cc.atd(i), ds[i-150], 0);
+        long[] ls = cc.getLongs(new long[100], 1050, 1150, -1);
+        for( int i=1050; i<1150; i++ )
+          Assert.assertEquals(cc.isNA(i) ? -1 : cc.at8(i), ls[i-1050]);
+
+        nc = new NewChunk(null, 0);
+        cc.inflate_impl(nc);
+        Assert.assertEquals(len, nc._len);
+        Chunk cc3 = nc.compress();
+        Assert.assertTrue(cc3 instanceof CRLEChunk);
+        Assert.assertArrayEquals(cc._mem, cc3._mem);
+      }
+    }
+  }
+
+  private static void check( Chunk cc, int len, long scale ) {
+    for( int i=0; i<len; i++ ) {
+      if( (i/100)%7 == 3 ) {
+        Assert.assertTrue(cc.isNA(i));
+        Assert.assertTrue(Double.isNaN(cc.atd(i)));
+      } else {
+        Assert.assertFalse(cc.isNA(i));
+        Assert.assertEquals((i/100)%50*scale - 7, cc.at8(i));
+      }
+    }
+  }
+
+  // Short runs stay in the fixed-width encodings
+  @Test public void test_short_runs() {
+    NewChunk nc = new NewChunk(null, 0);
+    for( int i=0; i<1000; i++ ) nc.addNum((i/2)%200, 0);
+    Assert.assertTrue(nc.compress() instanceof C1NChunk);
+  }
+
+  // Writes inflate to a NewChunk
+  @Test public void test_set() {
+    Vec vec = new Vec(Vec.newKey(), new long[]{0,1000}).makeZero();
+    Vec.Writer w = vec.open();
+    for( int i=0; i<1000; i++ ) w.set(i, i/250);
+    w.close();
+    Chunk cc = vec.chunkForChunkIdx(0);
+    Assert.assertTrue(cc instanceof CRLEChunk);
+    w = vec.open();
+    w.set(10, 17);
+    w.close();
+    cc = vec.chunkForChunkIdx(0);
+    Assert.assertEquals(17, cc.at8(10));
+    Assert.assertEquals(0, cc.at8(11));
+    Assert.assertEquals(3, cc.at8(999));
+    vec.remove();
+  }
+}
@@ -0,0 +1,64 @@
+package water.fvec;
+
+import org.junit.*;
+
+import water.Key;
+import water.TestUtil;
+import water.Value;
+import water.parser.ValueString;
+
+public class CStrDictChunkTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  // Few distinct URLs over many rows, with NAs; 1 and 2 byte indices
+  @Test public void test_inflate_impl() {
+    for( int ndict : new int[]{20, 300} ) {
+      final int len = 10000;
+      String[] strs = new String[len];
+      NewChunk nc = new NewChunk(null, 0);
+      for( int i=0; i<len; i++ ) {
+        strs[i] = i%13 == 0 ? null : "http://www.example.com/page/"+(i*7919%ndict);
+        nc.addStr(strs[i] == null ? null : new ValueString(strs[i]));
+      }
+      Chunk cc = nc.compress();
+      Assert.assertTrue(cc.getClass().getSimpleName(), cc instanceof CStrDictChunk);
+      Assert.assertTrue(cc instanceof CStrChunk);
+      Assert.assertEquals(ndict, ((CStrDictChunk)cc).ndict());
+      Assert.assertTrue(cc._mem.length < len*4); // Less than CStrChunk offsets alone
+      check(cc, strs);
+
+      // Serialized & back
+      Value v = new Value(Key.make(), cc);
+      v.freePOJO();
+      Chunk cc2 = v.get();
+      check(cc2, strs);
+
+      nc = cc.inflate_impl(new NewChunk(null, 0));
+      Assert.assertEquals(len, nc._len);
+      Chunk cc3 = nc.compress();
+      Assert.assertTrue(cc3 instanceof CStrDictChunk);
+      Assert.assertArrayEquals(cc._mem, cc3._mem);
+    }
+  }
+
+  private static void check( Chunk cc, String[] strs ) {
+    Assert.assertEquals(strs.length, cc._len);
+    ValueString vs = new ValueString();
+    for( int i=0; i<strs.length; i++ ) {
+      Assert.assertEquals(strs[i] == null, cc.isNA(i));
+      if( strs[i] == null ) Assert.assertNull(cc.atStr(vs, i));
+      else {
+        Assert.assertSame(vs, cc.atStr(vs, i)); // A view, no allocation
+        Assert.assertEquals(strs[i], vs.toString());
+      }
+    }
+  }
+
+  // Mostly distinct strings stay in CStrChunk
+  @Test public void test_distinct() {
+    NewChunk nc = new NewChunk(null, 0);
+    for( int i=0; i<1000; i++ ) nc.addStr(new ValueString("Foo"+(i%600)));
+    Chunk cc = nc.compress();
+    Assert.assertEquals(CStrChunk.class, cc.getClass());
+  }
+}
@@ -0,0 +1,124 @@
+package water.fvec;
+
+import org.junit.*;
+
+import water.TestUtil;
+import water.util.UnsafeUtils;
+
+import java.util.Random;
+
+/** getDoubles/getLongs must agree with the row-at-a-time readers, for every
+ *  compression scheme and for any sub-range of rows. */
+public class ChunkBulkReadTest extends TestUtil {
+  @BeforeClass() public static void setup() { stall_till_cloudsize(1); }
+
+  static final String[] TYPES = {"C0L","C0D","C1N","C1","C1S","C2","C2S","C4","C4S","C4F","C8","C8D","CBS","CBS1","CX0","CXI","CXD"};
+
+  // Build a chunk of the given compression type, with NAs where supported
+  static Chunk makeChunk( String type, int len, Random rng ) {
+    NewChunk nc = new NewChunk(null, 0);
+    for( int i=0; i<len; i++ ) {
+      boolean na = (i%7)==3;
+      switch( type ) {
+      case "C0L": nc.addNum(7,0); break;
+      case "C0D": nc.addNum(3.25); break;
+      case "C1N": nc.addNum(rng.nextInt(256),0); break;
+      case "C1":  if( na ) nc.addNA(); else nc.addNum(rng.nextInt(255),0); break;
+      case "C1S": if( na ) nc.addNA(); else nc.addNum(rng.nextInt(250)-100,-1); break;
+      case "C2":  if( na ) nc.addNA(); else nc.addNum(rng.nextInt(60000)-30000,0); break;
+      case "C2S": if( na ) nc.addNA(); else nc.addNum(rng.nextInt(60000),-2); break;
+      case "C4":  if( na ) nc.addNA(); else nc.addNum(rng.nextInt(Integer.MAX_VALUE)-(1<<30),0); break;
+      case "C4S": if( na ) nc.addNA(); else nc.addNum(rng.nextInt(1<<24),-3); break;
+      case "C8":  if( na ) nc.addNA(); else nc.addNum(rng.nextLong()>>1,0); break;
+      case "C8D": nc.addNum(na ? Double.NaN : rng.nextDouble()); break;
+      case "CBS": if( na ) nc.addNA(); else nc.addNum(rng.nextInt(2),0); break;
+      case "CBS1":nc.addNum(rng.nextInt(2),0); break;
+      case "CX0": nc.addNum((i%40)==5 ? 1 : 0,0); break;
+      case "CXI": if( (i%40)==5 ) { if( (i%80)==5 ) nc.addNA(); else nc.addNum(rng.nextInt(1000)+2,0); } else nc.addNum(0,0); break;
+      case "CXD": nc.addNum((i%40)==5 ? ((i%80)==5 ? Double.NaN : rng.nextDouble()) : 0); break;
+      case "C4F": break;
+      default: throw new IllegalArgumentException(type);
+      }
+    }
+    if( type.equals("C4F") ) {
+      byte[] bs = new byte[len<<2];
+      for( int i=0; i<len; i++ ) UnsafeUtils.set4f(bs, i<<2, (i%7)==3 ? Float.NaN : rng.nextFloat());
+      return new C4FChunk(bs);
+    }
+    Chunk c = nc.compress();
+    Assert.assertEquals(type.replace("CBS1","CBS")+"Chunk", c.getClass().getSimpleName());
+    return c;
+  }
+
+  private static void check( Chunk c, int from, int to ) {
+    double[] ds = c.getDoubles(new double[to-from+3], from, to);
+    double[] dz = c.getDoubles(new double[to-from], from, to, -1);
+    long  [] ls = c.getLongs  (new long  [to-from], from, to, Long.MIN_VALUE);
+    for( int i=from; i<to; i++ ) {
+      String msg = c.getClass().getSimpleName()+" row "+i;
+      Assert.assertEquals(msg, c.atd(i), ds[i-from], 0);
+      if( c.isNA(i) ) {
+        Assert.assertEquals(msg, -1, dz[i-from], 0);
+        Assert.assertEquals(msg, Long.MIN_VALUE, ls[i-from]);
+      } else {
+        Assert.assertEquals(msg, c.atd(i), dz[i-from], 0);
+        Assert.assertEquals(msg, c.at8(i), ls[i-from]);
+      }
+    }
+  }
+
+  @Test public void testAllTypes() {
+    Random rng = new Random(12345);
+    for( String type : TYPES ) {
+      for( int len : new int[]{100, 1000, 70000} ) {
+        if( type.startsWith("CX") && len < 1000 ) continue; // Too short to go sparse
+        Chunk c = makeChunk(type, len, rng);
+        check(c, 0, len);
+        check(c, 0, 0);
+        check(c, len/3, len/2+1);
+        check(c, len-1, len);
+      }
+    }
+  }
+
+  // getSparseDoubles must report exactly the rows nextNZ walks, with atd's values
+  @Test public void testSparseCursor() {
+    Random rng = new Random(54321);
+    for( String type : TYPES ) {
+      for( int len : new int[]{100, 1000, 70000} ) {
+        if( type.startsWith("CX") && len < 1000 ) continue;
+        Chunk c = makeChunk(type, len, rng);
+        double[] vals = new double[c.sparseLen()];
+        int   [] ids  = new int   [c.sparseLen()];
+        int n = c.getSparseDoubles(vals, ids);
+        String msg = c.getClass().getSimpleName()+" len "+len;
+        int k = 0;
+        for( int i = c.nextNZ(-1); i < c._len; i = c.nextNZ(i), k++ ) {
+          Assert.assertEquals(msg, i, ids[k]);
+          Assert.assertEquals(msg, c.atd(i), vals[k], 0);
+        }
+        Assert.assertEquals(msg, k, n);
+        if( c.isSparse() ) Assert.assertTrue(msg, n < len);
+      }
+    }
+  }
+
+  // Writes land in the _chk2 copy; bulk reads must see them
+  @Test public void testAfterWrite() {
+    Vec v = vec(1, 2, 3, 4, 5);
+    try {
+      Chunk c = v.chunkForChunkIdx(0);
+      c.set(2, 300);            // Forces inflate
+      c.setNA(4);
+      double[] ds = c.getDoubles(new double[5], 0, 5);
+      Assert.assertArrayEquals(new double[]{1, 2, 300, 4, Double.NaN}, ds, 0);
+      long[] ls = c.getLongs(new long[5], 0, 5, -1);
+      Assert.assertArrayEquals(new long[]{1, 2, 300, 4, -1}, ls);
+      int[] ids = new int[5];
+      Assert.assertEquals(5, c.getSparseDoubles(ds, ids, -1));
+      Assert.assertArrayEquals(new double[]{1, 2, 300, 4, -1}, ds, 0);
+    } finally {
+      v.remove();
+    }
+  }
+}
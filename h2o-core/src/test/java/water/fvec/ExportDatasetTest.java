@@ -0,0 +1,48 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Key;
+import water.TestUtil;
+import water.util.FileUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ExportDatasetTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  // The part files, concatenated in order, are the same CSV as toCSV makes
+  @Test public void testParts() throws IOException {
+    Frame fr = null;
+    File dir = Files.createTempDirectory("export").toFile();
+    try {
+      Vec v = Vec.makeCon(0.5, 5000, 10);
+      fr = new Frame(Key.make("export.hex"), ar("a","b","c"), new Vec[]{v, v.makeCon(7), v.makeZero(ar("lo","hi"))});
+      DKV.put(fr);
+      ByteArrayOutputStream exp = new ByteArrayOutputStream();
+      FileUtils.copyStream(fr.toCSV(true, false), exp, 1<<16);
+      for( boolean compress : new boolean[]{false,true} ) {
+        ExportDataset.export(fr, dir.getPath(), true, compress);
+        ByteArrayOutputStream act = new ByteArrayOutputStream();
+        for( int i=0; i<v.nChunks(); i++ ) {
+          InputStream is = new FileInputStream(new File(dir, ExportDataset.partName(i, compress)));
+          if( compress ) is = new GZIPInputStream(is);
+          FileUtils.copyStream(is, act, 1<<16);
+          is.close();
+        }
+        assertEquals(exp.size(), act.size());
+        assertArrayEquals(exp.toByteArray(), act.toByteArray());
+      }
+    } finally {
+      if( fr != null ) fr.delete();
+      for( File f : dir.listFiles() ) f.delete();
+      dir.delete();
+    }
+  }
+}
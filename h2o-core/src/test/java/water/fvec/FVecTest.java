@@ -4,6 +4,10 @@ import static org.junit.Assert.*;
 import org.junit.*;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
 
 import water.*;
 import water.DException.DistributedException;
@@ -44,6 +48,62 @@ public class FVecTest extends TestUtil {
     nfs.remove();
   }
 
+  // Chunks loaded from the mmap'd file and with plain reads must both match
+  // the file bytes, including the last (oversized) chunk
+  @Test public void testMappedChunks() throws IOException {
+    File file = File.createTempFile("FVecTest", ".bin");
+    boolean noMmap = H2O.ARGS.no_mmap;
+    try {
+      byte[] bytes = new byte[(1<<16)*3 + (1<<15)];
+      new Random(1234).nextBytes(bytes);
+      try (FileOutputStream os = new FileOutputStream(file)) { os.write(bytes); }
+      for( boolean mode : new boolean[]{false, true} ) {
+        H2O.ARGS.no_mmap = mode;
+        NFSFileVec nfs = NFSFileVec.make(file);
+        try {
+          nfs.setChunkSize(1<<16);
+          assertEquals(3, nfs.nChunks());
+          for( int i = 0; i < nfs.nChunks(); i++ ) {
+            byte[] mem = nfs.chunkForChunkIdx(i).getBytes();
+            long off = nfs.chunk2StartElem(i);
+            assertArrayEquals(Arrays.copyOfRange(bytes, (int)off, (int)off + mem.length), mem);
+          }
+          assertEquals(bytes.length, nfs.chunk2StartElem(2) + nfs.chunkForChunkIdx(2)._len);
+        } finally {
+          nfs.remove();
+        }
+      }
+    } finally {
+      H2O.ARGS.no_mmap = noMmap;
+      file.delete();
+    }
+  }
+
+  // A file rewritten in place reads afresh once re-imported, though its
+  // length, and so any old mapping's length, is unchanged
+  @Test public void testRemappedFile() throws IOException {
+    File file = File.createTempFile("FVecTest", ".bin");
+    boolean noMmap = H2O.ARGS.no_mmap;
+    try {
+      H2O.ARGS.no_mmap = false;
+      byte[] bytes = new byte[1<<16];
+      Random rng = new Random(1234);
+      for( int pass = 0; pass < 2; pass++ ) {
+        rng.nextBytes(bytes);
+        try (FileOutputStream os = new FileOutputStream(file)) { os.write(bytes); }
+        NFSFileVec nfs = NFSFileVec.make(file);
+        try {
+          assertArrayEquals(bytes, nfs.chunkForChunkIdx(0).getBytes());
+        } finally {
+          nfs.remove();
+        }
+      }
+    } finally {
+      H2O.ARGS.no_mmap = noMmap;
+      file.delete();
+    }
+  }
+
   private static class ByteHisto extends MRTask<ByteHisto> {
     public int[] _x;
     // Count occurrences of bytes
@@ -0,0 +1,78 @@
+package water.fvec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Futures;
+import water.Key;
+import water.TestUtil;
+import water.parser.ValueString;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FrameSnapshotTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  // Numbers, enums and strings with NAs over several chunks load back
+  // bit-identical, in the same chunk encodings, with the same domains
+  @Test public void testSaveLoad() throws IOException {
+    Frame fr = null, fr2 = null;
+    File dir = Files.createTempDirectory("snapshot").toFile();
+    try {
+      Futures fs = new Futures();
+      Random rng = new Random(1);
+      Key[] keys = new Vec.VectorGroup().addVecs(3);
+      AppendableVec[] avs = {new AppendableVec(keys[0]), new AppendableVec(keys[1]), new AppendableVec(keys[2])};
+      for( int c = 0; c < 4; c++ ) {
+        NewChunk nums = new NewChunk(avs[0], c), enums = new NewChunk(avs[1], c), strs = new NewChunk(avs[2], c);
+        for( int r = 0; r < 3000; r++ ) {
+          if( rng.nextInt(30) == 0 ) nums.addNA(); else nums.addNum(rng.nextGaussian());
+          enums.addNum(rng.nextInt(3), 0);
+          strs.addStr(rng.nextInt(30) == 0 ? null : new ValueString("s" + rng.nextInt(100)));
+        }
+        nums.close(c, fs);
+        enums.close(c, fs);
+        strs.close(c, fs);
+      }
+      Vec[] vecs = {avs[0].close(fs), avs[1].close(fs), avs[2].close(fs)};
+      fs.blockForPending();
+      vecs[1].setDomain(ar("lo", "mid", "hi"));
+      DKV.put(vecs[1]);
+      fr = new Frame(Key.make("snap.hex"), ar("x", "e", "s"), vecs);
+      DKV.put(fr);
+
+      FrameSnapshot.save(fr, dir.getPath(), true);
+      assertTrue(new File(dir, FrameSnapshot.META).exists());
+      for( int i = 0; i < vecs[0].nChunks(); i++ )
+        assertTrue(new File(dir, FrameSnapshot.chunkName(i)).exists());
+
+      fr2 = FrameSnapshot.load(dir.getPath(), Key.make("snap2.hex"));
+      assertArrayEquals(fr.names(), fr2.names());
+      assertEquals(fr.numRows(), fr2.numRows());
+      assertArrayEquals(fr.anyVec()._espc, fr2.anyVec()._espc);
+      assertTrue(fr2.vec(1).isEnum());
+      assertArrayEquals(fr.vec(1).domain(), fr2.vec(1).domain());
+      assertTrue(fr2.vec(2).isString());
+      for( int c = 0; c < fr.numCols(); c++ )
+        for( int i = 0; i < fr.anyVec().nChunks(); i++ )
+          assertSame(fr.vec(c).chunkForChunkIdx(i).getClass(), fr2.vec(c).chunkForChunkIdx(i).getClass());
+      assertTrue(isBitIdentical(fr, fr2));
+      ValueString vs1 = new ValueString(), vs2 = new ValueString();
+      for( long r = 0; r < fr.numRows(); r++ ) {
+        ValueString a = fr.vec(2).atStr(vs1, r), b = fr2.vec(2).atStr(vs2, r);
+        assertEquals(a == null ? null : a.toString(), b == null ? null : b.toString());
+      }
+      assertEquals(fr.vec(0).mean(), fr2.vec(0).mean(), 0);
+    } finally {
+      if( fr != null ) fr.delete();
+      if( fr2 != null ) fr2.delete();
+      for( File f : dir.listFiles() ) f.delete();
+      dir.delete();
+    }
+  }
+}
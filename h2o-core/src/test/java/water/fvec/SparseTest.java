@@ -3,6 +3,7 @@ package water.fvec;
 import static org.junit.Assert.*;
 import org.junit.*;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import water.Futures;
 import water.Key;
@@ -41,6 +42,11 @@ public class SparseTest extends TestUtil {
   }
 
   private void runTest(double [] vs, double v1, double v2, Class class0, Class class1, Class class2) {
+    runTest(vs,v1,v2,class0,class1,class2,0);
+  }
+  // With a non-zero fill, going dense also sets every other zero to fill, so
+  // the dense chunk has no runs, nor narrow blocks, to encode
+  private void runTest(double [] vs, double v1, double v2, Class class0, Class class1, Class class2, double fill) {
     Futures fs = new Futures();
     int length = 4*NewChunk.MIN_SPARSE_RATIO + 1;
     double [] vals = new double[length];
@@ -80,7 +86,17 @@ public class SparseTest extends TestUtil {
       assertEquals(4,c1.sparseLen());
       assertEquals(Double.isNaN(v1),c1.isNA(length - 1));
       assertTrue(Double.isNaN(v1) || v1 == c1.atd(length - 1));
-      Chunk c2 = setAndClose(vals[0] = v2,0,c1,fs);
+      Chunk c2;
+      if( fill != 0 ) {
+        int [] ids = new int[vals.length];
+        double [] ds = new double[vals.length];
+        int n = 0;
+        ids[n] = 0;  ds[n++] = vals[0] = v2;
+        for(int i = 1; i < vals.length; i += 2)
+          if(vals[i] == 0) { ids[n] = i;  ds[n++] = vals[i] = fill; }
+        c2 = setAndClose(Arrays.copyOf(ds,n),Arrays.copyOf(ids,n),c1,fs);
+      } else
+        c2 = setAndClose(vals[0] = v2,0,c1,fs);
       assertTrue(class2.isAssignableFrom(c2.getClass()));
       assertTrue(c2.nextNZ(-1) == 0);
       assertEquals(vals.length,c2.sparseLen());
@@ -103,9 +119,16 @@ public class SparseTest extends TestUtil {
     runTest(new double [] {1,1,1},Double.NaN,1,CX0Chunk.class,CXIChunk.class,CBSChunk.class);
   }
   @Test public void testInt() {
-    runTest(new double [] {1,2,Double.NaN},4,5,CXIChunk.class,CXIChunk.class,C1Chunk.class);
-    runTest(new double [] {1,2000,Double.NaN,3},4,5,CXIChunk.class,CXIChunk.class,C2Chunk.class);
-    runTest(new double [] {Double.NaN,2000,3},400000,5,CXIChunk.class,CXIChunk.class,C4Chunk.class);
-    runTest(new double [] {1,Double.NaN,2000,3},Double.NaN,1e10,CXIChunk.class,CXIChunk.class,C8Chunk.class);
+    runTest(new double [] {1,2,Double.NaN},4,5,CXIChunk.class,CXIChunk.class,C1Chunk.class,1);
+    runTest(new double [] {1,2000,Double.NaN,3},4,5,CXIChunk.class,CXIChunk.class,C2Chunk.class,1);
+    runTest(new double [] {Double.NaN,2000,3},400000,5,CXIChunk.class,CXIChunk.class,C4Chunk.class,-(1<<30));
+    runTest(new double [] {1,Double.NaN,2000,3},Double.NaN,1e10,CXIChunk.class,CXIChunk.class,C8Chunk.class,-(1L<<50));
+  }
+  @Test public void testIntRLE() {
+    // Once dense, the long runs of zeros are run-length encoded
+    runTest(new double [] {1,2,Double.NaN},4,5,CXIChunk.class,CXIChunk.class,CRLEChunk.class);
+    runTest(new double [] {1,2000,Double.NaN,3},4,5,CXIChunk.class,CXIChunk.class,CRLEChunk.class);
+    runTest(new double [] {Double.NaN,2000,3},400000,5,CXIChunk.class,CXIChunk.class,CRLEChunk.class);
+    runTest(new double [] {1,Double.NaN,2000,3},Double.NaN,1e10,CXIChunk.class,CXIChunk.class,CRLEChunk.class);
   }
 }
@@ -3,10 +3,12 @@ package water.fvec;
 import static org.junit.Assert.*;
 import org.junit.*;
 
+import java.util.Arrays;
 import java.util.Random;
 import water.Futures;
 import water.TestUtil;
 import water.Key;
+import water.parser.ValueString;
 
 public class VecStatsTest extends TestUtil {
   @BeforeClass public static void setup() { stall_till_cloudsize(1); }
@@ -55,4 +57,131 @@ public class VecStatsTest extends TestUtil {
       if( frame != null ) frame.delete();
     }
   }
+
+  // Sketched quantiles of skewed and mostly-zero columns, over many chunks,
+  // against the exact ones, in rank
+  @Test public void testQuantiles() {
+    Frame frame = null;
+    try {
+      Futures fs = new Futures();
+      Random random = new Random(42);
+      final int nchks = 8, len = 25000, N = nchks*len;
+      double[][] ds = new double[2][N];
+      Key[] keys = Vec.VectorGroup.VG_LEN1.addVecs(2);
+      AppendableVec[] avs = {new AppendableVec(keys[0]), new AppendableVec(keys[1])};
+      for( int i = 0; i < nchks; i++ ) {
+        NewChunk skew = new NewChunk(avs[0], i), sparse = new NewChunk(avs[1], i);
+        for( int r = 0; r < len; r++ ) {
+          double d = ds[0][i*len+r] = Math.exp(3*random.nextGaussian());
+          skew.addNum(d);
+          d = ds[1][i*len+r] = random.nextInt(10) == 0 ? random.nextInt(100)-30 : 0;
+          sparse.addNum(d);
+        }
+        skew.close(i, fs);
+        sparse.close(i, fs);
+      }
+      Vec[] vecs = {avs[0].close(fs), avs[1].close(fs)};
+      fs.blockForPending();
+      frame = new Frame(Key.make(), null, vecs);
+      assertTrue(vecs[0].nChunks() > 1);
+
+      for( int c = 0; c < 2; c++ ) {
+        double[] sorted = ds[c].clone();
+        Arrays.sort(sorted);
+        Vec v = frame.vec(c);
+        double[] qs = {0, 0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1};
+        for( double q : qs ) {
+          double x = v.quantile(q);
+          // Ranks spanned by x in the data; tighter near the tails
+          int lo = lowerBound(sorted, x), hi = lowerBound(sorted, Math.nextUp(x));
+          double err = Math.max(0, Math.max(lo - q*N, q*N - hi))/N;
+          assertTrue("q=" + q + " x=" + x + " err=" + err, err <= (q < 0.01 || q > 0.99 ? 0.0005 : 0.005));
+        }
+        assertEquals(sorted[0], v.quantile(0), 0);
+        assertEquals(sorted[N-1], v.quantile(1), 0);
+        double[] pct = v.pctiles();
+        assertEquals(Vec.PERCENTILES.length, pct.length);
+        for( int i = 0; i < pct.length; i++ )
+          assertEquals(v.quantile(Vec.PERCENTILES[i]), pct[i], 0);
+      }
+      assertEquals(0, frame.vec(1).quantile(0.5), 0);
+    } finally {
+      if( frame != null ) frame.delete();
+    }
+  }
+
+  // Distinct counts of numeric, sparse and string columns over many chunks
+  @Test public void testDistinct() {
+    Frame frame = null;
+    try {
+      Futures fs = new Futures();
+      Random random = new Random(7);
+      final int nchks = 8, len = 25000;
+      Key[] keys = Vec.VectorGroup.VG_LEN1.addVecs(3);
+      AppendableVec[] avs = {new AppendableVec(keys[0]), new AppendableVec(keys[1]), new AppendableVec(keys[2])};
+      for( int i = 0; i < nchks; i++ ) {
+        NewChunk ints = new NewChunk(avs[0], i), sparse = new NewChunk(avs[1], i), strs = new NewChunk(avs[2], i);
+        for( int r = 0; r < len; r++ ) {
+          ints.addNum(random.nextInt(50000));
+          sparse.addNum(random.nextInt(20) == 0 ? random.nextInt(40)+1 : 0);
+          strs.addStr(random.nextInt(50) == 0 ? null : new ValueString("user" + random.nextInt(3000) + "@example.com"));
+        }
+        ints.close(i, fs);
+        sparse.close(i, fs);
+        strs.close(i, fs);
+      }
+      Vec[] vecs = {avs[0].close(fs), avs[1].close(fs), avs[2].close(fs)};
+      fs.blockForPending();
+      frame = new Frame(Key.make(), null, vecs);
+      // 50000 values drawn 200000 times: about 49084 distinct
+      assertEquals(49084, vecs[0].distinctCnt(), 49084*0.05);
+      assertEquals(41, vecs[1].distinctCnt(), 1);
+      assertEquals(3000, vecs[2].distinctCnt(), 3000*0.05);
+    } finally {
+      if( frame != null ) frame.delete();
+    }
+  }
+
+  // Rollups after a write rescan only the written chunk; the rest come from
+  // the rollups cached per chunk
+  @Test public void testIncremental() {
+    Vec v = null;
+    try {
+      Futures fs = new Futures();
+      AppendableVec av = new AppendableVec(Vec.newKey());
+      final int nchks = 4, len = 10000;
+      for( int i = 0; i < nchks; i++ ) {
+        NewChunk chunk = new NewChunk(av, i);
+        for( int r = 0; r < len; r++ ) chunk.addNum(i*len+r);
+        chunk.close(i, fs);
+      }
+      v = av.close(fs);
+      fs.blockForPending();
+      assertEquals(nchks*len-1, v.max(), 0);
+      for( int i = 0; i < nchks; i++ )  // Cached without the sketches: small
+        assertTrue(v.chunkForChunkIdx(i)._rollups.length < 512);
+
+      v.set(len+5, 1e6);        // Chunk 1
+      assertNull(v.chunkForChunkIdx(1)._rollups);
+      for( int i : new int[]{0,2,3} )
+        assertNotNull(v.chunkForChunkIdx(i)._rollups);
+      assertEquals(1e6, v.max(), 0);
+      assertEquals(0, v.min(), 0);
+      double mean = ((double)nchks*len*(nchks*len-1)/2 - (len+5) + 1e6)/(nchks*len);
+      assertEquals(mean, v.mean(), 1e-9);
+      assertEquals(v.length(), v.distinctCnt(), v.length()*0.05);
+      assertNotNull(v.chunkForChunkIdx(1)._rollups);
+      assertEquals(1e6, v.chunkMaxs()[1], 0);
+      assertEquals(nchks*len-1, v.chunkMaxs()[3], 0);
+    } finally {
+      if( v != null ) v.remove();
+    }
+  }
+
+  private static int lowerBound( double[] ds, double x ) {
+    int i = Arrays.binarySearch(ds, x);
+    if( i < 0 ) return -i-1;
+    while( i > 0 && ds[i-1] == x ) i--;
+    return i;
+  }
 }
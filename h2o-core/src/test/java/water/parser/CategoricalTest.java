@@ -0,0 +1,76 @@
+package water.parser;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.Arrays;
+
+import water.AutoBuffer;
+import water.TestUtil;
+
+public class CategoricalTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  private static String level( int i ) { return "level-"+(i*7919%5000); }
+
+  // Threads adding the same levels concurrently agree on every id, and ids
+  // are distinct, through many table grows.  Ids lost to racing adds leave
+  // gaps, as they always did.
+  @Test public void testConcurrentAdd() throws InterruptedException {
+    final Categorical cat = new Categorical();
+    final int nthreads = 8, nrows = 50000;
+    final int[][] ids = new int[nthreads][nrows];
+    Thread[] ts = new Thread[nthreads];
+    for( int t=0; t<nthreads; t++ ) {
+      final int ft = t;
+      ts[t] = new Thread() {
+        @Override public void run() {
+          ValueString vs = new ValueString();
+          for( int i=0; i<nrows; i++ ) {
+            // Views into a bigger buffer, as in the parser
+            byte[] bs = ("xx"+level(i+ft)+"yy").getBytes();
+            ids[ft][(i+ft)%nrows] = cat.addKey(vs.set(bs,2,bs.length-4));
+          }
+        }
+      };
+      ts[t].start();
+    }
+    for( Thread t : ts ) t.join();
+    assertEquals(5000, cat.size());
+    assertTrue(cat.maxId() >= 5000);
+    int[] byLevel = new int[5000];
+    for( int i=0; i<nrows; i++ ) {
+      for( int t=1; t<nthreads; t++ ) assertEquals(ids[0][i], ids[t][i]);
+      int l = i*7919%5000;
+      if( byLevel[l] == 0 ) byLevel[l] = ids[0][i];
+      else assertEquals(byLevel[l], ids[0][i]);
+      assertEquals(ids[0][i], cat.getTokenId(new ValueString(level(i))));
+    }
+    int[] sorted = byLevel.clone();
+    Arrays.sort(sorted);
+    assertTrue(sorted[0] > 0 && sorted[sorted.length-1] <= cat.maxId());
+    for( int i=1; i<sorted.length; i++ ) assertTrue(sorted[i-1] < sorted[i]);
+    assertFalse(cat.containsKey(new ValueString("level-5000")));
+  }
+
+  // Serialized and copied maps keep every key and id
+  @Test public void testCopyAndDomain() {
+    Categorical cat = new Categorical();
+    for( int i=0; i<1000; i++ ) cat.addKey(new ValueString("c"+(999-i)));
+    Categorical cat2 = new AutoBuffer().put(cat).flipForReading().get();
+    Categorical cat3 = cat.deepCopy();
+    cat.addKey(new ValueString("extra"));
+    assertEquals(1001, cat.size());
+    assertEquals(1000, cat3.size());
+    for( Categorical c : new Categorical[]{cat2,cat3} ) {
+      assertEquals(1000, c.maxId());
+      for( int i=0; i<1000; i++ ) assertEquals(i+1, c.getTokenId(new ValueString("c"+(999-i))));
+    }
+    ValueString[] dom = cat2.sortedKeys();
+    assertEquals(1000, dom.length);
+    for( int j=0; j<dom.length; j++ ) {
+      if( j > 0 ) assertTrue(dom[j-1].compareTo(dom[j]) < 0);
+      assertEquals(1000-Integer.parseInt(dom[j].toString().substring(1)), cat2.getTokenId(dom[j]));
+    }
+  }
+}
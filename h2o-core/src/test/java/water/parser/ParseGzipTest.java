@@ -0,0 +1,125 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.DKV;
+import water.Job;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.NFSFileVec;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ParseGzipTest extends TestUtil {
+  @BeforeClass static public void setup() { stall_till_cloudsize(1); }
+
+  // Plain gzip and block gzip (BGZF) parse the same as the uncompressed file
+  @Test public void testGzipAndBGZF() throws IOException {
+    StringBuilder sb = new StringBuilder("a,b,c\n");
+    for( int i=0; i<200000; i++ ) sb.append(i).append(',').append(i*0.5).append(',').append(i%7).append('\n');
+    byte[] csv = sb.toString().getBytes();
+
+    File raw = File.createTempFile("parse", ".csv");
+    File gz  = File.createTempFile("parse", ".csv.gz");
+    File bgz = File.createTempFile("parse", ".csv.bgz");
+    Frame fr = null, fr2 = null;
+    try {
+      try( OutputStream os = new FileOutputStream(raw) ) { os.write(csv); }
+      try( OutputStream os = new GZIPOutputStream(new FileOutputStream(gz)) ) { os.write(csv); }
+      try( OutputStream os = new FileOutputStream(bgz) ) { writeBGZF(os, csv); }
+      fr = ParseDataset.parse(Key.make("raw.hex"), NFSFileVec.make(raw)._key);
+      for( File f : new File[]{gz,bgz} ) {
+        fr2 = ParseDataset.parse(Key.make("gz.hex"), NFSFileVec.make(f)._key);
+        assertEquals(fr.numRows(), fr2.numRows());
+        assertEquals(fr.numCols(), fr2.numCols());
+        for( int c=0; c<fr.numCols(); c++ )
+          for( long r=0; r<fr.numRows(); r+=997 )
+            assertEquals(fr.vecs()[c].at(r), fr2.vecs()[c].at(r), 0);
+        fr2.delete();  fr2 = null;
+      }
+    } finally {
+      if( fr  != null ) fr .delete();
+      if( fr2 != null ) fr2.delete();
+      raw.delete();  gz.delete();  bgz.delete();
+    }
+  }
+
+  // Closing the stream stops its reader task, even over endless input
+  @Test public void testCloseStopsReader() throws Exception {
+    final AtomicLong reads = new AtomicLong();
+    InflaterPipeline p = InflaterPipeline.pipe(endless(reads), endless(reads), null);
+    assertEquals('x', p.read());
+    p.close();
+    Thread.sleep(500);
+    long n = reads.get();
+    Thread.sleep(500);
+    assertEquals(n, reads.get());
+  }
+
+  // A reader whose parse job has stopped fails the parse rather than read on
+  @Test public void testStoppedJob() throws Exception {
+    Job job = new Job(Key.make(), "inflate");
+    DKV.put(job._key, job);     // Never started, so not running
+    try {
+      InflaterPipeline p = InflaterPipeline.pipe(endless(new AtomicLong()), endless(new AtomicLong()), job._key);
+      try {
+        p.read();
+        fail("Read past a stopped job");
+      } catch( IOException expected ) {
+      } finally {
+        p.close();
+      }
+    } finally {
+      DKV.remove(job._key);
+    }
+  }
+
+  // Endless 'x's, counting reads; also answers the chunk-index back-channel
+  private static InputStream endless( final AtomicLong reads ) {
+    return new InputStream() {
+      @Override public int read() { reads.incrementAndGet(); return 'x'; }
+      @Override public int read( byte[] b, int off, int len ) {
+        if( b == null ) return 0;
+        reads.incrementAndGet();
+        Arrays.fill(b, off, off+len, (byte)'x');
+        return len;
+      }
+    };
+  }
+
+  // BGZF: gzip members of at most 64K input, each with its size in a "BC"
+  // extra field, then an empty member as end marker
+  private static void writeBGZF( OutputStream os, byte[] bits ) throws IOException {
+    byte[] buf = new byte[1<<17];
+    for( int off=0, len; ; off += len ) {
+      len = Math.min(1<<16, bits.length-off);
+      Deflater def = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      def.setInput(bits, off, len);
+      def.finish();
+      int zlen = 0;
+      while( !def.finished() ) zlen += def.deflate(buf, zlen, buf.length-zlen);
+      def.end();
+      CRC32 crc = new CRC32();
+      crc.update(bits, off, len);
+      int bsize = 18 + zlen + 8;
+      os.write(new byte[]{0x1f, (byte)0x8b, 8, 4, 0,0,0,0, 0, (byte)0xff, 6,0, 'B','C', 2,0,
+                          (byte)(bsize-1), (byte)((bsize-1)>>8)});
+      os.write(buf, 0, zlen);
+      writeInt(os, (int)crc.getValue());
+      writeInt(os, len);
+      if( len == 0 ) break;
+    }
+  }
+  private static void writeInt( OutputStream os, int x ) throws IOException {
+    os.write(x);  os.write(x>>8);  os.write(x>>16);  os.write(x>>24);
+  }
+}
@@ -4,6 +4,15 @@ import org.junit.*;
 
 import water.*;
 import water.fvec.*;
+import water.util.FileIntegrityChecker;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.zip.GZIPOutputStream;
 
 public class ParserTest2 extends TestUtil {
   @BeforeClass
@@ -232,4 +241,155 @@ public class ParserTest2 extends TestUtil {
     Key k = ParserTest.makeByteVec(data);
     ParserTest.testParsed(ParseDataset.parse(Key.make(), k),exp,33);
   }
+
+  // Files with different levels, parsed together, get one sorted domain
+  // and every row keeps its level
+  @Test public void testEnumDomainMerge() {
+    Key k1 = ParserTest.makeByteVec("1,pear,b\n2,fig,a\n3,pear,a\n");
+    Key k2 = ParserTest.makeByteVec("4,apple,c\n5,fig,b\n", "6,kiwi,c\n7,apple,a\n");
+    Frame fr = ParseDataset.parse(Key.make(), k1, k2);
+    try {
+      Assert.assertArrayEquals(new String[]{"apple","fig","kiwi","pear"}, fr.vecs()[1].domain());
+      Assert.assertArrayEquals(new String[]{"a","b","c"}, fr.vecs()[2].domain());
+      String[][] exp = {{"pear","b"},{"fig","a"},{"pear","a"},{"apple","c"},{"fig","b"},{"kiwi","c"},{"apple","a"}};
+      Assert.assertEquals(exp.length, fr.numRows());
+      for( int i=0; i<exp.length; i++ ) {
+        Assert.assertEquals(i+1, fr.vecs()[0].at8(i));
+        for( int j=0; j<2; j++ )
+          Assert.assertEquals(exp[i][j], fr.vecs()[j+1].domain()[(int)fr.vecs()[j+1].at8(i)]);
+      }
+    } finally {
+      fr.delete();
+    }
+  }
+
+  // Local ids met in sorted order are already the global ids, so a single
+  // node parse needs no map and leaves its enum chunks alone; out of order
+  // they are mapped.  The first level is id 0 in the chunks, in rows too
+  // common for the chunk to stay dense.
+  @Test public void testEnumIdsInOrder() {
+    Categorical in = new Categorical(), out = new Categorical();
+    for( String s : new String[]{"a","b","c","b"} ) in.addKey(new ValueString(s));
+    for( String s : new String[]{"b","c","a"} ) out.addKey(new ValueString(s));
+    Assert.assertNull(ParseDataset.EnumMapTask.emap(in, in.sortedKeys()));
+    Assert.assertArrayEquals(new int[]{1,2,0}, ParseDataset.EnumMapTask.emap(out, out.sortedKeys()));
+
+    StringBuilder sb = new StringBuilder("0,a,b\n");
+    for( int i=1; i<1000; i++ ) sb.append(i).append(i%100==0 ? ",b,b\n" : ",a,a\n");
+    Frame fr = ParseDataset.parse(Key.make(), ParserTest.makeByteVec(sb.toString()));
+    try {
+      for( int j=0; j<2; j++ ) {
+        Vec v = fr.vecs()[j+1];
+        Assert.assertTrue(v.isEnum());
+        Assert.assertArrayEquals(new String[]{"a","b"}, v.domain());
+        for( int i=0; i<1000; i++ )
+          Assert.assertEquals(i%100==0 && (j==1 || i>0) ? 1 : 0, v.at8(i));
+      }
+    } finally {
+      fr.delete();
+    }
+  }
+
+  // Digit runs, over-long numbers and string bodies scanned in bulk; the
+  // numbers split mid-token across chunks
+  @Test public void testBulkRuns() {
+    String[] data = new String[]{
+      "123456789012,\"quoted, with sep\",0.000123456789,plain text here\n-98765,\"it''s 'fine'\",1.234567890123456789e22,abc\n4",
+      "2,\"quoted, with sep\",3.14159265358979,abc\n7,\"it''s 'fine'\",1",
+      "e3,plain text here\n",
+    };
+    Key k = ParserTest.makeByteVec(data);
+    Frame fr = ParseDataset.parse(Key.make(), k);
+    try {
+      Assert.assertEquals(4, fr.numRows());
+      long[] ls = {123456789012L, -98765, 42, 7};
+      double[] ds = {0.000123456789, 1.2345678901234567e22, 3.14159265358979, 1000};
+      String[][] strs = {{"quoted, with sep","it''s 'fine'","quoted, with sep","it''s 'fine'"},
+                         {"plain text here","abc","abc","plain text here"}};
+      for( int i=0; i<4; i++ ) {
+        Assert.assertEquals(ls[i], fr.vecs()[0].at8(i));
+        Assert.assertEquals(ds[i], fr.vecs()[2].at(i), Math.abs(ds[i])*1e-15);
+        for( int j=0; j<2; j++ ) {
+          Vec v = fr.vecs()[j==0 ? 1 : 3];
+          Assert.assertEquals(strs[j][i], v.isString() ? v.atStr(new ValueString(),i).toString() : v.domain()[(int)v.at8(i)]);
+        }
+      }
+    } finally {
+      fr.delete();
+    }
+  }
+
+  // A directory of many small files, found by a nested listing, parses into
+  // a chunk per pack of files, in file order, with a header per file
+  @Test public void testSmallFilePacking() throws IOException {
+    File dir = Files.createTempDirectory("packs").toFile();
+    Frame fr = null;
+    try {
+      int id = 0;
+      for( String sub : new String[]{"a","b","c"} ) {
+        File d = new File(dir,sub);
+        Assert.assertTrue(d.mkdir());
+        int nfiles = sub.equals("b") ? 1 : 150, nrows = sub.equals("b") ? 60000 : 3;
+        for( int f=0; f<nfiles; f++ ) {
+          StringBuilder sb = new StringBuilder("id,level\n");
+          for( int r=0; r<nrows; r++, id++ ) sb.append(id).append(",L").append(id%2).append(r<nrows-1 || f%2==0 ? "\n" : "");
+          Files.write(new File(d,String.format("f%03d.csv",f)).toPath(),sb.toString().getBytes());
+        }
+      }
+      ArrayList<String> keys = new ArrayList<>();
+      FileIntegrityChecker.check(dir).syncDirectory(null,keys,null,new ArrayList<String>());
+      Assert.assertEquals(301, keys.size());
+      Key[] fkeys = new Key[keys.size()];
+      for( int i=0; i<fkeys.length; i++ ) fkeys[i] = Key.make(keys.get(i));
+      fr = ParseDataset.parse(Key.make(), fkeys);
+      Assert.assertEquals(id, fr.numRows());
+      // Two packs and the big file's own chunks, rather than a chunk per file
+      Assert.assertTrue(fr.anyVec().nChunks()+" chunks", fr.anyVec().nChunks() < 10);
+      Assert.assertArrayEquals(new String[]{"id","level"}, fr.names());
+      Vec ids = fr.vecs()[0], lvls = fr.vecs()[1];
+      Assert.assertEquals(2, lvls.domain().length);
+      for( int i=0; i<id; i++ ) {
+        Assert.assertEquals(i, ids.at8(i));
+        Assert.assertEquals("L"+(i%2), lvls.domain()[(int)lvls.at8(i)]);
+      }
+    } finally {
+      if( fr != null ) fr.delete();
+      for( File d : dir.listFiles() ) {
+        for( File f : d.listFiles() ) f.delete();
+        d.delete();
+      }
+      dir.delete();
+    }
+  }
+
+  // A small compressed file among small plain ones parses on its own: it is
+  // not packed by its compressed length
+  @Test public void testCompressedNotPacked() throws IOException {
+    File dir = Files.createTempDirectory("packs").toFile();
+    Frame fr = null;
+    try {
+      int id = 0;
+      for( int f=0; f<5; f++ ) {
+        StringBuilder sb = new StringBuilder("id\n");
+        for( int r=0; r<100; r++, id++ ) sb.append(id).append('\n');
+        File file = new File(dir,String.format("f%d.csv",f)+(f==2 ? ".gz" : ""));
+        try( OutputStream os = f==2 ? new GZIPOutputStream(new FileOutputStream(file)) : new FileOutputStream(file) ) {
+          os.write(sb.toString().getBytes());
+        }
+      }
+      ArrayList<String> keys = new ArrayList<>();
+      FileIntegrityChecker.check(dir).syncDirectory(null,keys,null,new ArrayList<String>());
+      Key[] fkeys = new Key[keys.size()];
+      for( int i=0; i<fkeys.length; i++ ) fkeys[i] = Key.make(keys.get(i));
+      fr = ParseDataset.parse(Key.make(), fkeys);
+      Assert.assertEquals(id, fr.numRows());
+      // f0+f1, the compressed f2 alone, and f3+f4
+      Assert.assertEquals(3, fr.anyVec().nChunks());
+      for( int i=0; i<id; i++ ) Assert.assertEquals(i, fr.vecs()[0].at8(i));
+    } finally {
+      if( fr != null ) fr.delete();
+      for( File f : dir.listFiles() ) f.delete();
+      dir.delete();
+    }
+  }
 }
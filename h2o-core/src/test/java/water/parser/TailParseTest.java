@@ -0,0 +1,89 @@
+package water.parser;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import water.Key;
+import water.TestUtil;
+import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class TailParseTest extends TestUtil {
+  @BeforeClass public static void setup() { stall_till_cloudsize(1); }
+
+  private static void append( File f, String s ) throws IOException {
+    try( FileOutputStream os = new FileOutputStream(f,true) ) { os.write(s.getBytes()); }
+  }
+
+  // Complete lines are appended as new chunks, a partial line waits for its
+  // newline, new enum levels go after the old ones, and rollups cover all rows
+  @Test public void testFollow() throws IOException {
+    File f = File.createTempFile("tail",".csv");
+    Frame fr = null;
+    try {
+      StringBuilder sb = new StringBuilder("id,price,level\n");
+      for( int i=0; i<1000; i++ ) sb.append(i).append(',').append(i/4.0).append(',').append(i%2==0 ? "x" : "y").append('\n');
+      append(f,sb.append("1000,2").toString());
+      TailParse tp = TailParse.start(f.getPath(),Key.<Frame>make("tail.hex"));
+      fr = tp.poll();           // Nothing new yet
+      assertEquals(1000,fr.numRows());
+      assertEquals(999,fr.vec(0).max(),0);
+      assertArrayEquals(new String[]{"x","y"},fr.vec(2).domain());
+
+      sb = new StringBuilder("50.0,a\n");
+      for( int i=1001; i<1500; i++ ) sb.append(i).append(',').append(i/4.0).append(',').append(i%3==0 ? "z" : "y").append('\n');
+      append(f,sb.append("1500,37").toString());
+      fr = tp.poll();
+      assertEquals(1500,fr.numRows());
+      assertEquals(2,fr.vec(0).nChunks());
+      assertArrayEquals(new String[]{"x","y","a","z"},fr.vec(2).domain());
+      assertEquals(Vec.T_ENUM,fr.vec(2).get_type());
+      assertEquals(1000,fr.vec(0).at8(1000));
+      assertEquals(250.0,fr.vec(1).at(1000),0);
+      assertEquals("a",fr.vec(2).domain()[(int)fr.vec(2).at8(1000)]);
+      assertEquals("y",fr.vec(2).domain()[(int)fr.vec(2).at8(1001)]);
+      assertEquals("z",fr.vec(2).domain()[(int)fr.vec(2).at8(1002)]);
+      assertEquals("x",fr.vec(2).domain()[(int)fr.vec(2).at8(998)]);
+      assertEquals(1499,fr.vec(0).max(),0);
+      assertEquals(749.5,fr.vec(0).mean(),1e-9);
+      assertEquals(0,fr.vec(0).naCnt());
+      assertEquals(tp.offset(),f.length()-"1500,37".length());
+
+      append(f,"5.125,x\n");
+      fr = tp.poll();
+      assertEquals(1501,fr.numRows());
+      assertEquals(3,fr.vec(0).nChunks());
+      assertEquals(375.125,fr.vec(1).at(1500),0);
+      assertEquals(tp.offset(),f.length());
+    } finally {
+      if( fr != null ) fr.delete();
+      f.delete();
+    }
+  }
+
+  // Text in a numeric column reads as missing, as with forced column types
+  @Test public void testForcedTypes() throws IOException {
+    File f = File.createTempFile("tail",".csv");
+    Frame fr = null;
+    try {
+      append(f,"1,2\n3,4\n");
+      TailParse tp = TailParse.start(f.getPath(),Key.<Frame>make("tail2.hex"));
+      append(f,"5,abc\n6,7\n");
+      fr = tp.poll();
+      assertEquals(4,fr.numRows());
+      assertEquals(Vec.T_NUM,fr.vec(1).get_type());
+      assertTrue(fr.vec(1).isNA(2));
+      assertEquals(7,fr.vec(1).at8(3));
+      assertEquals(1,fr.vec(1).naCnt());
+      assertEquals(7,fr.vec(1).max(),0);
+    } finally {
+      if( fr != null ) fr.delete();
+      f.delete();
+    }
+  }
+}
@@ -1,12 +1,22 @@
 package water.rapids;
 
+import static org.junit.Assert.assertEquals;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.Ignore;
 import water.DKV;
+import water.H2O;
 import water.Key;
 import water.TestUtil;
+import water.fvec.C0DChunk;
+import water.fvec.C0LChunk;
 import water.fvec.Frame;
+import water.fvec.Vec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public class RapidsTest extends TestUtil {
   @BeforeClass public static void setup() { stall_till_cloudsize(1); }
@@ -100,6 +110,66 @@ public class RapidsTest extends TestUtil {
     r.delete();
   }
 
+  @Test public void testFused() {
+    // Checking `log(a*b+c) > 3` and `10 - a*2`, each done in a single pass
+    Frame a=null, b=null, c=null, f=null;
+    try {
+      a = frame(Key.make("a.hex"), null, new double[][]{{1},{2},{Double.NaN},{4},{50},{-1}});
+      b = frame(Key.make("b.hex"), null, new double[][]{{1},{30},{3},{Double.NaN},{6},{2}});
+      c = frame(Key.make("c.hex"), null, new double[][]{{0},{1},{2},{3},{4},{5}});
+      f = Exec.exec("(g (log (+ (* %a.hex %b.hex) %c.hex)) #3)").popAry();
+      double exp[] = {0, 1, Double.NaN, Double.NaN, 1, 0};
+      for( int i=0; i<exp.length; i++ ) assertEquals(exp[i], f.vecs()[0].at(i), 0);
+      f.delete();
+      f = Exec.exec("(- #10 (* %a.hex #2))").popAry();
+      exp = new double[]{8, 6, Double.NaN, 2, -90, 12};
+      for( int i=0; i<exp.length; i++ ) assertEquals(exp[i], f.vecs()[0].at(i), 0);
+      assertEquals("C1", f.names()[0]);
+    } finally {
+      if( f != null ) f.delete();
+      for( Frame fr : new Frame[]{a,b,c} ) if( fr != null ) fr.delete();
+    }
+  }
+
+  @Test public void testNotFused() {
+    // An enum leaf in a nested tree, on the right, the left and both sides:
+    // the ops run one at a time, each on its own operands
+    Frame a=null, b=null, c=null, e=null, f=null;
+    try {
+      a = frame(Key.make("a.hex"), null, new double[][]{{1},{2},{Double.NaN},{4},{50},{-1}});
+      b = frame(Key.make("b.hex"), null, new double[][]{{1},{30},{3},{Double.NaN},{6},{2}});
+      c = frame(Key.make("c.hex"), null, new double[][]{{0},{1},{0},{1},{1},{0}});
+      Vec ev = c.anyVec().makeCopy(null);
+      ev.setDomain(new String[]{"x","y"});
+      DKV.put(ev);
+      e = new Frame(Key.make("e.hex"), null, new Vec[]{ev});
+      DKV.put(e);
+      String trees[] = {
+        "(+ %a.hex (* %b.hex (n %e.hex \"x\")))",
+        "(+ (* (n %e.hex \"x\") %b.hex) %a.hex)",
+        "(- (* %a.hex (n %e.hex \"x\")) (+ (* %b.hex #2) #1))",
+      };
+      double exps[][] = {
+        {2, 2, Double.NaN, Double.NaN, 50, 1},
+        {2, 2, Double.NaN, Double.NaN, 50, 1},
+        {-2, -61, Double.NaN, Double.NaN, -13, -6},
+      };
+      for( int t=0; t<trees.length; t++ ) {
+        f = Exec.exec(trees[t]).popAry();
+        for( int i=0; i<exps[t].length; i++ ) assertEquals(trees[t]+" row "+i, exps[t][i], f.vecs()[0].at(i), 0);
+        f.delete();
+        f = null;
+      }
+      // A filter, as in fr$cat=="x" & fr$x+fr$y<10
+      f = Exec.exec("(& (n %e.hex \"x\") (< (+ %a.hex %b.hex) #10))").popAry();
+      double exp[] = {1, 0, Double.NaN, Double.NaN, 0, 1};
+      for( int i : new int[]{0,1,4,5} ) assertEquals(exp[i], f.vecs()[0].at(i), 0);
+    } finally {
+      if( f != null ) f.delete();
+      for( Frame fr : new Frame[]{a,b,c,e} ) if( fr != null ) fr.delete();
+    }
+  }
+
   @Test public void testMerge() {
     Frame l=null,r=null,f=null;
     try {
@@ -124,4 +194,113 @@ public class RapidsTest extends TestUtil {
       if( l != null ) l.delete();
     }
   }
+
+  @Test public void testMergeJoins() {
+    // Two join columns, one of them real; duplicate keys on both sides; NA
+    // keys match each other
+    Frame l=null,r=null,f=null;
+    double NA = Double.NaN;
+    try {
+      l = frame(Key.make("l.hex"), ar("k1","k2","a"),
+                new double[][]{{1,0.5,10},{1,0.5,11},{2,1.5,12},{3,0,13},{NA,1,14}});
+      r = frame(Key.make("r.hex"), ar("k1","k2","b"),
+                new double[][]{{1,0.5,100},{2,1.5,101},{2,1.5,102},{4,0,103},{NA,1,104}});
+      String inner[] = {"1.0 0.5 10.0 100.0","1.0 0.5 11.0 100.0","2.0 1.5 12.0 101.0","2.0 1.5 12.0 102.0","NaN 1.0 14.0 104.0"};
+      String left = "3.0 0.0 13.0 NaN", rite = "4.0 0.0 NaN 103.0";
+      String flags[] = {"#0 #0","#1 #0","#0 #1","#1 #1"};
+      for( int i=0; i<flags.length; i++ ) {
+        f = Exec.exec("(merge %l.hex %r.hex "+flags[i]+")").popAry();
+        ArrayList<String> exp = new ArrayList<>(Arrays.asList(inner));
+        if( (i&1) != 0 ) exp.add(left);
+        if( (i&2) != 0 ) exp.add(rite);
+        Collections.sort(exp);
+        assertEquals(exp.toString(), rows(f).toString());
+        assertEquals("[k1, k2, a, b]", Arrays.toString(f.names()));
+        assertEquals(H2O.CLOUD.size(), f.anyVec().nChunks()); // Small: one partition per node
+        f.delete();  f = null;
+      }
+    } finally {
+      if( f != null ) f.delete();
+      if( r != null ) r.delete();
+      if( l != null ) l.delete();
+    }
+  }
+
+  @Test public void testMergeBatches() {
+    // Shuffled rows are flushed in many small batches, all joined
+    Frame l=null,r=null,f=null;
+    long flush = ASTMerge.FLUSH_BYTES;
+    try {
+      ASTMerge.FLUSH_BYTES = 1<<12;
+      Vec lk = Vec.makeSeq(20000), rk = Vec.makeSeq(5000,30000);
+      l = new Frame(Key.make("lb.hex"), ar("k","a"), new Vec[]{lk,lk.makeCopy(null)});
+      DKV.put(l);
+      r = new Frame(Key.make("rb.hex"), ar("k","b"), new Vec[]{rk,rk.makeCopy(null)});
+      DKV.put(r);
+      f = Exec.exec("(merge %lb.hex %rb.hex #0 #0)").popAry();
+      assertEquals(15001, f.numRows());
+      Vec k = f.vecs()[0], a = f.vecs()[1], b = f.vecs()[2];
+      for( long i=0; i<f.numRows(); i++ ) {
+        assertEquals(k.at8(i), a.at8(i));
+        assertEquals(k.at8(i), b.at8(i));
+      }
+      assertEquals(5000, k.min(), 0);
+      assertEquals(20000, k.max(), 0);
+    } finally {
+      ASTMerge.FLUSH_BYTES = flush;
+      if( f != null ) f.delete();
+      if( r != null ) r.delete();
+      if( l != null ) l.delete();
+    }
+  }
+
+  @Test public void testZoneMapFilter() {
+    // Sorted column over 5 chunks; chunk 2 has NAs, chunk 4 is all NA.
+    // Chunks whose min/max settle `z > 250` are not decoded
+    Vec v = new Vec(Vec.newKey(), new long[]{0,100,200,300,400,500}).makeZero();
+    Vec.Writer w = v.open();
+    for( int i=0; i<500; i++ )
+      if( i >= 400 || i%10 == 7 && i/100 == 2 ) w.setNA(i);
+      else w.set(i, i);
+    w.close();
+    Frame fr = new Frame(Key.make("z.hex"), new String[]{"z"}, new Vec[]{v});
+    DKV.put(fr);
+    Frame p = null, f = null;
+    try {
+      v.min();                  // Compute the rollups
+      assertEquals("[0.0, 100.0, 200.0, 300.0, NaN]", Arrays.toString(v.chunkMins()));
+      assertEquals("[99.0, 199.0, 299.0, 399.0, NaN]", Arrays.toString(v.chunkMaxs()));
+      assertEquals("[0, 0, 10, 0, 100]", Arrays.toString(v.chunkNAs()));
+
+      p = Exec.exec("(> %z.hex #250)").popAry();
+      Vec pv = p.anyVec();
+      assertEquals(C0LChunk.class, pv.chunkForChunkIdx(0).getClass());
+      assertEquals(C0LChunk.class, pv.chunkForChunkIdx(1).getClass());
+      assertEquals(C0LChunk.class, pv.chunkForChunkIdx(3).getClass());
+      assertEquals(C0DChunk.class, pv.chunkForChunkIdx(4).getClass());
+      for( int i=0; i<500; i++ )
+        assertEquals(i >= 400 || v.isNA(i) ? Double.NaN : i > 250 ? 1 : 0, pv.at(i), 0);
+
+      f = Exec.exec("([ %z.hex (> %z.hex #250) \"null\")").popAry();
+      assertEquals(149-5, f.numRows()); // 251..399, less the NAs 257..297
+      assertEquals(251, f.anyVec().at(0), 0);
+      assertEquals(399, f.anyVec().at(f.numRows()-1), 0);
+    } finally {
+      if( f != null ) f.delete();
+      if( p != null ) p.delete();
+      fr.delete();
+    }
+  }
+
+  // All rows of a frame as strings, sorted, since merge does not keep row order
+  private static List<String> rows( Frame f ) {
+    ArrayList<String> rows = new ArrayList<>();
+    for( long r=0; r<f.numRows(); r++ ) {
+      StringBuilder sb = new StringBuilder();
+      for( int c=0; c<f.numCols(); c++ ) sb.append(c==0 ? "" : " ").append(f.vecs()[c].at(r));
+      rows.add(sb.toString());
+    }
+    Collections.sort(rows);
+    return rows;
+  }
 }
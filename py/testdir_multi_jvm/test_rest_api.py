@@ -642,7 +642,7 @@ frames = a_node.summary(key='prostate_binomial', column='AGE')['frames']
 columns_dict = h2o_util.list_to_dict(frames[0]['columns'], 'label')
 assert 'AGE' in columns_dict, "FAIL: Failed to find AGE in Frames/prostate.hex/columns/AGE/summary."
 col = columns_dict['AGE']
-h2o_util.assertKeysExistAndNonNull(col, '', ['label', 'missing_count', 'zero_count', 'positive_infinity_count', 'negative_infinity_count', 'mins', 'maxs', 'mean', 'sigma', 'type', 'data', 'precision', 'histogram_bins', 'histogram_base', 'histogram_stride', 'percentiles'])
+h2o_util.assertKeysExistAndNonNull(col, '', ['label', 'missing_count', 'zero_count', 'positive_infinity_count', 'negative_infinity_count', 'distinct_count', 'mins', 'maxs', 'mean', 'sigma', 'type', 'data', 'precision', 'histogram_bins', 'histogram_base', 'histogram_stride', 'percentiles'])
 h2o_util.assertKeysExist(col, '', ['domain', 'string_data'])
 assert col['mins'][0] == 43, 'FAIL: Failed to find 43 as the first min for AGE.'
 assert col['maxs'][0] == 79, 'FAIL: Failed to find 79 as the first max for AGE.'